@@ -0,0 +1,130 @@
+package com.example.deliveryboy.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.deliveryboy.DeliveryboyApplication;
+import com.example.deliveryboy.entity.DeliveryBoy;
+import com.example.deliveryboy.entity.Order;
+import com.example.deliveryboy.entity.User;
+import com.example.deliveryboy.repository.BillRepository;
+import com.example.deliveryboy.repository.DeliveryBoyRepository;
+import com.example.deliveryboy.repository.DeliveryRepository;
+import com.example.deliveryboy.repository.OrderRepository;
+import com.example.deliveryboy.repository.UserRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * The application without its web server, on an in-memory H2 database in PostgreSQL mode
+ * (as in the application's tests), seeded with {@link Fixtures}: 1k users, 500 delivery
+ * boys, and 10k each of orders, deliveries and bills. Started once per fork.
+ * {@code benchmark.jdbc.url} (plus {@code .user} / {@code .password}) points it at a
+ * PostgreSQL instance instead.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+    private static final int SEED_CHUNK = 500;
+
+    ConfigurableApplicationContext context;
+    EntityManager entityManager;
+    TransactionTemplate transactionTemplate;
+    TransactionTemplate readOnlyTemplate;
+    UserRepository userRepository;
+    DeliveryBoyRepository deliveryBoyRepository;
+    OrderRepository orderRepository;
+    DeliveryRepository deliveryRepository;
+    BillRepository billRepository;
+    final List<Long> empIds = new ArrayList<>();
+    final List<Long> billIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void start() {
+        String url = System.getProperty("benchmark.jdbc.url");
+        boolean h2 = url == null;
+        context = new SpringApplicationBuilder(DeliveryboyApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + (h2 ? "jdbc:h2:mem:jmh;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH" : url),
+                        "--spring.datasource.username=" + System.getProperty("benchmark.jdbc.user", "sa"),
+                        "--spring.datasource.password=" + System.getProperty("benchmark.jdbc.password", ""),
+                        "--spring.datasource.driver-class-name=" + (h2 ? "org.h2.Driver" : "org.postgresql.Driver"),
+                        "--spring.r2dbc.url=r2dbc:h2:mem:///jmh_r2dbc",
+                        "--spring.jpa.properties.hibernate.dialect=" + (h2 ? "org.hibernate.dialect.H2Dialect"
+                                : "org.hibernate.dialect.PostgreSQLDialect"),
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--logging.level.root=WARN",
+                        "--logging.file.name=target/benchmark.log");
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        PlatformTransactionManager transactionManager = context.getBean("transactionManager", PlatformTransactionManager.class);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+        userRepository = context.getBean(UserRepository.class);
+        deliveryBoyRepository = context.getBean(DeliveryBoyRepository.class);
+        orderRepository = context.getBean(OrderRepository.class);
+        deliveryRepository = context.getBean(DeliveryRepository.class);
+        billRepository = context.getBean(BillRepository.class);
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    // Runs the work and its flush, then rolls back, so inserts can repeat without growing the tables
+    <T> T rolledBack(Supplier<T> work) {
+        return transactionTemplate.execute(status -> {
+            T result = work.get();
+            entityManager.flush();
+            status.setRollbackOnly();
+            return result;
+        });
+    }
+
+    private void seed() {
+        List<User> users = new ArrayList<>();
+        List<DeliveryBoy> deliveryBoys = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < Fixtures.USERS; i++) {
+                users.add(Fixtures.user(i));
+                entityManager.persist(users.get(i));
+            }
+            for (int i = 0; i < Fixtures.DELIVERY_BOYS; i++) {
+                deliveryBoys.add(Fixtures.deliveryBoy(i));
+                entityManager.persist(deliveryBoys.get(i));
+            }
+        });
+        deliveryBoys.forEach(deliveryBoy -> empIds.add(deliveryBoy.getEmpId()));
+        for (int from = 0; from < Fixtures.ORDERS; from += SEED_CHUNK) {
+            int start = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = start; i < Math.min(start + SEED_CHUNK, Fixtures.ORDERS); i++) {
+                    Order order = Fixtures.order(i, entityManager.getReference(User.class, Fixtures.userId(i % Fixtures.USERS)));
+                    entityManager.persist(order);
+                    entityManager.persist(Fixtures.delivery(i, order, entityManager.getReference(DeliveryBoy.class,
+                            empIds.get(i % empIds.size()))));
+                    var bill = Fixtures.bill(i, order);
+                    entityManager.persist(bill);
+                    billIds.add(bill.getBillId());
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+    }
+}
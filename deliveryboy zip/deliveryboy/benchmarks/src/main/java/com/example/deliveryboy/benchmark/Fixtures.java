@@ -0,0 +1,63 @@
+package com.example.deliveryboy.benchmark;
+
+import java.math.BigDecimal;
+
+import com.example.deliveryboy.entity.Bill;
+import com.example.deliveryboy.entity.Delivery;
+import com.example.deliveryboy.entity.DeliveryBoy;
+import com.example.deliveryboy.entity.Order;
+import com.example.deliveryboy.entity.User;
+
+// Deterministic rows shared by the suites; ids sort in creation order so keyset pages can start anywhere
+final class Fixtures {
+    static final int USERS = 1_000;  // Seeded with three-digit ids, at most 1000
+    static final int DELIVERY_BOYS = 500;
+    static final int ORDERS = 10_000;
+    private static final String[] VEHICLES = { "bike", "scooter", "car" };
+
+    private Fixtures() {
+    }
+
+    static String userId(int i) {
+        return String.format("%03d", i);
+    }
+
+    static String orderId(int i) {
+        return String.format("ORD%06d", i);
+    }
+
+    static String deliveryId(int i) {
+        return String.format("DLV%06d", i);
+    }
+
+    static User user(int i) {
+        User user = new User(userId(i), "User " + i, "user" + i + "@example.com", String.format("9%09d", i));
+        user.setVersion(0L);
+        return user;
+    }
+
+    static DeliveryBoy deliveryBoy(int i) {
+        DeliveryBoy deliveryBoy = new DeliveryBoy();
+        deliveryBoy.setEname("Rider " + i);
+        deliveryBoy.setEmail("rider" + i + "@example.com");
+        deliveryBoy.setVehicle(VEHICLES[i % VEHICLES.length]);
+        deliveryBoy.setPhoneNumber(String.format("8%09d", i));
+        return deliveryBoy;
+    }
+
+    static Order order(int i, User user) {
+        Order order = new Order(orderId(i), "2x masala dosa, 1x filter coffee, extra chutney (order " + i + ")",
+                i + ", 4th Cross, Indiranagar, Bengaluru 560038", user);
+        order.setLatitude(12.97 + (i % 100) * 0.001);
+        order.setLongitude(77.64 + (i % 100) * 0.001);
+        return order;
+    }
+
+    static Delivery delivery(int i, Order order, DeliveryBoy deliveryBoy) {
+        return new Delivery(deliveryId(i), order.getUser(), order, deliveryBoy, i % 3 == 0);
+    }
+
+    static Bill bill(int i, Order order) {
+        return new Bill(order, BigDecimal.valueOf(15_000 + i % 5_000, 2), "TXN-" + order.getOrderId() + "-" + i);
+    }
+}
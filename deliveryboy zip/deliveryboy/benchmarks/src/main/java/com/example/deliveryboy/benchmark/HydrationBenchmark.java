@@ -0,0 +1,59 @@
+package com.example.deliveryboy.benchmark;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Limit;
+
+import com.example.deliveryboy.entity.Bill;
+import com.example.deliveryboy.entity.Delivery;
+import com.example.deliveryboy.entity.Order;
+
+/**
+ * Entity hydration: result rows turned into managed entity graphs, each in a fresh
+ * read-only persistence context, through the keyset page queries the listing endpoints
+ * use. A delivery page joins user, order (and its user) and delivery boy; users and
+ * delivery boys may come from the second-level cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HydrationBenchmark {
+    @Param({ "10", "100" })
+    public int pageSize;
+
+    private final SplittableRandom random = new SplittableRandom(17);
+
+    @Benchmark
+    public List<Delivery> deliveryPage(ApplicationState app) {
+        String after = Fixtures.deliveryId(random.nextInt(Fixtures.ORDERS - pageSize));
+        return app.readOnlyTemplate.execute(status -> app.deliveryRepository.findPageAfter(after, null, null, null,
+                Limit.of(pageSize)));
+    }
+
+    @Benchmark
+    public List<Order> orderPage(ApplicationState app) {
+        String after = Fixtures.orderId(random.nextInt(Fixtures.ORDERS - pageSize));
+        return app.readOnlyTemplate.execute(status -> app.orderRepository.findPageAfter(after, null, Limit.of(pageSize)));
+    }
+
+    @Benchmark
+    public List<Bill> billPage(ApplicationState app) {
+        Long after = app.billIds.get(random.nextInt(app.billIds.size() - pageSize));
+        return app.readOnlyTemplate.execute(status -> app.billRepository.findPageAfter(after, null, Limit.of(pageSize)));
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.deliveryboy.benchmark;
+
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.deliveryboy.entity.Bill;
+import com.example.deliveryboy.entity.Delivery;
+import com.example.deliveryboy.entity.DeliveryBoy;
+import com.example.deliveryboy.entity.Order;
+import com.example.deliveryboy.entity.User;
+
+/**
+ * Point lookups and inserts through each repository, including its caching and
+ * transaction proxies. User and DeliveryBoy lookups are served by the lookup cache after
+ * the first hit, as in the application. Inserts flush and roll back (see
+ * {@link ApplicationState#rolledBack}), so each one pays for its INSERT round trip but
+ * the tables stay at their seeded size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+    private final SplittableRandom random = new SplittableRandom(17);
+
+    @Benchmark
+    public Optional<User> findUser(ApplicationState app) {
+        return app.userRepository.findById(Fixtures.userId(random.nextInt(Fixtures.USERS)));
+    }
+
+    @Benchmark
+    public Optional<DeliveryBoy> findDeliveryBoy(ApplicationState app) {
+        return app.deliveryBoyRepository.findById(app.empIds.get(random.nextInt(app.empIds.size())));
+    }
+
+    @Benchmark
+    public Optional<Order> findOrder(ApplicationState app) {
+        return app.orderRepository.findById(Fixtures.orderId(random.nextInt(Fixtures.ORDERS)));
+    }
+
+    @Benchmark
+    public Optional<Delivery> findDelivery(ApplicationState app) {
+        return app.deliveryRepository.findById(Fixtures.deliveryId(random.nextInt(Fixtures.ORDERS)));
+    }
+
+    @Benchmark
+    public Optional<Bill> findBill(ApplicationState app) {
+        return app.billRepository.findById(app.billIds.get(random.nextInt(app.billIds.size())));
+    }
+
+    // A null version marks the entity new, so save() persists without a SELECT first
+    @Benchmark
+    public User insertUser(ApplicationState app) {
+        return app.rolledBack(() -> app.userRepository.save(
+                new User("new", "New User", "new.user@example.com", "9999999999")));
+    }
+
+    // Pooled sequence id: a sequence call every 50 inserts
+    @Benchmark
+    public DeliveryBoy insertDeliveryBoy(ApplicationState app) {
+        return app.rolledBack(() -> app.deliveryBoyRepository.save(Fixtures.deliveryBoy(Fixtures.DELIVERY_BOYS)));
+    }
+
+    @Benchmark
+    public Order insertOrder(ApplicationState app) {
+        return app.rolledBack(() -> app.orderRepository.save(Fixtures.order(Fixtures.ORDERS,
+                app.entityManager.getReference(User.class, Fixtures.userId(random.nextInt(Fixtures.USERS))))));
+    }
+
+    @Benchmark
+    public Delivery insertDelivery(ApplicationState app) {
+        return app.rolledBack(() -> {
+            Order order = app.entityManager.getReference(Order.class, Fixtures.orderId(random.nextInt(Fixtures.ORDERS)));
+            return app.deliveryRepository.save(new Delivery(Fixtures.deliveryId(Fixtures.ORDERS),
+                    app.entityManager.getReference(User.class, Fixtures.userId(random.nextInt(Fixtures.USERS))), order,
+                    app.entityManager.getReference(DeliveryBoy.class, app.empIds.get(random.nextInt(app.empIds.size()))),
+                    false));
+        });
+    }
+
+    @Benchmark
+    public Bill insertBill(ApplicationState app) {
+        return app.rolledBack(() -> app.billRepository.save(Fixtures.bill(Fixtures.ORDERS,
+                app.entityManager.getReference(Order.class, Fixtures.orderId(random.nextInt(Fixtures.ORDERS))))));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.deliveryboy.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.deliveryboy.entity.Delivery;
+import com.example.deliveryboy.entity.DeliveryBoy;
+import com.example.deliveryboy.entity.Order;
+import com.example.deliveryboy.entity.User;
+import com.example.deliveryboy.response.ResponseBean;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Jackson cost of a delivery listing response: {@code ResponseBean<List<Delivery>>} where
+ * every delivery carries its user, order (with the order's user again) and delivery boy,
+ * as the listing endpoints return them. The mapper is built the way Spring Boot builds
+ * its own, so the modules and features match the application's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({ "1", "100", "1000" })
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter writer;
+    private ResponseBean<List<Delivery>> response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructParametricType(ResponseBean.class, objectMapper.getTypeFactory()
+                        .constructCollectionType(List.class, Delivery.class)));
+        List<Delivery> deliveries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            User user = Fixtures.user(i % Fixtures.USERS);
+            DeliveryBoy deliveryBoy = Fixtures.deliveryBoy(i % Fixtures.DELIVERY_BOYS);
+            deliveryBoy.setEmpId((long) (i % Fixtures.DELIVERY_BOYS + 1));
+            deliveryBoy.setVersion(0L);
+            Order order = Fixtures.order(i, user);
+            order.setVersion(0L);
+            Delivery delivery = Fixtures.delivery(i, order, deliveryBoy);
+            delivery.setVersion(0L);
+            deliveries.add(delivery);
+        }
+        response = new ResponseBean<>("success", size + " deliveries found", deliveries);
+    }
+
+    // As the message converter does it: type resolved per call
+    @Benchmark
+    public byte[] objectMapper() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    // With the writer for the response type resolved once
+    @Benchmark
+    public byte[] preparedWriter() throws JsonProcessingException {
+        return writer.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.deliveryboy.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.deliveryboy.entity.Delivery;
+import com.example.deliveryboy.entity.DeliveryBoy;
+import com.example.deliveryboy.entity.Order;
+import com.example.deliveryboy.entity.User;
+import com.example.deliveryboy.response.DeliverySummary;
+import com.example.deliveryboy.response.ResponseBean;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Bytes and CPU of a 100-row delivery page in each wire format the application
+ * negotiates: the full entity graph ({@code GET /deliveries}) against the flat
+ * {@link DeliverySummary} ({@code GET /deliveries/summary}), as JSON, CBOR and Smile,
+ * with and without the gzip step Tomcat adds for clients that accept it. The encoded
+ * and gzipped sizes are printed once per trial, ahead of the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+    private static final int ROWS = 100;  // Default page size of the listing endpoints
+
+    @Param({ "json", "cbor", "smile" })
+    public String format;
+
+    @Param({ "entity", "summary" })
+    public String shape;
+
+    private ObjectWriter writer;
+    private ResponseBean<?> response;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        List<Object> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            User user = Fixtures.user(i % Fixtures.USERS);
+            DeliveryBoy deliveryBoy = Fixtures.deliveryBoy(i % Fixtures.DELIVERY_BOYS);
+            deliveryBoy.setEmpId((long) (i % Fixtures.DELIVERY_BOYS + 1));
+            deliveryBoy.setVersion(0L);
+            Order order = Fixtures.order(i, user);
+            order.setVersion(0L);
+            Delivery delivery = Fixtures.delivery(i, order, deliveryBoy);
+            delivery.setVersion(0L);
+            rows.add("summary".equals(shape) ? summary(delivery) : delivery);
+        }
+        writer = objectMapper.writer();
+        response = new ResponseBean<>("success", "Deliveries retrieved successfully", rows);
+
+        byte[] encoded = encode();
+        System.out.printf("%n%s %s: %,d bytes, %,d gzipped%n", shape, format, encoded.length, gzip(encoded).length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return writer.writeValueAsBytes(response);
+    }
+
+    // What a client sending Accept-Encoding: gzip costs the server
+    @Benchmark
+    public byte[] encodeGzip() throws IOException {
+        return gzip(encode());
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    private static DeliverySummary summary(Delivery delivery) {
+        return new DeliverySummary(delivery.getDeliveryId(), delivery.getOrder().getOrderId(),
+                delivery.getUser().getUserId(), delivery.getDeliveryBoy().getEmpId(),
+                delivery.getDeliveryBoy().getEname(), delivery.getOrder().getDeliveryAddress(),
+                delivery.isDeliveryStatus(), delivery.getVersion());
+    }
+}
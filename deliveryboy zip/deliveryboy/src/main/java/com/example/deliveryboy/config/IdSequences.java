@@ -0,0 +1,64 @@
+package com.example.deliveryboy.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import com.example.deliveryboy.id.PooledSequenceGenerator;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Creates the {@code bill_seq} and {@code delivery_boy_seq} sequences on PostgreSQL with
+ * the configured increment and moves them past the ids already in use, before the
+ * EntityManagerFactory (see {@link SchemaConfig}). Other databases are left alone.
+ */
+@Component
+public class IdSequences {
+    private static final String SCRIPT = "db/id_sequences-postgresql.sql";
+    private static final String ALLOCATION_SIZE_PLACEHOLDER = "${allocation_size}";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.jpa.properties." + PooledSequenceGenerator.ALLOCATION_SIZE_SETTING + ":"
+            + PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE + "}")
+    private int allocationSize;
+
+    @PostConstruct
+    void alignSequences() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(product)) {
+            return;
+        }
+        if (allocationSize < 1) {
+            throw new IllegalStateException(PooledSequenceGenerator.ALLOCATION_SIZE_SETTING + " must be positive: " + allocationSize);
+        }
+        String script;
+        try {
+            script = StreamUtils.copyToString(new ClassPathResource(SCRIPT).getInputStream(), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ByteArrayResource(
+                script.replace(ALLOCATION_SIZE_PLACEHOLDER, String.valueOf(allocationSize)).getBytes(StandardCharsets.UTF_8)));
+        populator.setSeparator(ScriptUtils.EOF_STATEMENT_SEPARATOR);  // The DO block contains semicolons
+        populator.execute(dataSource);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.deliveryboy.config;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.deliveryboy.logging.EndpointLogFilter;
+import com.example.deliveryboy.logging.LogSamplingInterceptor;
+import com.example.deliveryboy.logging.LogSamplingProperties;
+
+import ch.qos.logback.classic.LoggerContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Per-endpoint log sampling and levels. The turbo filter is added to the logback context
+ * here rather than in logback-spring.xml so it is the same instance, from the same class
+ * loader, as the one the interceptor drives (devtools restarts reload application classes).
+ */
+@Configuration
+@EnableConfigurationProperties(LogSamplingProperties.class)
+public class LoggingConfig implements WebMvcConfigurer {
+    private final EndpointLogFilter filter = new EndpointLogFilter();
+    private final LogSamplingProperties properties;
+
+    public LoggingConfig(LogSamplingProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    void addFilter() {
+        filter.setName("endpointLogFilter");
+        filter.start();
+        loggerContext().addTurboFilter(filter);
+    }
+
+    @PreDestroy
+    void removeFilter() {
+        loggerContext().getTurboFilterList().remove(filter);
+        filter.stop();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new LogSamplingInterceptor(filter, properties));
+    }
+
+    private static LoggerContext loggerContext() {
+        return (LoggerContext) LoggerFactory.getILoggerFactory();
+    }
+}
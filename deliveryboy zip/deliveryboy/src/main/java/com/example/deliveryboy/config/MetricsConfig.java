@@ -0,0 +1,37 @@
+package com.example.deliveryboy.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.deliveryboy.metrics.SqlCountInterceptor;
+import com.example.deliveryboy.metrics.SqlStatementCounter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Application meters next to the ones Spring Boot binds on its own (HTTP latency, Hibernate
+ * statistics, Hikari, caches, JVM; see management.* in application.properties): SQL
+ * statements per request, counted by a Hibernate statement inspector.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+    private final MeterRegistry registry;
+
+    public MetricsConfig(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounter() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlCountInterceptor(this.registry));
+    }
+}
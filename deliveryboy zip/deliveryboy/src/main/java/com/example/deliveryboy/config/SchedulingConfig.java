@@ -0,0 +1,12 @@
+package com.example.deliveryboy.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background work such as the dispatch batching window.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,21 @@
+package com.example.deliveryboy.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.deliveryboy.service.DeliveryEventPartitions;
+
+/**
+ * Schema work Hibernate's {@code ddl-auto} cannot do has to happen before the
+ * EntityManagerFactory runs its update, so the factory is made to depend on it.
+ */
+@Configuration
+public class SchemaConfig {
+
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor schemaWorkBeforeJpa() {
+        return new EntityManagerFactoryDependsOnPostProcessor(DeliveryEventPartitions.class, IdSequences.class,
+                UserIdColumns.class);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.deliveryboy.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Widens {@code user_id} columns created at 3 characters to the mapped 20 on PostgreSQL,
+ * before the EntityManagerFactory (see {@link SchemaConfig}). New databases get 20 from
+ * the mapping and columns already that wide are skipped; other databases are left alone.
+ */
+@Component
+public class UserIdColumns {
+    private static final String SCRIPT = "db/user_id-postgresql.sql";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void widen() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if ("PostgreSQL".equals(product)) {
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource(SCRIPT));
+            populator.setSeparator(ScriptUtils.EOF_STATEMENT_SEPARATOR);  // The DO block contains semicolons
+            populator.execute(dataSource);
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package com.example.deliveryboy.controller;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -15,12 +19,25 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.deliveryboy.entity.Bill;
 import com.example.deliveryboy.repository.BillRepository;
+import com.example.deliveryboy.response.BatchItemResult;
+import com.example.deliveryboy.response.BillSummary;
+import com.example.deliveryboy.response.CursorPage;
+import com.example.deliveryboy.response.ETags;
 import com.example.deliveryboy.response.ResponseBean;
+import com.example.deliveryboy.response.BillDedupStats;
+import com.example.deliveryboy.service.BillIdempotencyService;
+import com.example.deliveryboy.service.BillIngestService;
+import com.example.deliveryboy.service.NdjsonExportService;
+import com.example.deliveryboy.service.RevenueRollupService;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/bills")
@@ -28,67 +45,154 @@ public class BillController {
     private static final Logger logger = LoggerFactory.getLogger(BillController.class);
     private static final String SUCCESS = "success";
     private static final String BILL_NOT_FOUND_MSG = "Bill not found with ID: %d";
+    private static final String REPLAYED_HEADER = "Idempotent-Replayed";
 
     @Autowired
     private BillRepository billRepository;
 
+    @Autowired
+    private NdjsonExportService exportService;
+
+    @Autowired
+    private BillIngestService ingestService;
+
+    @Autowired
+    private BillIdempotencyService idempotencyService;
+
+    @Autowired
+    private RevenueRollupService rollupService;
+
     @GetMapping
-    public ResponseBean<List<Bill>> getAllBills() {
-        logger.info("Request received to get all bills");
-        List<Bill> bills = billRepository.findAll();
-        if (bills.isEmpty()) {
+    public ResponseBean<CursorPage<Bill>> getAllBills(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String orderId) {
+        logger.info("Request received to get a page of bills");
+        int limit = CursorPage.clampSize(size);
+        List<Bill> rows = billRepository.findPageAfter(CursorPage.decodeLong(cursor), orderId, Limit.of(limit + 1));
+        if (rows.isEmpty()) {
             logger.warn("No bills found");
             return new ResponseBean<>("warn", "No bills found", null);
         }
-        return new ResponseBean<>(SUCCESS, "Bills retrieved successfully", bills);
+        return new ResponseBean<>(SUCCESS, "Bills retrieved successfully", CursorPage.of(rows, limit, Bill::getBillId));
+    }
+
+    // The same page as flat summaries, with the order and its user as ids
+    @GetMapping("/summary")
+    public ResponseBean<CursorPage<BillSummary>> getBillSummaries(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String orderId) {
+        logger.info("Request received to get a page of bill summaries");
+        int limit = CursorPage.clampSize(size);
+        List<BillSummary> rows = billRepository.findSummaryPageAfter(CursorPage.decodeLong(cursor), orderId,
+                Limit.of(limit + 1));
+        if (rows.isEmpty()) {
+            logger.warn("No bills found");
+            return new ResponseBean<>("warn", "No bills found", null);
+        }
+        return new ResponseBean<>(SUCCESS, "Bills retrieved successfully", CursorPage.of(rows, limit, BillSummary::billId));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportBills(HttpServletResponse response) throws IOException {
+        logger.info("Request received to export all bills");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        long count = exportService.export(billRepository::streamAllForExport, response.getOutputStream());
+        logger.info("Exported {} bills", count);
     }
 
     @GetMapping("/{billId}")
-    public ResponseBean<Bill> getBillById(@PathVariable Long billId) {
+    public ResponseEntity<ResponseBean<Bill>> getBillById(@PathVariable Long billId) {
         logger.info("Request received to get bill by ID: {}", billId);
         Optional<Bill> bill = billRepository.findById(billId);
         if (bill.isPresent()) {
-            return new ResponseBean<>(SUCCESS, "Bill retrieved successfully", bill.get());
+            return ResponseEntity.ok().eTag(ETags.of(bill.get().getVersion()))
+                    .body(new ResponseBean<>(SUCCESS, "Bill retrieved successfully", bill.get()));
         } else {
-            logger.error(String.format(BILL_NOT_FOUND_MSG, billId));
+            logger.error("Bill not found with ID: {}", billId);
             throw new BillNotFoundException(billId);
         }
     }
 
     @PostMapping("/create")
-    public ResponseBean<String> createBill(@RequestBody Bill bill) {
+    public ResponseEntity<ResponseBean<String>> createBill(@RequestBody Bill bill) {
         logger.info("Request received to create a new bill");
-        billRepository.save(bill);
-        return new ResponseBean<>(SUCCESS, "Bill created successfully", null);
+        BillIdempotencyService.Result result = idempotencyService.create(bill);
+        ResponseBean<String> body = new ResponseBean<>(SUCCESS, "Bill created successfully", String.valueOf(result.billId()));
+        return switch (result.outcome()) {
+            case CREATED -> ResponseEntity.ok(body);
+            // A gateway retry gets the original response again, marked so it can be told apart
+            case REPLAYED -> ResponseEntity.ok().header(REPLAYED_HEADER, "true").body(body);
+            case CONFLICT -> throw new DuplicateTransactionException(bill.getTransactionId(), result.billId());
+        };
+    }
+
+    @PostMapping("/create/batch")
+    public ResponseBean<List<BatchItemResult>> createBills(@RequestBody List<Bill> bills) {
+        logger.info("Request received to create a batch of {} bills", bills.size());
+        if (bills.size() > BillIngestService.MAX_ITEMS) {
+            throw new InvalidBatchException("Batch exceeds " + BillIngestService.MAX_ITEMS + " bills");
+        }
+        List<BatchItemResult> results = ingestService.ingest(bills);
+        long created = results.stream().filter(r -> BatchItemResult.CREATED.equals(r.getStatus())).count();
+        logger.info("Created {} of {} bills in batch", created, bills.size());
+        String status = created == bills.size() ? SUCCESS : "warn";
+        return new ResponseBean<>(status, created + " of " + bills.size() + " bills created", results);
     }
 
     @PutMapping("/update/{billId}")
-    public ResponseBean<String> updateBill(@PathVariable Long billId, @RequestBody Bill updatedBill) {
+    public ResponseEntity<ResponseBean<String>> updateBill(@PathVariable Long billId, @RequestBody Bill updatedBill,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         logger.info("Request received to update bill with ID: {}", billId);
-        Optional<Bill> existingBill = billRepository.findById(billId);
-        if (existingBill.isPresent()) {
-            updatedBill.setBillId(billId);
-            billRepository.save(updatedBill);
-            logger.info("Bill with ID: {} updated successfully", billId);
-            return new ResponseBean<>(SUCCESS, "Bill updated successfully", null);
-        } else {
-            logger.error(String.format(BILL_NOT_FOUND_MSG, billId));
-            throw new BillNotFoundException(billId);
+        Long version = ETags.parseIfMatch(ifMatch);
+        String orderId = updatedBill.getOrder() == null ? null : updatedBill.getOrder().getOrderId();
+        String previousTransactionId = billRepository.findTransactionIdById(billId).orElse(null);
+        long[] newVersion = new long[1];
+        int updated = rollupService.rewrite(billId, () -> {
+            int rows = billRepository.updateIfVersion(billId, orderId, updatedBill.getAmount(),
+                    updatedBill.getTransactionId(), version);
+            if (rows > 0) {
+                newVersion[0] = billRepository.findVersionById(billId).orElseThrow();  // Still locked, so ours
+            }
+            return rows;
+        });
+        if (updated == 0) {
+            throw notFoundOrStale(billId, version);
         }
+        idempotencyService.invalidate(previousTransactionId);  // The order or amount may have changed too
+        if (updatedBill.getTransactionId() != null) {
+            idempotencyService.added(updatedBill.getTransactionId());
+        }
+        logger.info("Bill with ID: {} updated successfully", billId);
+        return ResponseEntity.ok().eTag(ETags.of(newVersion[0]))
+                .body(new ResponseBean<>(SUCCESS, "Bill updated successfully", null));
     }
 
     @DeleteMapping("/delete/{billId}")
-    public ResponseBean<String> deleteBill(@PathVariable Long billId) {
+    public ResponseBean<String> deleteBill(@PathVariable Long billId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         logger.info("Request received to delete bill with ID: {}", billId);
-        Optional<Bill> existingBill = billRepository.findById(billId);
-        if (existingBill.isPresent()) {
-            billRepository.delete(existingBill.get());
-            logger.info("Bill with ID: {} deleted successfully", billId);
-            return new ResponseBean<>(SUCCESS, "Bill deleted successfully", null);
-        } else {
-            logger.error(String.format(BILL_NOT_FOUND_MSG, billId));
-            throw new BillNotFoundException(billId);
+        Long version = ETags.parseIfMatch(ifMatch);
+        String transactionId = billRepository.findTransactionIdById(billId).orElse(null);
+        if (rollupService.rewrite(billId, () -> billRepository.deleteIfVersion(billId, version)) == 0) {
+            throw notFoundOrStale(billId, version);
+        }
+        idempotencyService.invalidate(transactionId);  // Free for a new bill
+        logger.info("Bill with ID: {} deleted successfully", billId);
+        return new ResponseBean<>(SUCCESS, "Bill deleted successfully", null);
+    }
+
+    @GetMapping("/dedup/stats")
+    public ResponseBean<BillDedupStats> getDedupStats() {
+        return new ResponseBean<>(SUCCESS, "Duplicate bill detection statistics", idempotencyService.getStats());
+    }
+
+    // No row matched: the bill is gone, or its version moved past the If-Match one
+    private RuntimeException notFoundOrStale(Long billId, Long version) {
+        if (version != null && billRepository.existsById(billId)) {
+            return new ETags.PreconditionFailedException(ETags.of(version));
         }
+        logger.error("Bill not found with ID: {}", billId);
+        return new BillNotFoundException(billId);
     }
 
     // Inner Exception Class for Bill Not Found
@@ -98,10 +202,37 @@ public class BillController {
         }
     }
 
+    // Inner Exception Class for a transaction id already billed with a different order or amount
+    public static class DuplicateTransactionException extends RuntimeException {
+        public DuplicateTransactionException(String transactionId, Long billId) {
+            super("Transaction ID " + transactionId + " already billed as bill " + billId);
+        }
+    }
+
+    // Inner Exception Class for an oversized batch
+    public static class InvalidBatchException extends RuntimeException {
+        public InvalidBatchException(String message) {
+            super(message);
+        }
+    }
+
     // Exception Handler for BillNotFoundException
     @ExceptionHandler(BillNotFoundException.class)
     public ResponseEntity<String> handleBillNotFound(BillNotFoundException ex) {
         logger.warn(ex.getMessage());
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
+
+    // Exception Handler for InvalidBatchException and UnknownOrderException
+    @ExceptionHandler({ InvalidBatchException.class, BillIdempotencyService.UnknownOrderException.class })
+    public ResponseEntity<String> handleInvalidRequest(RuntimeException ex) {
+        logger.warn(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(DuplicateTransactionException.class)
+    public ResponseEntity<String> handleDuplicateTransaction(DuplicateTransactionException ex) {
+        logger.warn(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
 }
@@ -0,0 +1,74 @@
+package com.example.deliveryboy.controller;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.deliveryboy.response.ResponseBean;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@RestController
+@RequestMapping("/cache")
+public class CacheController {
+    private static final Logger logger = LoggerFactory.getLogger(CacheController.class);
+    private static final String SUCCESS = "success";
+    private static final String L2_PREFIX = "l2:";
+    private static final String JCACHE_STATISTICS = "javax.cache:type=CacheStatistics,*";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Hit, miss and put counts for the second-level cache regions, and evictions from the cache behind each
+    @GetMapping("/stats")
+    public ResponseBean<Map<String, Map<String, Long>>> getCacheStats() {
+        logger.info("Request received to get cache statistics");
+        Map<String, Map<String, Long>> result = new LinkedHashMap<>();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, CacheStatisticsMXBean> jcache = jcacheStatistics();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics stats = statistics.getDomainDataRegionStatistics(region);
+            Map<String, Long> entry = new LinkedHashMap<>();
+            entry.put("hits", stats.getHitCount());
+            entry.put("misses", stats.getMissCount());
+            entry.put("puts", stats.getPutCount());
+            CacheStatisticsMXBean cache = jcache.get(region);
+            if (cache != null) {
+                entry.put("evictions", cache.getCacheEvictions());  // Hibernate does not see size or expiry evictions
+            }
+            result.put(L2_PREFIX + region, entry);
+        }
+        return new ResponseBean<>(SUCCESS, "Cache statistics retrieved successfully", result);
+    }
+
+    // Caffeine registers one statistics bean per JCache cache (monitoring.statistics in application.conf)
+    private static Map<String, CacheStatisticsMXBean> jcacheStatistics() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        Map<String, CacheStatisticsMXBean> beans = new HashMap<>();
+        try {
+            for (ObjectName name : server.queryNames(new ObjectName(JCACHE_STATISTICS), null)) {
+                beans.put(name.getKeyProperty("Cache"), JMX.newMXBeanProxy(server, name, CacheStatisticsMXBean.class));
+            }
+        } catch (MalformedObjectNameException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return beans;
+    }
+}
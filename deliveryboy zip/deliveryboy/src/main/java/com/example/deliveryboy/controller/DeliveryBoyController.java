@@ -7,7 +7,11 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -18,13 +22,23 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.deliveryboy.entity.DeliveryBoy;
 import com.example.deliveryboy.repository.DeliveryBoyRepository;
+import com.example.deliveryboy.response.CursorPage;
+import com.example.deliveryboy.response.ETags;
 import com.example.deliveryboy.response.ResponseBean;
+import com.example.deliveryboy.response.RiderStats;
+import com.example.deliveryboy.service.CollectionVersions;
+import com.example.deliveryboy.service.DispatchIndex;
+import com.example.deliveryboy.service.RiderPingService;
+import com.example.deliveryboy.service.RiderStatsService;
 
 @RestController
 @RequestMapping("/delivery-boys")
@@ -37,69 +51,125 @@ public class DeliveryBoyController {
     @Autowired
     private DeliveryBoyRepository deliveryBoyRepository;
 
+    @Autowired
+    private DispatchIndex dispatchIndex;
+
+    @Autowired
+    private RiderPingService riderPingService;
+
+    @Autowired
+    private CollectionVersions collectionVersions;
+
+    @Autowired
+    private RiderStatsService riderStats;
+
     @GetMapping
-    public ResponseBean<List<DeliveryBoy>> getAllDeliveryBoys() {
-        logger.info("Request received to get all delivery boys");
-        List<DeliveryBoy> deliveryBoys = deliveryBoyRepository.findAll();
-        if (deliveryBoys.isEmpty()) {
+    public ResponseBean<CursorPage<DeliveryBoy>> getAllDeliveryBoys(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String vehicle, WebRequest request) {
+        logger.info("Request received to get a page of delivery boys");
+        if (collectionVersions.checkNotModified(request, CollectionVersions.DELIVERY_BOYS)) {
+            return null;  // 304, no query
+        }
+        int limit = CursorPage.clampSize(size);
+        long after = CursorPage.decodeLong(cursor);
+        List<DeliveryBoy> rows = vehicle == null
+                ? deliveryBoyRepository.findByEmpIdGreaterThanOrderByEmpIdAsc(after, Limit.of(limit + 1))
+                : deliveryBoyRepository.findByVehicleAndEmpIdGreaterThanOrderByEmpIdAsc(vehicle, after, Limit.of(limit + 1));
+        if (rows.isEmpty()) {
             logger.warn("No delivery boys found");
             return new ResponseBean<>("warn", "No delivery boys found", null);
         }
-        logger.info("Returning list of {} delivery boys", deliveryBoys.size());
-        return new ResponseBean<>(SUCCESS, "Delivery boys retrieved successfully", deliveryBoys);
+        CursorPage<DeliveryBoy> page = CursorPage.of(rows, limit, DeliveryBoy::getEmpId);
+        logger.info("Returning page of {} delivery boys", page.getSize());
+        return new ResponseBean<>(SUCCESS, "Delivery boys retrieved successfully", page);
     }
 
     @GetMapping("/{empId}")
-    public ResponseBean<DeliveryBoy> getDeliveryBoyById(@PathVariable Long empId) {
+    public ResponseEntity<ResponseBean<DeliveryBoy>> getDeliveryBoyById(@PathVariable Long empId) {
         logger.info("Request received to get delivery boy by ID: {}", empId);
+        // Usually a cache hit; on a matching If-None-Match the ETag turns this into a 304 before serialization
         Optional<DeliveryBoy> deliveryBoy = deliveryBoyRepository.findById(empId);
         return deliveryBoy
-                .map(db -> new ResponseBean<>(SUCCESS, "Delivery boy retrieved successfully", db))
+                .map(db -> ResponseEntity.ok().eTag(ETags.of(db.getVersion()))
+                        .body(new ResponseBean<>(SUCCESS, "Delivery boy retrieved successfully", db)))
                 .orElseThrow(() -> {
                     logger.error(NOT_FOUND, empId);
                     return new DeliveryBoyNotFoundException(empId);
                 });
     }
 
+    // Live counters from memory; no query against the delivery tables
+    @GetMapping("/{empId}/stats")
+    public ResponseBean<RiderStats> getDeliveryBoyStats(@PathVariable Long empId) {
+        logger.info("Request received to get stats of delivery boy: {}", empId);
+        return new ResponseBean<>(SUCCESS, "Delivery boy stats retrieved successfully", riderStats.get(empId));
+    }
+
+    @GetMapping("/stats")
+    public ResponseBean<List<RiderStats>> getAllDeliveryBoyStats() {
+        logger.info("Request received to get stats of all delivery boys");
+        List<RiderStats> stats = riderStats.getAll();
+        return new ResponseBean<>(SUCCESS, "Stats of " + stats.size() + " delivery boys retrieved successfully", stats);
+    }
+
     @PostMapping
     public ResponseBean<String> createDeliveryBoy(@RequestBody DeliveryBoy deliveryBoy) {
         logger.info("Request received to create new delivery boy");
-        deliveryBoyRepository.save(deliveryBoy);
+        deliveryBoy.setEmpId(null); // Assigned from the sequence
+        deliveryBoy.setVersion(null);
+        collectionVersions.write(CollectionVersions.DELIVERY_BOYS, () -> deliveryBoyRepository.save(deliveryBoy));
         String message = "New delivery boy created with ID: " + deliveryBoy.getEmpId(); // Updated to match naming
         logger.info(message);
         return new ResponseBean<>(SUCCESS, message, null);
     }
 
     @PutMapping("/{empId}")
-    public ResponseBean<String> updateDeliveryBoy(@PathVariable Long empId,
-            @RequestBody DeliveryBoy updatedDeliveryBoy) {
+    public ResponseEntity<ResponseBean<String>> updateDeliveryBoy(@PathVariable Long empId,
+            @RequestBody DeliveryBoy updatedDeliveryBoy,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         logger.info("Request received to update delivery boy with ID: {}", empId);
-        Optional<DeliveryBoy> existingDeliveryBoy = deliveryBoyRepository.findById(empId);
-        if (existingDeliveryBoy.isPresent()) {
-            updatedDeliveryBoy.setEmpId(empId); // Updated to match naming
-            deliveryBoyRepository.save(updatedDeliveryBoy);
-            String message = "Delivery boy with ID: " + empId + " updated successfully";
-            logger.info(message);
-            return new ResponseBean<>(SUCCESS, message, null);
-        } else {
-            logger.error(NOT_FOUND, empId);
-            throw new DeliveryBoyNotFoundException(empId);
-        }
+        DeliveryBoy saved = collectionVersions.write(CollectionVersions.DELIVERY_BOYS, () -> {
+            DeliveryBoy deliveryBoy = loadForWrite(empId, ETags.parseIfMatch(ifMatch));
+            deliveryBoy.setEname(updatedDeliveryBoy.getEname());
+            deliveryBoy.setEmail(updatedDeliveryBoy.getEmail());
+            deliveryBoy.setVehicle(updatedDeliveryBoy.getVehicle());
+            deliveryBoy.setPhoneNumber(updatedDeliveryBoy.getPhoneNumber());
+            return deliveryBoyRepository.save(deliveryBoy);
+        });
+        dispatchIndex.updateVehicle(empId, updatedDeliveryBoy.getVehicle());
+        String message = "Delivery boy with ID: " + empId + " updated successfully";
+        logger.info(message);
+        return ResponseEntity.ok().eTag(ETags.of(saved.getVersion())).body(new ResponseBean<>(SUCCESS, message, null));
     }
 
     @DeleteMapping("/{empId}")
-    public ResponseBean<String> deleteDeliveryBoy(@PathVariable Long empId) {
+    public ResponseBean<String> deleteDeliveryBoy(@PathVariable Long empId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         logger.info("Request received to delete delivery boy with ID: {}", empId);
-        Optional<DeliveryBoy> existingDeliveryBoy = deliveryBoyRepository.findById(empId);
-        if (existingDeliveryBoy.isPresent()) {
-            deliveryBoyRepository.deleteById(empId);
-            String message = "Delivery boy with ID: " + empId + " deleted successfully";
-            logger.info(message);
-            return new ResponseBean<>(SUCCESS, message, null);
-        } else {
+        collectionVersions.write(CollectionVersions.DELIVERY_BOYS, () -> {
+            deliveryBoyRepository.delete(loadForWrite(empId, ETags.parseIfMatch(ifMatch)));
+            return null;
+        });
+        dispatchIndex.remove(empId);
+        riderPingService.forget(empId);
+        riderStats.forget(empId);
+        String message = "Delivery boy with ID: " + empId + " deleted successfully";
+        logger.info(message);
+        return new ResponseBean<>(SUCCESS, message, null);
+    }
+
+    // Loaded and written back rather than updated in bulk, so Hibernate evicts only this delivery
+    // boy's second-level cache entry; the UPDATE or DELETE still checks the version it was loaded with
+    private DeliveryBoy loadForWrite(Long empId, Long version) {
+        DeliveryBoy deliveryBoy = deliveryBoyRepository.findById(empId).orElseThrow(() -> {
             logger.error(NOT_FOUND, empId);
-            throw new DeliveryBoyNotFoundException(empId);
+            return new DeliveryBoyNotFoundException(empId);
+        });
+        if (version != null && !version.equals(deliveryBoy.getVersion())) {
+            throw new ETags.PreconditionFailedException(ETags.of(version));
         }
+        return deliveryBoy;
     }
 
     public static class DeliveryBoyNotFoundException extends RuntimeException {
@@ -108,6 +178,19 @@ public class DeliveryBoyController {
         }
     }
 
+    @ExceptionHandler(DeliveryBoyNotFoundException.class)
+    public ResponseEntity<String> handleDeliveryBoyNotFound(DeliveryBoyNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
+    // Another write committed between the load and this one
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConcurrentWrite(ObjectOptimisticLockingFailureException ex) {
+        logger.warn("Delivery boy {} changed concurrently", ex.getIdentifier());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("Delivery boy was changed concurrently, retry with its current version");
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseBean<String> handleValidationExceptions(MethodArgumentNotValidException ex) {
@@ -1,13 +1,22 @@
 package com.example.deliveryboy.controller;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,12 +24,35 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.deliveryboy.entity.Delivery;
+import com.example.deliveryboy.entity.DeliveryCurrentState;
+import com.example.deliveryboy.entity.DeliveryState;
+import com.example.deliveryboy.entity.DeliveryStatusEvent;
+import com.example.deliveryboy.id.TimeOrderedIdGenerator;
+import com.example.deliveryboy.repository.DeliveryBoyRepository;
 import com.example.deliveryboy.repository.DeliveryRepository;
+import com.example.deliveryboy.repository.DeliveryStatusEventRepository;
+import com.example.deliveryboy.repository.OrderRepository;
+import com.example.deliveryboy.repository.UserRepository;
+import com.example.deliveryboy.response.CursorPage;
+import com.example.deliveryboy.response.DeliveryEvent;
+import com.example.deliveryboy.response.DeliverySummary;
+import com.example.deliveryboy.response.ETags;
 import com.example.deliveryboy.response.ResponseBean;
+import com.example.deliveryboy.service.DeliveryEventHub;
+import com.example.deliveryboy.service.DeliveryLifecycleService;
+import com.example.deliveryboy.service.DispatchIndex;
+import com.example.deliveryboy.service.NdjsonExportService;
+import com.example.deliveryboy.service.RevenueRollupService;
+
+import jakarta.servlet.http.HttpServletResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/deliveries")
@@ -28,67 +60,295 @@ public class DeliveryController {
     private static final Logger logger = LoggerFactory.getLogger(DeliveryController.class);
     private static final String DELIVERY_NOT_FOUND_MSG = "Delivery not found for ID: %s";
     private static final String SUCCESS = "success"; // Define constant for "success"
+    private static final Duration HEARTBEAT = Duration.ofSeconds(15);
 
     @Autowired
     private DeliveryRepository deliveryRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DeliveryBoyRepository deliveryBoyRepository;
+
+    @Autowired
+    private TimeOrderedIdGenerator idGenerator;
+
+    @Autowired
+    private NdjsonExportService exportService;
+
+    @Autowired
+    private DeliveryEventHub eventHub;
+
+    @Autowired
+    private DispatchIndex dispatchIndex;
+
+    @Autowired
+    private DeliveryLifecycleService lifecycleService;
+
+    @Autowired
+    private DeliveryStatusEventRepository statusEventRepository;
+
+    @Autowired
+    private RevenueRollupService rollupService;
+
     @GetMapping
-    public ResponseBean<List<Delivery>> getAllDeliveries() {
-        logger.info("Request received to get all deliveries");
-        List<Delivery> deliveries = deliveryRepository.findAll();
-        if (deliveries.isEmpty()) {
+    public ResponseBean<CursorPage<Delivery>> getAllDeliveries(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) Long empId,
+            @RequestParam(required = false) Boolean status) {
+        logger.info("Request received to get a page of deliveries");
+        int limit = CursorPage.clampSize(size);
+        List<Delivery> rows = deliveryRepository.findPageAfter(CursorPage.decode(cursor), userId, empId, status,
+                Limit.of(limit + 1));
+        if (rows.isEmpty()) {
+            logger.warn("No deliveries found");
+            return new ResponseBean<>("warn", "No deliveries found", null);
+        }
+        CursorPage<Delivery> page = CursorPage.of(rows, limit, Delivery::getDeliveryId);
+        logger.info("Returning page of {} deliveries", page.getSize());
+        return new ResponseBean<>(SUCCESS, "Deliveries retrieved successfully", page);
+    }
+
+    // The same page as flat summaries: ids instead of nested user, order and delivery boy
+    @GetMapping("/summary")
+    public ResponseBean<CursorPage<DeliverySummary>> getDeliverySummaries(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) Long empId,
+            @RequestParam(required = false) Boolean status) {
+        logger.info("Request received to get a page of delivery summaries");
+        int limit = CursorPage.clampSize(size);
+        List<DeliverySummary> rows = deliveryRepository.findSummaryPageAfter(CursorPage.decode(cursor), userId, empId,
+                status, Limit.of(limit + 1));
+        if (rows.isEmpty()) {
             logger.warn("No deliveries found");
             return new ResponseBean<>("warn", "No deliveries found", null);
         }
-        logger.info("Returning all deliveries");
-        return new ResponseBean<>(SUCCESS, "Deliveries retrieved successfully", deliveries);
+        return new ResponseBean<>(SUCCESS, "Deliveries retrieved successfully",
+                CursorPage.of(rows, limit, DeliverySummary::deliveryId));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportDeliveries(HttpServletResponse response) throws IOException {
+        logger.info("Request received to export all deliveries");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        long count = exportService.export(deliveryRepository::streamAllForExport, response.getOutputStream());
+        logger.info("Exported {} deliveries", count);
     }
 
     @GetMapping("/{deliveryId}")
-    public ResponseBean<Delivery> getDeliveryById(@PathVariable String deliveryId) {
+    public ResponseEntity<ResponseBean<Delivery>> getDeliveryById(@PathVariable String deliveryId) {
         logger.info("Request received to get delivery by ID: {}", deliveryId);
         Optional<Delivery> delivery = deliveryRepository.findById(deliveryId);
         return delivery
-                .map(d -> new ResponseBean<>(SUCCESS, "Delivery found", d))
+                .map(d -> ResponseEntity.ok().eTag(ETags.of(d.getVersion()))
+                        .body(new ResponseBean<>(SUCCESS, "Delivery found", d)))
                 .orElseThrow(() -> new DeliveryNotFoundException(deliveryId));
     }
 
+    @GetMapping("/{deliveryId}/summary")
+    public ResponseEntity<ResponseBean<DeliverySummary>> getDeliverySummary(@PathVariable String deliveryId) {
+        logger.info("Request received to get summary of delivery {}", deliveryId);
+        return deliveryRepository.findSummaryById(deliveryId)
+                .map(d -> ResponseEntity.ok().eTag(ETags.of(d.version()))
+                        .body(new ResponseBean<>(SUCCESS, "Delivery found", d)))
+                .orElseThrow(() -> new DeliveryNotFoundException(deliveryId));
+    }
+
+    // Pushes the current state and then every change, instead of clients polling GET /{deliveryId}
+    @GetMapping(value = "/{deliveryId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<DeliveryEvent>> streamDeliveryEvents(@PathVariable String deliveryId) {
+        logger.info("Request received to stream events for delivery with ID: {}", deliveryId);
+        // Live first, snapshot second: a change racing the read still arrives, with a higher version
+        Mono<DeliveryEvent> snapshot = Mono.fromCallable(() -> deliveryRepository.findById(deliveryId)
+                .map(d -> new DeliveryEvent(DeliveryEvent.SNAPSHOT, d.getDeliveryId(),
+                        d.getUser() == null ? null : d.getUser().getUserId(), d.isDeliveryStatus(), d.getVersion()))
+                .orElseThrow(() -> new DeliveryNotFoundException(deliveryId)));
+        return sse(Flux.merge(eventHub.forDelivery(deliveryId), snapshot));
+    }
+
+    // Every change to any delivery of one user
+    @GetMapping(value = "/users/{userId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<DeliveryEvent>> streamUserDeliveryEvents(@PathVariable String userId) {
+        logger.info("Request received to stream delivery events for user with ID: {}", userId);
+        return sse(eventHub.forUser(userId));
+    }
+
+    // Heartbeat comments keep proxies from timing the stream out and surface dead clients on write
+    private static Flux<ServerSentEvent<DeliveryEvent>> sse(Flux<DeliveryEvent> events) {
+        Flux<ServerSentEvent<DeliveryEvent>> data = events.map(e -> ServerSentEvent.builder(e)
+                .id(e.getDeliveryId() + ":" + e.getVersion())
+                .event(e.getType())
+                .build());
+        Flux<ServerSentEvent<DeliveryEvent>> heartbeat = Flux.interval(HEARTBEAT)
+                .map(i -> ServerSentEvent.<DeliveryEvent>builder().comment("heartbeat").build());
+        // One subscription to the events; the heartbeat stops once they end (e.g. slow-consumer eviction)
+        return data.publish(d -> Flux.merge(d, heartbeat.takeUntilOther(d.then())), 1);
+    }
+
     @PostMapping
     public ResponseBean<String> createDelivery(@RequestBody Delivery delivery) {
         logger.info("Request received to create new delivery");
-        Delivery savedDelivery = deliveryRepository.save(delivery);
+        if (delivery.getDeliveryId() == null || delivery.getDeliveryId().isBlank()) {
+            delivery.setDeliveryId(idGenerator.next());
+        }
+        // Swap the posted id-only stubs for proxies so nothing is loaded or merged
+        if (delivery.getUser() != null) {
+            delivery.setUser(userRepository.getReferenceById(delivery.getUser().getUserId()));
+        }
+        if (delivery.getOrder() != null) {
+            delivery.setOrder(orderRepository.getReferenceById(delivery.getOrder().getOrderId()));
+        }
+        if (delivery.getDeliveryBoy() != null) {
+            delivery.setDeliveryBoy(deliveryBoyRepository.getReferenceById(delivery.getDeliveryBoy().getEmpId()));
+        }
+        delivery.setVersion(null);
+        Delivery savedDelivery;
+        try {
+            savedDelivery = lifecycleService.create(delivery);  // Saved with its ASSIGNED event
+        } catch (DataIntegrityViolationException ex) {
+            throw unknownReferenceOr(delivery, ex);
+        }
+        if (!savedDelivery.isDeliveryStatus() && savedDelivery.getDeliveryBoy() != null) {
+            dispatchIndex.setAvailable(savedDelivery.getDeliveryBoy().getEmpId(), false);  // Busy, like a dispatched rider
+        }
+        eventHub.publish(new DeliveryEvent(DeliveryEvent.CREATED, savedDelivery.getDeliveryId(),
+                savedDelivery.getUser() == null ? null : savedDelivery.getUser().getUserId(),
+                savedDelivery.isDeliveryStatus(), savedDelivery.getVersion()));
         String message = "New delivery created successfully with ID: " + savedDelivery.getDeliveryId();
         logger.info(message);
         return new ResponseBean<>(SUCCESS, message, savedDelivery.toString());
     }
 
+    // Rewrites user and order; deliveryStatus=true completes the delivery through the lifecycle
     @PutMapping("/{deliveryId}")
-    public ResponseBean<String> updateDelivery(@PathVariable String deliveryId, @RequestBody Delivery updatedDelivery) {
+    public ResponseEntity<ResponseBean<String>> updateDelivery(@PathVariable String deliveryId,
+            @RequestBody Delivery updatedDelivery,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         logger.info("Request received to update delivery with ID: {}", deliveryId);
-        Optional<Delivery> existingDelivery = deliveryRepository.findById(deliveryId);
-        if (existingDelivery.isPresent()) {
-            updatedDelivery.setDeliveryId(deliveryId);
-            Delivery savedDelivery = deliveryRepository.save(updatedDelivery);
-            String message = "Delivery with ID: " + deliveryId + " updated successfully";
-            logger.info(message);
-            return new ResponseBean<>(SUCCESS, message, savedDelivery.toString());
-        } else {
-            throw new DeliveryNotFoundException(deliveryId);
+        Long version = ETags.parseIfMatch(ifMatch);
+        String previousUserId = deliveryRepository.findUserIdById(deliveryId);  // For the previous owner's event stream
+        DeliverySummary updated = lifecycleService.update(deliveryId,
+                updatedDelivery.getUser() == null ? null : updatedDelivery.getUser().getUserId(),
+                updatedDelivery.getOrder() == null ? null : updatedDelivery.getOrder().getOrderId(),
+                updatedDelivery.getDeliveryBoy() == null ? null : updatedDelivery.getDeliveryBoy().getEmpId(),
+                updatedDelivery.isDeliveryStatus(), version);
+        if (updated == null) {
+            throw notFoundOrStale(deliveryId, version);
         }
+        if (updated.deliveryStatus() && updated.empId() != null) {
+            dispatchIndex.setAvailable(updated.empId(), true);  // Free for the next dispatch
+        }
+        eventHub.publish(new DeliveryEvent(DeliveryEvent.UPDATED, deliveryId, updated.userId(),
+                updated.deliveryStatus(), updated.version()), previousUserId);
+        String message = "Delivery with ID: " + deliveryId + " updated successfully";
+        logger.info(message);
+        return ResponseEntity.ok().eTag(ETags.of(updated.version())).body(new ResponseBean<>(SUCCESS, message, null));
     }
 
     @DeleteMapping("/{deliveryId}")
-    public ResponseBean<String> deleteDelivery(@PathVariable String deliveryId) {
+    public ResponseBean<String> deleteDelivery(@PathVariable String deliveryId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         logger.info("Request received to delete delivery with ID: {}", deliveryId);
-        Optional<Delivery> existingDelivery = deliveryRepository.findById(deliveryId);
-        if (existingDelivery.isPresent()) {
-            deliveryRepository.deleteById(deliveryId);
-            String message = "Delivery with ID: " + deliveryId + " deleted successfully";
-            logger.info(message);
-            return new ResponseBean<>(SUCCESS, message, null);
-        } else {
+        Long version = ETags.parseIfMatch(ifMatch);
+        // For the user's event stream, and the order whose bills stop counting for the rider
+        DeliverySummary existing = deliveryRepository.findSummaryById(deliveryId).orElse(null);
+        String userId = existing == null ? null : existing.userId();
+        String orderId = existing == null ? null : existing.orderId();
+        if (rollupService.reattribute(Collections.singletonList(orderId),
+                () -> deliveryRepository.deleteIfVersion(deliveryId, version)) == 0) {
+            throw notFoundOrStale(deliveryId, version);
+        }
+        DeliveryCurrentState state = lifecycleService.forget(deliveryId);
+        if (state != null && !state.getState().isTerminal() && state.getEmpId() != null) {
+            dispatchIndex.setAvailable(state.getEmpId(), true);  // Free for the next dispatch
+        }
+        eventHub.publish(new DeliveryEvent(DeliveryEvent.DELETED, deliveryId, userId, false, null));
+        String message = "Delivery with ID: " + deliveryId + " deleted successfully";
+        logger.info(message);
+        return new ResponseBean<>(SUCCESS, message, null);
+    }
+
+    // Lifecycle transition: appends to the status event log instead of rewriting the delivery row
+    @PostMapping("/{deliveryId}/status")
+    public ResponseBean<DeliveryCurrentState> changeStatus(@PathVariable String deliveryId,
+            @RequestBody StatusChange change) {
+        logger.info("Request received to move delivery with ID: {} to {}", deliveryId, change.getState());
+        if (change.getState() == null) {
+            throw new InvalidStatusException("State is required, one of ASSIGNED, PICKED_UP, IN_TRANSIT, DELIVERED, FAILED");
+        }
+        if (change.getNote() != null && change.getNote().length() > 200) {
+            throw new InvalidStatusException("Note must be at most 200 characters");
+        }
+        DeliveryCurrentState state = lifecycleService.transition(deliveryId, change.getState(), change.getNote());
+        if (state.getState().isTerminal() && state.getEmpId() != null) {
+            dispatchIndex.setAvailable(state.getEmpId(), true);  // Free for the next dispatch
+        }
+        eventHub.publish(DeliveryEvent.status(deliveryId, state.getUserId(), state.getState().name()));
+        String message = "Delivery with ID: " + deliveryId + " is now " + state.getState();
+        logger.info(message);
+        return new ResponseBean<>(SUCCESS, message, state);
+    }
+
+    // Current state from the projection, without replaying the timeline
+    @GetMapping("/{deliveryId}/status")
+    public ResponseBean<DeliveryCurrentState> getStatus(@PathVariable String deliveryId) {
+        logger.info("Request received to get status of delivery with ID: {}", deliveryId);
+        DeliveryCurrentState state = lifecycleService.currentState(deliveryId);
+        if (state == null) {
             throw new DeliveryNotFoundException(deliveryId);
         }
+        return new ResponseBean<>(SUCCESS, "Delivery status found", state);
+    }
+
+    @GetMapping("/{deliveryId}/timeline")
+    public ResponseBean<List<DeliveryStatusEvent>> getTimeline(@PathVariable String deliveryId) {
+        logger.info("Request received to get timeline of delivery with ID: {}", deliveryId);
+        List<DeliveryStatusEvent> events = lifecycleService.timeline(deliveryId);
+        if (events.isEmpty()) {
+            throw new DeliveryNotFoundException(deliveryId);
+        }
+        return new ResponseBean<>(SUCCESS, events.size() + " status events found", events);
+    }
+
+    // One rider's status events from a point in time (epoch millis), oldest first
+    @GetMapping("/riders/{empId}/timeline")
+    public ResponseBean<List<DeliveryStatusEvent>> getRiderTimeline(@PathVariable Long empId,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Integer size) {
+        logger.info("Request received to get delivery timeline of rider {}", empId);
+        Instant since = from == null ? Instant.EPOCH : Instant.ofEpochMilli(from);
+        List<DeliveryStatusEvent> events = statusEventRepository
+                .findByEmpIdAndOccurredAtGreaterThanEqualOrderByOccurredAtAscEventIdAsc(empId, since,
+                        Limit.of(CursorPage.clampSize(size)));
+        return new ResponseBean<>(SUCCESS, events.size() + " status events found", events);
+    }
+
+    // The references are proxies, so an unknown one only shows up as a foreign key violation
+    private RuntimeException unknownReferenceOr(Delivery delivery, DataIntegrityViolationException ex) {
+        if (delivery.getUser() != null && !userRepository.existsById(delivery.getUser().getUserId())) {
+            return new InvalidReferenceException("User not found for ID: " + delivery.getUser().getUserId());
+        }
+        if (delivery.getOrder() != null && !orderRepository.existsById(delivery.getOrder().getOrderId())) {
+            return new InvalidReferenceException("Order not found for ID: " + delivery.getOrder().getOrderId());
+        }
+        if (delivery.getDeliveryBoy() != null && !deliveryBoyRepository.existsById(delivery.getDeliveryBoy().getEmpId())) {
+            return new InvalidReferenceException("Delivery boy not found for ID: " + delivery.getDeliveryBoy().getEmpId());
+        }
+        return ex;
+    }
+
+    // No row matched: the delivery is gone, or its version moved past the If-Match one
+    private RuntimeException notFoundOrStale(String deliveryId, Long version) {
+        if (version != null && deliveryRepository.existsById(deliveryId)) {
+            return new ETags.PreconditionFailedException(ETags.of(version));
+        }
+        return new DeliveryNotFoundException(deliveryId);
     }
 
     // Inner Exception Class for Delivery Not Found
@@ -98,6 +358,66 @@ public class DeliveryController {
         }
     }
 
+    // Inner Exception Class for a malformed status change
+    public static class InvalidStatusException extends RuntimeException {
+        public InvalidStatusException(String message) {
+            super(message);
+        }
+    }
+
+    // Inner Exception Class for a user, order or delivery boy id in the body that does not exist
+    public static class InvalidReferenceException extends RuntimeException {
+        public InvalidReferenceException(String message) {
+            super(message);
+        }
+    }
+
+    // Request body for a lifecycle transition
+    public static class StatusChange {
+        private DeliveryState state;
+        private String note;
+
+        public DeliveryState getState() {
+            return state;
+        }
+
+        public void setState(DeliveryState state) {
+            this.state = state;
+        }
+
+        public String getNote() {
+            return note;
+        }
+
+        public void setNote(String note) {
+            this.note = note;
+        }
+    }
+
+    @ExceptionHandler({ InvalidStatusException.class, InvalidReferenceException.class })
+    public ResponseEntity<String> handleInvalidStatus(RuntimeException ex) {
+        logger.warn(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(DeliveryLifecycleService.InvalidTransitionException.class)
+    public ResponseEntity<String> handleInvalidTransition(DeliveryLifecycleService.InvalidTransitionException ex) {
+        logger.warn(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(DeliveryLifecycleService.InvalidUpdateException.class)
+    public ResponseEntity<String> handleInvalidUpdate(DeliveryLifecycleService.InvalidUpdateException ex) {
+        logger.warn(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(DeliveryLifecycleService.UnknownDeliveryException.class)
+    public ResponseEntity<String> handleUnknownDelivery(DeliveryLifecycleService.UnknownDeliveryException ex) {
+        logger.warn(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
     // Exception Handler for DeliveryNotFoundException
     @ExceptionHandler(DeliveryNotFoundException.class)
     public ResponseEntity<String> handleDeliveryNotFound(DeliveryNotFoundException ex) {
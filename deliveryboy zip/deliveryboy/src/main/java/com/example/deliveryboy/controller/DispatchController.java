@@ -0,0 +1,174 @@
+package com.example.deliveryboy.controller;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.deliveryboy.entity.DeliveryBoy;
+import com.example.deliveryboy.entity.Order;
+import com.example.deliveryboy.repository.DeliveryBoyRepository;
+import com.example.deliveryboy.repository.OrderRepository;
+import com.example.deliveryboy.response.DispatchBatchResult;
+import com.example.deliveryboy.response.ResponseBean;
+import com.example.deliveryboy.response.RiderCandidate;
+import com.example.deliveryboy.service.DispatchBatcher;
+import com.example.deliveryboy.service.DispatchIndex;
+
+@RestController
+@RequestMapping("/dispatch")
+public class DispatchController {
+    private static final Logger logger = LoggerFactory.getLogger(DispatchController.class);
+    private static final String SUCCESS = "success"; // Define constant for "success"
+
+    @Autowired
+    private DispatchIndex dispatchIndex;
+
+    @Autowired
+    private DispatchBatcher dispatchBatcher;
+
+    @Autowired
+    private DeliveryBoyRepository deliveryBoyRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    // Position and availability of one delivery boy; the vehicle comes from the cached DeliveryBoy
+    @PutMapping("/riders/{empId}")
+    public ResponseBean<String> updateRider(@PathVariable Long empId, @RequestBody RiderStatus status) {
+        checkPosition(status.getLatitude(), status.getLongitude());
+        DeliveryBoy deliveryBoy = deliveryBoyRepository.findById(empId)
+                .orElseThrow(() -> new NotFoundException("Delivery boy with ID: " + empId + " not found"));
+        dispatchIndex.update(empId, deliveryBoy.getVehicle(), status.getLatitude(), status.getLongitude(),
+                status.getAvailable() == null || status.getAvailable());
+        return new ResponseBean<>(SUCCESS, "Rider position updated", null);
+    }
+
+    // Takes a delivery boy out of dispatch, e.g. at the end of a shift
+    @DeleteMapping("/riders/{empId}")
+    public ResponseBean<String> removeRider(@PathVariable Long empId) {
+        logger.info("Request received to remove rider {} from dispatch", empId);
+        dispatchIndex.remove(empId);
+        return new ResponseBean<>(SUCCESS, "Rider removed from dispatch", null);
+    }
+
+    @GetMapping("/nearest")
+    public ResponseBean<List<RiderCandidate>> nearest(@RequestParam double latitude, @RequestParam double longitude,
+            @RequestParam(required = false) String vehicle,
+            @RequestParam(defaultValue = "" + DispatchIndex.DEFAULT_K) int k) {
+        checkPosition(latitude, longitude);
+        List<RiderCandidate> candidates = dispatchIndex.nearest(latitude, longitude, vehicle, k);
+        return new ResponseBean<>(SUCCESS, candidates.size() + " riders found", candidates);
+    }
+
+    // Nearest eligible riders to an order's pickup point
+    @GetMapping("/orders/{orderId}/candidates")
+    public ResponseBean<List<RiderCandidate>> candidatesForOrder(@PathVariable String orderId,
+            @RequestParam(required = false) String vehicle,
+            @RequestParam(defaultValue = "" + DispatchIndex.DEFAULT_K) int k) {
+        logger.info("Request received to find riders for order with ID: {}", orderId);
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new NotFoundException("Order not found for ID: " + orderId));
+        if (order.getLatitude() == null || order.getLongitude() == null) {
+            throw new InvalidPositionException("Order " + orderId + " has no pickup coordinates");
+        }
+        List<RiderCandidate> candidates = dispatchIndex.nearest(order.getLatitude(), order.getLongitude(), vehicle, k);
+        logger.info("Found {} riders for order {}", candidates.size(), orderId);
+        return new ResponseBean<>(SUCCESS, candidates.size() + " riders found", candidates);
+    }
+
+    // Queues an existing order for batched assignment, e.g. after its pickup point was set
+    @PostMapping("/orders/{orderId}")
+    public ResponseBean<String> queueOrder(@PathVariable String orderId) {
+        logger.info("Request received to queue order {} for dispatch", orderId);
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new NotFoundException("Order not found for ID: " + orderId));
+        if (!dispatchBatcher.submit(order)) {
+            throw new InvalidPositionException("Order " + orderId + " has no pickup coordinates");
+        }
+        return new ResponseBean<>(SUCCESS, "Order queued for dispatch", null);
+    }
+
+    // Outcome of the most recent batching window and the size of the queue
+    @GetMapping("/batches/last")
+    public ResponseBean<DispatchBatchResult> lastBatch() {
+        DispatchBatchResult result = dispatchBatcher.getLastBatch();
+        return new ResponseBean<>(SUCCESS, dispatchBatcher.pendingCount() + " orders pending", result);
+    }
+
+    private static void checkPosition(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null || Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+            throw new InvalidPositionException("Invalid position: " + latitude + ", " + longitude);
+        }
+    }
+
+    // Request body for a rider position update
+    public static class RiderStatus {
+        private Double latitude;
+        private Double longitude;
+        private Boolean available;
+
+        public Double getLatitude() {
+            return latitude;
+        }
+
+        public void setLatitude(Double latitude) {
+            this.latitude = latitude;
+        }
+
+        public Double getLongitude() {
+            return longitude;
+        }
+
+        public void setLongitude(Double longitude) {
+            this.longitude = longitude;
+        }
+
+        public Boolean getAvailable() {
+            return available;
+        }
+
+        public void setAvailable(Boolean available) {
+            this.available = available;
+        }
+    }
+
+    // Inner Exception Class for an unknown rider or order
+    public static class NotFoundException extends RuntimeException {
+        public NotFoundException(String message) {
+            super(message);
+        }
+    }
+
+    // Inner Exception Class for missing or out-of-range coordinates
+    public static class InvalidPositionException extends RuntimeException {
+        public InvalidPositionException(String message) {
+            super(message);
+        }
+    }
+
+    @ExceptionHandler(NotFoundException.class)
+    public ResponseEntity<String> handleNotFound(NotFoundException ex) {
+        logger.warn(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidPositionException.class)
+    public ResponseEntity<String> handleInvalidPosition(InvalidPositionException ex) {
+        logger.warn(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+}
@@ -1,12 +1,17 @@
 package com.example.deliveryboy.controller;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -15,12 +20,33 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.deliveryboy.entity.Order;
+import com.example.deliveryboy.id.TimeOrderedIdGenerator;
 import com.example.deliveryboy.repository.OrderRepository;
+import com.example.deliveryboy.repository.UserRepository;
+import com.example.deliveryboy.response.BatchItemResult;
+import com.example.deliveryboy.response.CursorPage;
+import com.example.deliveryboy.response.ETags;
+import com.example.deliveryboy.response.OrderSearchHit;
+import com.example.deliveryboy.response.OrderSummary;
 import com.example.deliveryboy.response.ResponseBean;
+import com.example.deliveryboy.service.DispatchBatcher;
+import com.example.deliveryboy.service.NdjsonExportService;
+import com.example.deliveryboy.service.OrderIngestService;
+import com.example.deliveryboy.service.OrderSearchIndex;
+import com.example.deliveryboy.service.RevenueRollupService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/orders")
@@ -32,63 +58,219 @@ public class OrderController {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TimeOrderedIdGenerator idGenerator;
+
+    @Autowired
+    private NdjsonExportService exportService;
+
+    @Autowired
+    private OrderIngestService ingestService;
+
+    @Autowired
+    private DispatchBatcher dispatchBatcher;
+
+    @Autowired
+    private OrderSearchIndex searchIndex;
+
+    @Autowired
+    private RevenueRollupService rollupService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
-    public ResponseBean<List<Order>> getAllOrders() {
-        logger.info("Request received to get all orders");
-        List<Order> orders = orderRepository.findAll();
-        if (orders.isEmpty()) {
+    public ResponseBean<CursorPage<Order>> getAllOrders(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String userId) {
+        logger.info("Request received to get a page of orders");
+        int limit = CursorPage.clampSize(size);
+        List<Order> rows = orderRepository.findPageAfter(CursorPage.decode(cursor), userId, Limit.of(limit + 1));
+        if (rows.isEmpty()) {
+            logger.warn("No orders found");
+            return new ResponseBean<>("warn", "No orders found", null);
+        }
+        CursorPage<Order> page = CursorPage.of(rows, limit, Order::getOrderId);
+        logger.info("Returning page of {} orders to the client.", page.getSize());
+        return new ResponseBean<>(SUCCESS, "Orders retrieved successfully", page);
+    }
+
+    // The same page as flat summaries, with the user as its id
+    @GetMapping("/summary")
+    public ResponseBean<CursorPage<OrderSummary>> getOrderSummaries(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String userId) {
+        logger.info("Request received to get a page of order summaries");
+        int limit = CursorPage.clampSize(size);
+        List<OrderSummary> rows = orderRepository.findSummaryPageAfter(CursorPage.decode(cursor), userId, Limit.of(limit + 1));
+        if (rows.isEmpty()) {
             logger.warn("No orders found");
             return new ResponseBean<>("warn", "No orders found", null);
         }
-        logger.info("Returning all orders to the client.");
-        return new ResponseBean<>(SUCCESS, "Orders retrieved successfully", orders);
+        return new ResponseBean<>(SUCCESS, "Orders retrieved successfully", CursorPage.of(rows, limit, OrderSummary::orderId));
+    }
+
+    // Words from the order details or delivery address; prefixes and small typos match too
+    @GetMapping("/search")
+    public ResponseBean<CursorPage<OrderSearchHit>> searchOrders(@RequestParam String q,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        logger.info("Request received to search orders");
+        CursorPage<OrderSearchHit> page = searchIndex.search(q, userId, cursor, CursorPage.clampSize(size));
+        if (page == null) {
+            throw new InvalidSearchException("Search text has no searchable words: " + q);
+        }
+        if (page.getItems().isEmpty()) {
+            return new ResponseBean<>("warn", "No orders match the search", null);
+        }
+        return new ResponseBean<>(SUCCESS, page.getSize() + " orders found", page);
+    }
+
+    @PostMapping("/search/rebuild")
+    public ResponseBean<String> rebuildSearchIndex() {
+        logger.info("Request received to rebuild the order search index");
+        long count = searchIndex.rebuild();
+        return new ResponseBean<>(SUCCESS, "Search index rebuilt with " + count + " orders", null);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportOrders(HttpServletResponse response) throws IOException {
+        logger.info("Request received to export all orders");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        long count = exportService.export(orderRepository::streamAllForExport, response.getOutputStream());
+        logger.info("Exported {} orders", count);
     }
 
     @GetMapping("/{orderId}")
-    public ResponseBean<Order> getOrderById(@PathVariable String orderId) {
+    public ResponseEntity<ResponseBean<Order>> getOrderById(@PathVariable String orderId, WebRequest request) {
         logger.info("Request received to get order by ID: {}", orderId);
+        // Conditional GET: a current client copy costs a version lookup, not a load and serialization
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Long version = orderRepository.findVersionById(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
+            if (request.checkNotModified(ETags.of(version))) {
+                return null;
+            }
+        }
         Optional<Order> order = orderRepository.findById(orderId);
         return order
-                .map(o -> new ResponseBean<>(SUCCESS, "Order found", o))
+                .map(o -> ResponseEntity.ok().eTag(ETags.of(o.getVersion()))
+                        .body(new ResponseBean<>(SUCCESS, "Order found", o)))
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
     }
 
     @PostMapping
     public ResponseBean<String> createOrder(@RequestBody Order order) {
         logger.info("Request received to create new order");
-        Order savedOrder = orderRepository.save(order);
+        if (order.getOrderId() == null || order.getOrderId().isBlank()) {
+            order.setOrderId(idGenerator.next());
+        }
+        if (order.getUser() != null) {
+            order.setUser(userRepository.getReferenceById(order.getUser().getUserId()));
+        }
+        order.setVersion(null);
+        Order savedOrder;
+        try {
+            savedOrder = orderRepository.save(order);
+        } catch (DataIntegrityViolationException ex) {
+            // The user is a proxy, so an unknown one only shows up as a foreign key violation
+            String userId = order.getUser() == null ? null : order.getUser().getUserId();
+            if (userId != null && !userRepository.existsById(userId)) {
+                throw new InvalidReferenceException("User not found for ID: " + userId);
+            }
+            throw ex;
+        }
+        dispatchBatcher.submit(savedOrder);  // Matched to a rider in the next dispatch window
+        index(savedOrder);
         String message = "New order created successfully with ID: " + savedOrder.getOrderId();
         logger.info(message);
         return new ResponseBean<>(SUCCESS, message, savedOrder.toString());
     }
 
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseBean<List<BatchItemResult>> createOrders(@RequestBody List<Order> orders) {
+        logger.info("Request received to create a batch of {} orders", orders.size());
+        return ingest(orders);
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseBean<List<BatchItemResult>> createOrdersNdjson(HttpServletRequest request) throws IOException {
+        List<Order> orders;
+        try (MappingIterator<Order> it = objectMapper.readerFor(Order.class).readValues(request.getInputStream())) {
+            orders = it.readAll();
+        } catch (JsonProcessingException ex) {
+            throw new InvalidBatchException(ex.getOriginalMessage());
+        }
+        logger.info("Request received to create a batch of {} orders (NDJSON)", orders.size());
+        return ingest(orders);
+    }
+
+    private ResponseBean<List<BatchItemResult>> ingest(List<Order> orders) {
+        if (orders.size() > OrderIngestService.MAX_ITEMS) {
+            throw new InvalidBatchException("Batch exceeds " + OrderIngestService.MAX_ITEMS + " orders");
+        }
+        List<BatchItemResult> results = ingestService.ingest(orders);
+        results.stream()
+                .filter(r -> BatchItemResult.CREATED.equals(r.getStatus()))
+                .forEach(r -> {
+                    dispatchBatcher.submit(orders.get(r.getIndex()));
+                    index(orders.get(r.getIndex()));
+                });
+        long created = results.stream().filter(r -> BatchItemResult.CREATED.equals(r.getStatus())).count();
+        logger.info("Created {} of {} orders in batch", created, orders.size());
+        String status = created == orders.size() ? SUCCESS : "warn";
+        return new ResponseBean<>(status, created + " of " + orders.size() + " orders created", results);
+    }
+
     @PutMapping("/{orderId}")
-    public ResponseBean<String> updateOrder(@PathVariable String orderId, @RequestBody Order updatedOrder) {
+    public ResponseEntity<ResponseBean<String>> updateOrder(@PathVariable String orderId, @RequestBody Order updatedOrder,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         logger.info("Request received to update order with ID: {}", orderId);
-        Optional<Order> existingOrder = orderRepository.findById(orderId);
-        if (existingOrder.isPresent()) {
-            updatedOrder.setOrderId(orderId);
-            Order savedOrder = orderRepository.save(updatedOrder);
-            String message = "Order with ID: " + orderId + " updated successfully";
-            logger.info(message);
-            return new ResponseBean<>(SUCCESS, message, savedOrder.toString());
-        } else {
-            throw new OrderNotFoundException(orderId);
+        Long version = ETags.parseIfMatch(ifMatch);
+        String userId = updatedOrder.getUser() == null ? null : updatedOrder.getUser().getUserId();
+        // A new user takes the order's bills with it
+        // The new version is read in the same transaction, while the row is still locked by the update
+        Long newVersion = rollupService.reattribute(List.of(orderId), () -> orderRepository.updateIfVersion(orderId,
+                updatedOrder.getOrderDetails(), updatedOrder.getDeliveryAddress(), userId, updatedOrder.getLatitude(),
+                updatedOrder.getLongitude(), version) == 0 ? null : orderRepository.findVersionById(orderId).orElseThrow());
+        if (newVersion == null) {
+            throw notFoundOrStale(orderId, version);
         }
+        searchIndex.index(orderId, userId, updatedOrder.getOrderDetails(), updatedOrder.getDeliveryAddress());
+        String message = "Order with ID: " + orderId + " updated successfully";
+        logger.info(message);
+        return ResponseEntity.ok().eTag(ETags.of(newVersion)).body(new ResponseBean<>(SUCCESS, message, null));
     }
 
     @DeleteMapping("/{orderId}")
-    public ResponseBean<String> deleteOrder(@PathVariable String orderId) {
+    public ResponseBean<String> deleteOrder(@PathVariable String orderId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         logger.info("Request received to delete order with ID: {}", orderId);
-        Optional<Order> existingOrder = orderRepository.findById(orderId);
-        if (existingOrder.isPresent()) {
-            orderRepository.deleteById(orderId);
-            String message = "Order with ID: " + orderId + " deleted successfully";
-            logger.info(message);
-            return new ResponseBean<>(SUCCESS, message, null);
-        } else {
-            throw new OrderNotFoundException(orderId);
+        Long version = ETags.parseIfMatch(ifMatch);
+        if (orderRepository.deleteIfVersion(orderId, version) == 0) {
+            throw notFoundOrStale(orderId, version);
+        }
+        dispatchBatcher.cancel(orderId);
+        searchIndex.delete(orderId);
+        String message = "Order with ID: " + orderId + " deleted successfully";
+        logger.info(message);
+        return new ResponseBean<>(SUCCESS, message, null);
+    }
+
+    private void index(Order order) {
+        searchIndex.index(order.getOrderId(), order.getUser() == null ? null : order.getUser().getUserId(),
+                order.getOrderDetails(), order.getDeliveryAddress());
+    }
+
+    // No row matched: the order is gone, or its version moved past the If-Match one
+    private RuntimeException notFoundOrStale(String orderId, Long version) {
+        if (version != null && orderRepository.existsById(orderId)) {
+            return new ETags.PreconditionFailedException(ETags.of(version));
         }
+        return new OrderNotFoundException(orderId);
     }
 
     // Inner Exception Class for Order Not Found
@@ -98,6 +280,34 @@ public class OrderController {
         }
     }
 
+    // Inner Exception Class for a malformed or oversized batch
+    public static class InvalidBatchException extends RuntimeException {
+        public InvalidBatchException(String message) {
+            super(message);
+        }
+    }
+
+    // Inner Exception Class for a user id in the body that does not exist
+    public static class InvalidReferenceException extends RuntimeException {
+        public InvalidReferenceException(String message) {
+            super(message);
+        }
+    }
+
+    // Inner Exception Class for search text that analyzes to no words
+    public static class InvalidSearchException extends RuntimeException {
+        public InvalidSearchException(String message) {
+            super(message);
+        }
+    }
+
+    // Exception Handler for InvalidBatchException, InvalidReferenceException and InvalidSearchException
+    @ExceptionHandler({ InvalidBatchException.class, InvalidReferenceException.class, InvalidSearchException.class })
+    public ResponseEntity<String> handleInvalidRequest(RuntimeException ex) {
+        logger.warn(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
     // Exception Handler for OrderNotFoundException
     @ExceptionHandler(OrderNotFoundException.class)
     public ResponseEntity<String> handleOrderNotFound(OrderNotFoundException ex) {
@@ -0,0 +1,69 @@
+package com.example.deliveryboy.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.deliveryboy.entity.DeliveryRow;
+import com.example.deliveryboy.repository.KeysetFlux;
+import com.example.deliveryboy.repository.ReactiveDeliveryRepository;
+import com.example.deliveryboy.response.CursorPage;
+import com.example.deliveryboy.response.ResponseBean;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Non-blocking reads over R2DBC; writes stay on /deliveries
+@RestController
+@RequestMapping("/reactive/deliveries")
+public class ReactiveDeliveryController {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveDeliveryController.class);
+    private static final String DELIVERY_NOT_FOUND_MSG = "Delivery not found for ID: %s";
+    private static final String SUCCESS = "success"; // Define constant for "success"
+
+    @Autowired
+    private ReactiveDeliveryRepository deliveryRepository;
+
+    // Streams every matching delivery after the cursor as NDJSON, paced by the client
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<DeliveryRow> streamDeliveries(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) Long empId,
+            @RequestParam(required = false) Boolean status) {
+        logger.info("Request received to stream deliveries");
+        return KeysetFlux.stream(CursorPage.decode(cursor),
+                after -> deliveryRepository.findPageAfter(after, userId, empId, status, KeysetFlux.PAGE_SIZE),
+                DeliveryRow::deliveryId);
+    }
+
+    @GetMapping("/{deliveryId}")
+    public Mono<ResponseBean<DeliveryRow>> getDeliveryById(@PathVariable String deliveryId) {
+        logger.info("Request received to get delivery with ID: {}", deliveryId);
+        return deliveryRepository.findById(deliveryId)
+                .map(d -> new ResponseBean<>(SUCCESS, "Delivery found", d))
+                .switchIfEmpty(Mono.error(() -> new DeliveryNotFoundException(deliveryId)));
+    }
+
+    // Inner Exception Class for Delivery Not Found
+    public static class DeliveryNotFoundException extends RuntimeException {
+        public DeliveryNotFoundException(String deliveryId) {
+            super(String.format(DELIVERY_NOT_FOUND_MSG, deliveryId));
+        }
+    }
+
+    // Exception Handler for DeliveryNotFoundException
+    @ExceptionHandler(DeliveryNotFoundException.class)
+    public ResponseEntity<String> handleDeliveryNotFound(DeliveryNotFoundException ex) {
+        logger.warn(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+}
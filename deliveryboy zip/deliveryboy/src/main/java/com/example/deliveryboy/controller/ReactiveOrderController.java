@@ -0,0 +1,67 @@
+package com.example.deliveryboy.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.deliveryboy.entity.OrderRow;
+import com.example.deliveryboy.repository.KeysetFlux;
+import com.example.deliveryboy.repository.ReactiveOrderRepository;
+import com.example.deliveryboy.response.CursorPage;
+import com.example.deliveryboy.response.ResponseBean;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Non-blocking reads over R2DBC; writes stay on /orders
+@RestController
+@RequestMapping("/reactive/orders")
+public class ReactiveOrderController {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveOrderController.class);
+    private static final String ORDER_NOT_FOUND_MSG = "Order not found for ID: %s";
+    private static final String SUCCESS = "success"; // Define constant for "success"
+
+    @Autowired
+    private ReactiveOrderRepository orderRepository;
+
+    // Streams every order after the cursor as NDJSON, paced by the client
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<OrderRow> streamOrders(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String userId) {
+        logger.info("Request received to stream orders");
+        return KeysetFlux.stream(CursorPage.decode(cursor),
+                after -> orderRepository.findPageAfter(after, userId, KeysetFlux.PAGE_SIZE),
+                OrderRow::orderId);
+    }
+
+    @GetMapping("/{orderId}")
+    public Mono<ResponseBean<OrderRow>> getOrderById(@PathVariable String orderId) {
+        logger.info("Request received to get order with ID: {}", orderId);
+        return orderRepository.findById(orderId)
+                .map(o -> new ResponseBean<>(SUCCESS, "Order found", o))
+                .switchIfEmpty(Mono.error(() -> new OrderNotFoundException(orderId)));
+    }
+
+    // Inner Exception Class for Order Not Found
+    public static class OrderNotFoundException extends RuntimeException {
+        public OrderNotFoundException(String orderId) {
+            super(String.format(ORDER_NOT_FOUND_MSG, orderId));
+        }
+    }
+
+    // Exception Handler for OrderNotFoundException
+    @ExceptionHandler(OrderNotFoundException.class)
+    public ResponseEntity<String> handleOrderNotFound(OrderNotFoundException ex) {
+        logger.warn(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+}
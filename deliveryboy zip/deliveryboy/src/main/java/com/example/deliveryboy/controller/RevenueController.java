@@ -0,0 +1,94 @@
+package com.example.deliveryboy.controller;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.deliveryboy.entity.RevenueRollup;
+import com.example.deliveryboy.response.ResponseBean;
+import com.example.deliveryboy.response.RevenueTotal;
+import com.example.deliveryboy.service.RevenueRollupService;
+
+// Revenue totals from the rollup rows; days are UTC dates of bill creation
+@RestController
+@RequestMapping("/revenue")
+public class RevenueController {
+    private static final Logger logger = LoggerFactory.getLogger(RevenueController.class);
+    private static final String SUCCESS = "success";
+    private static final int MAX_DAYS = 366;
+
+    @Autowired
+    private RevenueRollupService rollupService;
+
+    @GetMapping("/days/{day}")
+    public ResponseBean<RevenueTotal> getDayRevenue(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day) {
+        logger.info("Request received to get revenue for day: {}", day);
+        return new ResponseBean<>(SUCCESS, "Revenue retrieved successfully",
+                rollupService.get(RevenueRollup.DAY, day.toString()));
+    }
+
+    @GetMapping("/days")
+    public ResponseBean<List<RevenueTotal>> getDailyRevenue(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        logger.info("Request received to get daily revenue from {} to {}", from, to);
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new InvalidRangeException("Range must run forwards and span at most " + MAX_DAYS + " days");
+        }
+        return new ResponseBean<>(SUCCESS, "Revenue retrieved successfully", rollupService.days(from, to));
+    }
+
+    @GetMapping("/users/{userId}")
+    public ResponseBean<RevenueTotal> getUserRevenue(@PathVariable String userId) {
+        logger.info("Request received to get revenue for user: {}", userId);
+        return new ResponseBean<>(SUCCESS, "Revenue retrieved successfully",
+                rollupService.get(RevenueRollup.USER, userId));
+    }
+
+    @GetMapping("/riders/{empId}")
+    public ResponseBean<RevenueTotal> getRiderRevenue(@PathVariable Long empId) {
+        logger.info("Request received to get revenue for delivery boy: {}", empId);
+        return new ResponseBean<>(SUCCESS, "Revenue retrieved successfully",
+                rollupService.get(RevenueRollup.RIDER, String.valueOf(empId)));
+    }
+
+    // Recomputes every total from the bills; returns the number of bills counted, 409 while one is running
+    @PostMapping("/rebuild")
+    public ResponseBean<Long> rebuild() {
+        logger.info("Request received to rebuild revenue rollups");
+        return new ResponseBean<>(SUCCESS, "Revenue rollups rebuilt", rollupService.rebuild());
+    }
+
+    // Inner Exception Class for a day range that is reversed or too long
+    public static class InvalidRangeException extends RuntimeException {
+        public InvalidRangeException(String message) {
+            super(message);
+        }
+    }
+
+    @ExceptionHandler(InvalidRangeException.class)
+    public ResponseEntity<String> handleInvalidRange(InvalidRangeException ex) {
+        logger.warn(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(RevenueRollupService.RebuildRunningException.class)
+    public ResponseEntity<String> handleRebuildRunning(RevenueRollupService.RebuildRunningException ex) {
+        logger.warn(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+}
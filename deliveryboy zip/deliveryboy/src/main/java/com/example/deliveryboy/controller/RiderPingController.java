@@ -0,0 +1,194 @@
+package com.example.deliveryboy.controller;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.deliveryboy.entity.RiderPosition;
+import com.example.deliveryboy.repository.RiderPositionRepository;
+import com.example.deliveryboy.response.CursorPage;
+import com.example.deliveryboy.response.PingStats;
+import com.example.deliveryboy.response.ResponseBean;
+import com.example.deliveryboy.service.PositionBuffer;
+import com.example.deliveryboy.service.RiderPingService;
+
+// GPS pings from riders' phones; no per-ping logging, these arrive every few seconds per rider
+@RestController
+@RequestMapping("/delivery-boys")
+public class RiderPingController {
+    private static final Logger logger = LoggerFactory.getLogger(RiderPingController.class);
+    private static final String SUCCESS = "success";
+    private static final int MAX_BATCH = 10_000;
+
+    @Autowired
+    private RiderPingService riderPingService;
+
+    @Autowired
+    private RiderPositionRepository riderPositionRepository;
+
+    @PostMapping("/{empId}/pings")
+    public ResponseEntity<ResponseBean<String>> ping(@PathVariable Long empId, @RequestBody Ping ping) {
+        checkPosition(ping.getLatitude(), ping.getLongitude());
+        PositionBuffer.Outcome outcome = riderPingService.record(empId, ping.getLatitude(), ping.getLongitude(),
+                ping.getTimestamp());
+        if (outcome == PositionBuffer.Outcome.UNKNOWN) {
+            throw new NotFoundException("Delivery boy with ID: " + empId + " not found");
+        }
+        String message = outcome == PositionBuffer.Outcome.STALE ? "Ping older than the latest fix, ignored" : "Ping accepted";
+        return ResponseEntity.accepted().body(new ResponseBean<>(SUCCESS, message, null));
+    }
+
+    // Many riders' pings in one call, e.g. from a gateway that aggregates phone traffic
+    @PostMapping("/pings")
+    public ResponseEntity<ResponseBean<Map<String, Integer>>> pings(@RequestBody List<Ping> pings) {
+        if (pings.size() > MAX_BATCH) {
+            throw new InvalidPingException("At most " + MAX_BATCH + " pings per batch");
+        }
+        int accepted = 0;
+        int stale = 0;
+        int rejected = 0;
+        for (Ping ping : pings) {
+            if (ping == null || ping.getEmpId() == null || !isValid(ping.getLatitude(), ping.getLongitude())) {
+                rejected++;
+                continue;
+            }
+            try {
+                switch (riderPingService.record(ping.getEmpId(), ping.getLatitude(), ping.getLongitude(),
+                        ping.getTimestamp())) {
+                    case ACCEPTED -> accepted++;
+                    case STALE -> stale++;
+                    case UNKNOWN -> rejected++;
+                }
+            } catch (RiderPingService.CapacityExceededException ex) {
+                rejected++;
+            }
+        }
+        Map<String, Integer> counts = Map.of("accepted", accepted, "stale", stale, "rejected", rejected);
+        return ResponseEntity.accepted().body(new ResponseBean<>(SUCCESS, accepted + " pings accepted", counts));
+    }
+
+    // Latest fix from memory, ahead of what has been flushed to the database
+    @GetMapping("/{empId}/position")
+    public ResponseBean<PositionBuffer.Fix> getPosition(@PathVariable Long empId) {
+        logger.info("Request received to get position of delivery boy {}", empId);
+        PositionBuffer.Fix fix = riderPingService.latest(empId);
+        if (fix == null) {
+            throw new NotFoundException("No position for delivery boy with ID: " + empId);
+        }
+        return new ResponseBean<>(SUCCESS, "Position retrieved successfully", fix);
+    }
+
+    // Stored (compacted) track from a point in time, oldest first
+    @GetMapping("/{empId}/track")
+    public ResponseBean<List<RiderPosition>> getTrack(@PathVariable Long empId,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Integer size) {
+        logger.info("Request received to get track of delivery boy {}", empId);
+        Instant since = from == null ? Instant.EPOCH : Instant.ofEpochMilli(from);
+        List<RiderPosition> track = riderPositionRepository.findByEmpIdAndRecordedAtGreaterThanEqualOrderByRecordedAtAsc(
+                empId, since, Limit.of(CursorPage.clampSize(size)));
+        return new ResponseBean<>(SUCCESS, track.size() + " positions found", track);
+    }
+
+    @GetMapping("/pings/stats")
+    public ResponseBean<PingStats> getStats() {
+        return new ResponseBean<>(SUCCESS, "Ping ingest statistics", riderPingService.getStats());
+    }
+
+    private static boolean isValid(Double latitude, Double longitude) {
+        return latitude != null && longitude != null && Math.abs(latitude) <= 90 && Math.abs(longitude) <= 180;
+    }
+
+    private static void checkPosition(Double latitude, Double longitude) {
+        if (!isValid(latitude, longitude)) {
+            throw new InvalidPingException("Invalid position: " + latitude + ", " + longitude);
+        }
+    }
+
+    // Request body for a ping; empId is only read by the batch endpoint, timestamp is device epoch millis
+    public static class Ping {
+        private Long empId;
+        private Double latitude;
+        private Double longitude;
+        private Long timestamp;
+
+        public Long getEmpId() {
+            return empId;
+        }
+
+        public void setEmpId(Long empId) {
+            this.empId = empId;
+        }
+
+        public Double getLatitude() {
+            return latitude;
+        }
+
+        public void setLatitude(Double latitude) {
+            this.latitude = latitude;
+        }
+
+        public Double getLongitude() {
+            return longitude;
+        }
+
+        public void setLongitude(Double longitude) {
+            this.longitude = longitude;
+        }
+
+        public Long getTimestamp() {
+            return timestamp;
+        }
+
+        public void setTimestamp(Long timestamp) {
+            this.timestamp = timestamp;
+        }
+    }
+
+    // Inner Exception Class for an unknown rider or a rider without a fix
+    public static class NotFoundException extends RuntimeException {
+        public NotFoundException(String message) {
+            super(message);
+        }
+    }
+
+    // Inner Exception Class for a malformed ping or batch
+    public static class InvalidPingException extends RuntimeException {
+        public InvalidPingException(String message) {
+            super(message);
+        }
+    }
+
+    @ExceptionHandler(NotFoundException.class)
+    public ResponseEntity<String> handleNotFound(NotFoundException ex) {
+        logger.warn(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidPingException.class)
+    public ResponseEntity<String> handleInvalidPing(InvalidPingException ex) {
+        logger.warn(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(RiderPingService.CapacityExceededException.class)
+    public ResponseEntity<String> handleCapacityExceeded(RiderPingService.CapacityExceededException ex) {
+        logger.warn(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ex.getMessage());
+    }
+}
@@ -6,8 +6,11 @@ import java.util.Optional;
 import org.slf4j.Logger; // Import for Collectors
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,12 +18,19 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.deliveryboy.entity.User;
+import com.example.deliveryboy.id.TimeOrderedIdGenerator;
 import com.example.deliveryboy.repository.UserRepository;
+import com.example.deliveryboy.response.CursorPage;
+import com.example.deliveryboy.response.ETags;
 import com.example.deliveryboy.response.ResponseBean;
+import com.example.deliveryboy.service.CollectionVersions;
 
 @RestController
 @RequestMapping("/users")
@@ -32,66 +42,93 @@ public class UserController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CollectionVersions collectionVersions;
+
+    @Autowired
+    private TimeOrderedIdGenerator idGenerator;
+
     @GetMapping
-    public ResponseBean<List<User>> getAllUsers() {
-        logger.info("Request received to get all users");
-        List<User> users = userRepository.findAll();
-        if (users.isEmpty()) {
+    public ResponseBean<CursorPage<User>> getAllUsers(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        logger.info("Request received to get a page of users");
+        if (collectionVersions.checkNotModified(request, CollectionVersions.USERS)) {
+            return null;  // 304, no query
+        }
+        int limit = CursorPage.clampSize(size);
+        List<User> rows = userRepository.findByUserIdGreaterThanOrderByUserIdAsc(CursorPage.decode(cursor),
+                Limit.of(limit + 1));
+        if (rows.isEmpty()) {
             logger.warn("No users found");
             return new ResponseBean<>("warn", "No users found", null);
         }
-        logger.info("Returning all users to the client.");
-        return new ResponseBean<>(SUCCESS, "Users retrieved successfully", users);
+        CursorPage<User> page = CursorPage.of(rows, limit, User::getUserId);
+        logger.info("Returning page of {} users to the client.", page.getSize());
+        return new ResponseBean<>(SUCCESS, "Users retrieved successfully", page);
     }
 
     @GetMapping("/{id}")
-    public ResponseBean<User> getUserById(@PathVariable("id") String userId) {
+    public ResponseEntity<ResponseBean<User>> getUserById(@PathVariable("id") String userId) {
         logger.info("Request received to get user by ID: {}", userId);
+        // Usually a cache hit; on a matching If-None-Match the ETag turns this into a 304 before serialization
         Optional<User> user = userRepository.findById(userId);
         return user
-                .map(u -> new ResponseBean<>(SUCCESS, "User found", u))
+                .map(u -> ResponseEntity.ok().eTag(ETags.of(u.getVersion()))
+                        .body(new ResponseBean<>(SUCCESS, "User found", u)))
                 .orElseThrow(() -> new UserNotFoundException(userId));
     }
 
     @PostMapping
     public ResponseBean<String> createUser(@RequestBody User user) {
         logger.info("Request received to create a new user: {}", user);
-        User savedUser = userRepository.save(user);
+        if (user.getUserId() == null || user.getUserId().isBlank()) {
+            user.setUserId(idGenerator.next());
+        }
+        user.setVersion(null);
+        User savedUser = collectionVersions.write(CollectionVersions.USERS, () -> userRepository.save(user));
         String message = "New user created with ID: " + savedUser.getUserId();
         logger.info(message);
         return new ResponseBean<>(SUCCESS, message, savedUser.toString());
     }
 
     @PutMapping("/{id}")
-    public ResponseBean<String> updateUser(@PathVariable("id") String userId, @RequestBody User userDetails) {
+    public ResponseEntity<ResponseBean<String>> updateUser(@PathVariable("id") String userId,
+            @RequestBody User userDetails,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         logger.info("Request received to update user with ID: {}", userId);
-        Optional<User> optionalUser = userRepository.findById(userId);
-        if (optionalUser.isPresent()) {
-            User user = optionalUser.get();
+        User savedUser = collectionVersions.write(CollectionVersions.USERS, () -> {
+            User user = loadForWrite(userId, ETags.parseIfMatch(ifMatch));
             user.setName(userDetails.getName());
             user.setEmail(userDetails.getEmail());
             user.setPhoneNum(userDetails.getPhoneNum());
-            userRepository.save(user);
-            String message = "User with ID: " + userId + " updated successfully";
-            logger.info(message);
-            return new ResponseBean<>(SUCCESS, message, user.toString());
-        } else {
-            throw new UserNotFoundException(userId);
-        }
+            return userRepository.save(user);
+        });
+        String message = "User with ID: " + userId + " updated successfully";
+        logger.info(message);
+        return ResponseEntity.ok().eTag(ETags.of(savedUser.getVersion())).body(new ResponseBean<>(SUCCESS, message, null));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseBean<String> deleteUser(@PathVariable("id") String userId) {
+    public ResponseBean<String> deleteUser(@PathVariable("id") String userId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         logger.info("Request received to delete user with ID: {}", userId);
-        Optional<User> existingUser = userRepository.findById(userId);
-        if (existingUser.isPresent()) {
-            userRepository.deleteById(userId);
-            String successMessage = "User with ID: " + userId + " deleted successfully";
-            logger.info(successMessage);
-            return new ResponseBean<>(SUCCESS, successMessage, null);
-        } else {
-            throw new UserNotFoundException(userId);
+        collectionVersions.write(CollectionVersions.USERS, () -> {
+            userRepository.delete(loadForWrite(userId, ETags.parseIfMatch(ifMatch)));
+            return null;
+        });
+        String successMessage = "User with ID: " + userId + " deleted successfully";
+        logger.info(successMessage);
+        return new ResponseBean<>(SUCCESS, successMessage, null);
+    }
+
+    // Loaded and written back rather than updated in bulk, so Hibernate evicts only this user's
+    // second-level cache entry; the UPDATE or DELETE still checks the version it was loaded with
+    private User loadForWrite(String userId, Long version) {
+        User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
+        if (version != null && !version.equals(user.getVersion())) {
+            throw new ETags.PreconditionFailedException(ETags.of(version));
         }
+        return user;
     }
 
     // Inner Exception Class for User Not Found
@@ -101,6 +138,13 @@ public class UserController {
         }
     }
 
+    // Another write committed between the load and this one
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConcurrentWrite(ObjectOptimisticLockingFailureException ex) {
+        logger.warn("User {} changed concurrently", ex.getIdentifier());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("User was changed concurrently, retry with its current version");
+    }
+
     // Exception Handler for UserNotFoundException
     @ExceptionHandler(UserNotFoundException.class)
     public ResponseEntity<String> handleUserNotFound(UserNotFoundException ex) {
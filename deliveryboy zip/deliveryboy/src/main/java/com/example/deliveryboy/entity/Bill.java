@@ -2,21 +2,25 @@ package com.example.deliveryboy.entity;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.JoinColumn;
 import java.math.BigDecimal;
+import java.time.Instant;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import com.example.deliveryboy.id.PooledSequence;
 
 @Entity
 @Table(name = "\"bill\"")  // Quoted table name
 public class Bill {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    @Column(name = "\"bill_id\"")  // Primary key with auto-increment
+    @PooledSequence(name = "bill_seq")
+    @Column(name = "\"bill_id\"")  // Primary key from a pooled sequence so inserts can batch
     private Long billId;
 
     @ManyToOne
@@ -29,6 +33,14 @@ public class Bill {
     @Column(name = "\"transaction_id\"", nullable = false, unique = true, length = 50)  // Unique transaction ID
     private String transactionId;
 
+    @Version
+    @Column(name = "\"version\"", columnDefinition = "bigint default 0 not null")  // Optimistic lock, exposed as the ETag
+    private Long version;
+
+    @CreationTimestamp
+    @Column(name = "\"created_at\"", updatable = false)  // Set on insert; the revenue day. Null for bills from before it
+    private Instant createdAt;
+
     // Constructors
     public Bill() {}
 
@@ -70,4 +82,20 @@ public class Bill {
     public void setTransactionId(String transactionId) {
         this.transactionId = transactionId;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
 }
@@ -0,0 +1,43 @@
+package com.example.deliveryboy.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Change counter of one collection, e.g. {@code users}, moved in the same transaction as
+ * every write to it, so list validators agree across instances. Maintained by
+ * {@code CollectionVersions}.
+ */
+@Entity
+@Table(name = "\"collection_version\"")
+public class CollectionVersion {
+
+    @Id
+    @Column(name = "\"collection_name\"", length = 40)
+    private String collectionName;
+
+    @Column(name = "\"version\"", nullable = false)
+    private long version;
+
+    // Constructors
+    public CollectionVersion() {}
+
+    // Getters and setters
+    public String getCollectionName() {
+        return collectionName;
+    }
+
+    public void setCollectionName(String collectionName) {
+        this.collectionName = collectionName;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
@@ -4,12 +4,24 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Column;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 
 @Entity
 @Table(name = "\"delivery\"")  // Quoted table name
+@NamedEntityGraph(name = Delivery.LISTING_GRAPH,  // Whole graph in one select for listings
+        attributeNodes = {
+                @NamedAttributeNode("user"),
+                @NamedAttributeNode(value = "order", subgraph = "order"),
+                @NamedAttributeNode("deliveryBoy")
+        },
+        subgraphs = @NamedSubgraph(name = "order", attributeNodes = @NamedAttributeNode("user")))
 public class Delivery {
+    public static final String LISTING_GRAPH = "Delivery.listing";
 
     @Id
     @Column(name = "\"delivery_id\"", length = 20)  // Primary key
@@ -30,6 +42,10 @@ public class Delivery {
     @Column(name = "\"delivery_status\"", nullable = false)
     private boolean deliveryStatus;
 
+    @Version
+    @Column(name = "\"version\"", columnDefinition = "bigint default 0 not null")  // Optimistic lock, exposed as the ETag
+    private Long version;
+
     // Constructors
     public Delivery() {}
 
@@ -81,4 +97,12 @@ public class Delivery {
     public void setDeliveryStatus(boolean deliveryStatus) {
         this.deliveryStatus = deliveryStatus;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
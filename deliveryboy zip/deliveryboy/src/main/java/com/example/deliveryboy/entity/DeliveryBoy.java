@@ -1,19 +1,27 @@
 package com.example.deliveryboy.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.example.deliveryboy.id.PooledSequence;
+
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "deliveryBoy")  // Second-level cache, see application.conf
 public class DeliveryBoy {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "delivery_boy_seq")
+    @Column(name = "\"emp_id\"")  // Referenced by Delivery's join column
     private Long empId; // Renamed to follow naming conventions
 
     @NotBlank(message = "Name cannot be empty")
@@ -32,6 +40,10 @@ public class DeliveryBoy {
     @Column(nullable = false, unique = true)
     private String phoneNumber;
 
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")  // Optimistic lock, exposed as the ETag
+    private Long version;
+
     // Getters and setters
     public Long getEmpId() {
         return empId; // Updated getter
@@ -72,4 +84,12 @@ public class DeliveryBoy {
     public void setPhoneNumber(String phoneNumber) {
         this.phoneNumber = phoneNumber;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
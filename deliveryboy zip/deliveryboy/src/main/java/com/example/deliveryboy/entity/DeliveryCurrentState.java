@@ -0,0 +1,113 @@
+package com.example.deliveryboy.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Read projection of the status event log: the latest state of each delivery in a
+ * narrow row, so "where is my delivery" never replays the timeline. Advanced by a
+ * conditional update on {@code state}, which also guards against racing transitions.
+ */
+@Entity
+@Table(name = "\"delivery_current_state\"")
+public class DeliveryCurrentState {
+
+    @Id
+    @Column(name = "\"delivery_id\"", length = 20)  // Same id as the delivery
+    private String deliveryId;
+
+    @Column(name = "\"user_id\"")  // For the user's event stream
+    private String userId;
+
+    @Column(name = "\"emp_id\"")
+    private Long empId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "\"state\"", nullable = false, length = 16)
+    private DeliveryState state;
+
+    @Column(name = "\"last_event_id\"")
+    private Long lastEventId;
+
+    @Column(name = "\"updated_at\"", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "\"assigned_at\"")  // Start of the delivery, for completion times; null on rows from before it
+    private Instant assignedAt;
+
+    // Constructors
+    public DeliveryCurrentState() {}
+
+    public DeliveryCurrentState(String deliveryId, String userId, Long empId, DeliveryState state, Long lastEventId,
+            Instant updatedAt) {
+        this.deliveryId = deliveryId;
+        this.userId = userId;
+        this.empId = empId;
+        this.state = state;
+        this.lastEventId = lastEventId;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters and setters
+    public String getDeliveryId() {
+        return deliveryId;
+    }
+
+    public void setDeliveryId(String deliveryId) {
+        this.deliveryId = deliveryId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public Long getEmpId() {
+        return empId;
+    }
+
+    public void setEmpId(Long empId) {
+        this.empId = empId;
+    }
+
+    public DeliveryState getState() {
+        return state;
+    }
+
+    public void setState(DeliveryState state) {
+        this.state = state;
+    }
+
+    public Long getLastEventId() {
+        return lastEventId;
+    }
+
+    public void setLastEventId(Long lastEventId) {
+        this.lastEventId = lastEventId;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Instant getAssignedAt() {
+        return assignedAt;
+    }
+
+    public void setAssignedAt(Instant assignedAt) {
+        this.assignedAt = assignedAt;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.deliveryboy.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Read-only R2DBC view of the {@code delivery} table for the reactive endpoints.
+ * Associations are carried as foreign key ids rather than nested objects.
+ */
+@Table("delivery")
+public record DeliveryRow(
+        @Id @Column("delivery_id") String deliveryId,
+        @Column("user_id") String userId,
+        @Column("order_id") String orderId,
+        @Column("emp_id") Long empId,
+        @Column("delivery_status") boolean deliveryStatus,
+        @Column("version") Long version) {
+}
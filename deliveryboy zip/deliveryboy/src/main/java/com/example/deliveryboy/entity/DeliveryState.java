@@ -0,0 +1,33 @@
+package com.example.deliveryboy.entity;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Lifecycle of a delivery. A delivery starts ASSIGNED and ends DELIVERED or FAILED;
+ * {@link #canMoveTo} holds the allowed transitions.
+ */
+public enum DeliveryState {
+    ASSIGNED,
+    PICKED_UP,
+    IN_TRANSIT,
+    DELIVERED,
+    FAILED;
+
+    public boolean canMoveTo(DeliveryState next) {
+        return next != null && successors().contains(next);
+    }
+
+    public boolean isTerminal() {
+        return this == DELIVERED || this == FAILED;
+    }
+
+    private Set<DeliveryState> successors() {
+        return switch (this) {
+            case ASSIGNED -> EnumSet.of(PICKED_UP, FAILED);
+            case PICKED_UP -> EnumSet.of(IN_TRANSIT, DELIVERED, FAILED);
+            case IN_TRANSIT -> EnumSet.of(DELIVERED, FAILED);
+            case DELIVERED, FAILED -> EnumSet.noneOf(DeliveryState.class);
+        };
+    }
+}
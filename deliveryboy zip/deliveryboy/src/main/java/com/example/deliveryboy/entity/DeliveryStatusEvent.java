@@ -0,0 +1,107 @@
+package com.example.deliveryboy.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import com.example.deliveryboy.id.PooledSequence;
+
+/**
+ * One status change of a delivery. Rows are only ever inserted; on PostgreSQL the table
+ * is range-partitioned by month on {@code occurred_at} (see DeliveryEventPartitions). The
+ * delivery and rider are plain ids so the timeline outlives a deleted delivery.
+ */
+@Entity
+@Table(name = "\"delivery_status_event\"", indexes = {
+        @Index(name = "delivery_status_event_delivery_idx", columnList = "\"delivery_id\", \"occurred_at\""),
+        @Index(name = "delivery_status_event_emp_idx", columnList = "\"emp_id\", \"occurred_at\"")
+})
+public class DeliveryStatusEvent {
+
+    @Id
+    @PooledSequence(name = "delivery_status_event_seq")
+    @Column(name = "\"event_id\"")  // Primary key from a pooled sequence so inserts can batch
+    private Long eventId;
+
+    @Column(name = "\"delivery_id\"", nullable = false, length = 20)
+    private String deliveryId;
+
+    @Column(name = "\"emp_id\"")  // Rider holding the delivery at the time
+    private Long empId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "\"state\"", nullable = false, length = 16)
+    private DeliveryState state;
+
+    @Column(name = "\"note\"", length = 200)  // E.g. why a delivery failed
+    private String note;
+
+    @Column(name = "\"occurred_at\"", nullable = false)  // Partition key
+    private Instant occurredAt;
+
+    // Constructors
+    public DeliveryStatusEvent() {}
+
+    public DeliveryStatusEvent(String deliveryId, Long empId, DeliveryState state, String note, Instant occurredAt) {
+        this.deliveryId = deliveryId;
+        this.empId = empId;
+        this.state = state;
+        this.note = note;
+        this.occurredAt = occurredAt;
+    }
+
+    // Getters and setters
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(Long eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getDeliveryId() {
+        return deliveryId;
+    }
+
+    public void setDeliveryId(String deliveryId) {
+        this.deliveryId = deliveryId;
+    }
+
+    public Long getEmpId() {
+        return empId;
+    }
+
+    public void setEmpId(Long empId) {
+        this.empId = empId;
+    }
+
+    public DeliveryState getState() {
+        return state;
+    }
+
+    public void setState(DeliveryState state) {
+        this.state = state;
+    }
+
+    public String getNote() {
+        return note;
+    }
+
+    public void setNote(String note) {
+        this.note = note;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(Instant occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
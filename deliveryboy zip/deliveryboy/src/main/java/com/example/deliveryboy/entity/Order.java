@@ -4,6 +4,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Column;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.JoinColumn;
 
@@ -25,6 +26,16 @@ public class Order {
     @JoinColumn(name = "\"user_id\"", referencedColumnName = "\"user_id\"")  
     private User user;
 
+    @Column(name = "\"latitude\"")  // Pickup point for dispatch, optional
+    private Double latitude;
+
+    @Column(name = "\"longitude\"")
+    private Double longitude;
+
+    @Version
+    @Column(name = "\"version\"", columnDefinition = "bigint default 0 not null")  // Optimistic lock, exposed as the ETag
+    private Long version;
+
     // Constructors
     public Order() {}
 
@@ -67,5 +78,28 @@ public class Order {
     public void setUser(User user) {
         this.user = user;
     }
-}
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.deliveryboy.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Read-only R2DBC view of the {@code orders} table for the reactive endpoints.
+ * The user is carried as its id rather than a nested object.
+ */
+@Table("orders")
+public record OrderRow(
+        @Id @Column("order_id") String orderId,
+        @Column("order_details") String orderDetails,
+        @Column("delivery_address") String deliveryAddress,
+        @Column("user_id") String userId,
+        @Column("latitude") Double latitude,
+        @Column("longitude") Double longitude,
+        @Column("version") Long version) {
+}
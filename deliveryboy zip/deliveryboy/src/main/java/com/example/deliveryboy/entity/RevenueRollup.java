@@ -0,0 +1,78 @@
+package com.example.deliveryboy.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Pre-aggregated bill revenue for one day, user or delivery boy, so a dashboard reads a
+ * single row instead of summing bills. The key carries the scope, e.g. {@code day:2026-10-18},
+ * {@code user:U01} or {@code rider:42}. Maintained by {@code RevenueRollupService}.
+ */
+@Entity
+@Table(name = "\"revenue_rollup\"")
+public class RevenueRollup {
+    public static final String DAY = "day";
+    public static final String USER = "user";
+    public static final String RIDER = "rider";
+
+    @Id
+    @Column(name = "\"rollup_key\"", length = 40)  // Scope and key, see the factory methods below
+    private String rollupKey;
+
+    @Column(name = "\"amount\"", nullable = false, precision = 18, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "\"bill_count\"", nullable = false)
+    private long billCount;
+
+    // Constructors
+    public RevenueRollup() {}
+
+    public RevenueRollup(String rollupKey, BigDecimal amount, long billCount) {
+        this.rollupKey = rollupKey;
+        this.amount = amount;
+        this.billCount = billCount;
+    }
+
+    public static String dayKey(LocalDate day) {
+        return DAY + ":" + day;
+    }
+
+    public static String userKey(String userId) {
+        return USER + ":" + userId;
+    }
+
+    public static String riderKey(Long empId) {
+        return RIDER + ":" + empId;
+    }
+
+    // Getters and setters
+    public String getRollupKey() {
+        return rollupKey;
+    }
+
+    public void setRollupKey(String rollupKey) {
+        this.rollupKey = rollupKey;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public long getBillCount() {
+        return billCount;
+    }
+
+    public void setBillCount(long billCount) {
+        this.billCount = billCount;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.deliveryboy.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import com.example.deliveryboy.id.PooledSequence;
+
+/**
+ * Compacted GPS history of a delivery boy, written in batches by the ping ingest
+ * pipeline. Append-only, so there is no version column. The rider is a plain id rather
+ * than a foreign key so deleting a delivery boy never has to touch this table.
+ */
+@Entity
+@Table(name = "\"rider_position\"", indexes = @Index(name = "rider_position_emp_time_idx",
+        columnList = "\"emp_id\", \"recorded_at\""))  // Track lookups by rider and time
+public class RiderPosition {
+
+    @Id
+    @PooledSequence(name = "rider_position_seq")
+    @Column(name = "\"position_id\"")  // Primary key from a pooled sequence so inserts can batch
+    private Long positionId;
+
+    @Column(name = "\"emp_id\"", nullable = false)
+    private Long empId;
+
+    @Column(name = "\"latitude\"", nullable = false)
+    private double latitude;
+
+    @Column(name = "\"longitude\"", nullable = false)
+    private double longitude;
+
+    @Column(name = "\"recorded_at\"", nullable = false)  // Device time of the fix
+    private Instant recordedAt;
+
+    // Constructors
+    public RiderPosition() {}
+
+    public RiderPosition(Long empId, double latitude, double longitude, Instant recordedAt) {
+        this.empId = empId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.recordedAt = recordedAt;
+    }
+
+    // Getters and setters
+    public Long getPositionId() {
+        return positionId;
+    }
+
+    public void setPositionId(Long positionId) {
+        this.positionId = positionId;
+    }
+
+    public Long getEmpId() {
+        return empId;
+    }
+
+    public void setEmpId(Long empId) {
+        this.empId = empId;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Instant getRecordedAt() {
+        return recordedAt;
+    }
+
+    public void setRecordedAt(Instant recordedAt) {
+        this.recordedAt = recordedAt;
+    }
+}
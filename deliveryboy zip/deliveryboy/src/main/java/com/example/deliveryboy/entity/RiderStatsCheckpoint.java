@@ -0,0 +1,148 @@
+package com.example.deliveryboy.entity;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Last checkpoint of one delivery boy's live counters, written periodically by
+ * {@code RiderStatsService} and read back at startup. Never read on a dashboard refresh.
+ */
+@Entity
+@Table(name = "\"rider_stats\"")
+public class RiderStatsCheckpoint {
+
+    @Id
+    @Column(name = "\"emp_id\"")  // Same id as the delivery boy
+    private Long empId;
+
+    @Column(name = "\"active\"", nullable = false)
+    private long active;
+
+    @Column(name = "\"stats_day\"")  // UTC day the daily counters belong to
+    private LocalDate statsDay;
+
+    @Column(name = "\"completed_today\"", nullable = false)
+    private long completedToday;
+
+    @Column(name = "\"failed_today\"", nullable = false)
+    private long failedToday;
+
+    @Column(name = "\"timed_today\"", nullable = false)  // Completions with a known assignment time
+    private long timedToday;
+
+    @Column(name = "\"completion_millis_today\"", nullable = false)
+    private long completionMillisToday;
+
+    @Column(name = "\"completed_total\"", nullable = false)
+    private long completedTotal;
+
+    @Column(name = "\"timed_total\"", nullable = false)
+    private long timedTotal;
+
+    @Column(name = "\"completion_millis_total\"", nullable = false)
+    private long completionMillisTotal;
+
+    @Column(name = "\"checkpointed_at\"", nullable = false)
+    private Instant checkpointedAt;
+
+    // Constructors
+    public RiderStatsCheckpoint() {}
+
+    public RiderStatsCheckpoint(Long empId) {
+        this.empId = empId;
+    }
+
+    // Getters and setters
+    public Long getEmpId() {
+        return empId;
+    }
+
+    public void setEmpId(Long empId) {
+        this.empId = empId;
+    }
+
+    public long getActive() {
+        return active;
+    }
+
+    public void setActive(long active) {
+        this.active = active;
+    }
+
+    public LocalDate getStatsDay() {
+        return statsDay;
+    }
+
+    public void setStatsDay(LocalDate statsDay) {
+        this.statsDay = statsDay;
+    }
+
+    public long getCompletedToday() {
+        return completedToday;
+    }
+
+    public void setCompletedToday(long completedToday) {
+        this.completedToday = completedToday;
+    }
+
+    public long getFailedToday() {
+        return failedToday;
+    }
+
+    public void setFailedToday(long failedToday) {
+        this.failedToday = failedToday;
+    }
+
+    public long getTimedToday() {
+        return timedToday;
+    }
+
+    public void setTimedToday(long timedToday) {
+        this.timedToday = timedToday;
+    }
+
+    public long getCompletionMillisToday() {
+        return completionMillisToday;
+    }
+
+    public void setCompletionMillisToday(long completionMillisToday) {
+        this.completionMillisToday = completionMillisToday;
+    }
+
+    public long getCompletedTotal() {
+        return completedTotal;
+    }
+
+    public void setCompletedTotal(long completedTotal) {
+        this.completedTotal = completedTotal;
+    }
+
+    public long getTimedTotal() {
+        return timedTotal;
+    }
+
+    public void setTimedTotal(long timedTotal) {
+        this.timedTotal = timedTotal;
+    }
+
+    public long getCompletionMillisTotal() {
+        return completionMillisTotal;
+    }
+
+    public void setCompletionMillisTotal(long completionMillisTotal) {
+        this.completionMillisTotal = completionMillisTotal;
+    }
+
+    public Instant getCheckpointedAt() {
+        return checkpointedAt;
+    }
+
+    public void setCheckpointedAt(Instant checkpointedAt) {
+        this.checkpointedAt = checkpointedAt;
+    }
+}
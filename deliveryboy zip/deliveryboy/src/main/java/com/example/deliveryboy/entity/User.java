@@ -1,19 +1,26 @@
 package com.example.deliveryboy.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 @Entity
 @Table(name = "\"users\"")  // Quoted table name if it's lowercase or reserved
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")  // Second-level cache, see application.conf
 public class User {
 
     @Id
-    @Column(name = "\"user_id\"", length = 3)  // Quoted column name if necessary
+    @Column(name = "\"user_id\"", length = 20)  // Generated ids are 13 characters; widened from 3, see UserIdColumns
     @NotBlank(message = "User ID cannot be blank")
     private String userId;
 
@@ -31,6 +38,10 @@ public class User {
     @Pattern(regexp = "^\\d{10}$", message = "Phone number must be 10 digits")
     private String phoneNum;
 
+    @Version
+    @Column(name = "\"version\"", columnDefinition = "bigint default 0 not null")  // Optimistic lock, exposed as the ETag
+    private Long version;
+
     // Constructors
     public User() {}
 
@@ -73,4 +84,12 @@ public class User {
     public void setPhoneNum(String phoneNum) {
         this.phoneNum = phoneNum;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
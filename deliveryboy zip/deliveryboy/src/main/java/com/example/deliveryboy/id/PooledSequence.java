@@ -0,0 +1,23 @@
+package com.example.deliveryboy.id;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Generates ids from a database sequence with the pooled optimizer, so Hibernate
+ * reserves a block of ids per round trip and can batch the INSERTs. The block size
+ * comes from {@link PooledSequenceGenerator#ALLOCATION_SIZE_SETTING}.
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface PooledSequence {
+    // Name of the database sequence
+    String name();
+}
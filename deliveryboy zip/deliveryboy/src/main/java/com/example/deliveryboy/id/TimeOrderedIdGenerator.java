@@ -0,0 +1,123 @@
+package com.example.deliveryboy.id;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Snowflake-style keys for rows created without a client id: 41 bits of milliseconds
+ * since {@link #EPOCH}, 10 bits of node id and 12 bits of sequence. Ids from one node
+ * rise strictly, and ids from all nodes rise with time, with no coordination beyond a
+ * distinct {@code deliveryboy.id.node-id} per instance. New keys therefore land at the
+ * right edge of the primary key B-tree instead of splitting pages all over it.
+ *
+ * <p>Timestamp and sequence share one atomic counter that only moves forwards: a clock
+ * step back reuses the last millisecond, and more than 4096 ids in one millisecond
+ * borrow the next one, so the generator never blocks. The string form is 13 characters
+ * of Crockford base32, fixed width, which sorts the same as the number.
+ */
+@Component
+public class TimeOrderedIdGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(TimeOrderedIdGenerator.class);
+    public static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE = (1 << NODE_BITS) - 1;
+    public static final int LENGTH = 13;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();  // Ascending in ASCII
+
+    private final long epochMillis = EPOCH.toEpochMilli();
+    private final long node;
+    private final LongSupplier clock;
+    // (milliseconds since EPOCH << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong last = new AtomicLong();
+
+    @Autowired
+    public TimeOrderedIdGenerator(@Value("${deliveryboy.id.node-id:-1}") int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    // Clock in epoch milliseconds, so tests can hold it still or step it back
+    TimeOrderedIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0) {
+            nodeId = nodeFromHostName();
+            logger.warn("deliveryboy.id.node-id is not set, using {} from the host name; set it per instance"
+                    + " to rule out two nodes sharing one", nodeId);
+        }
+        if (nodeId > MAX_NODE) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE + ": " + nodeId);
+        }
+        this.node = nodeId;
+        this.clock = clock;
+    }
+
+    public long nextLong() {
+        long now = (clock.getAsLong() - epochMillis) << SEQUENCE_BITS;
+        long stamp = last.updateAndGet(previous -> Math.max(now, previous + 1));
+        return (stamp >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)
+                | node << SEQUENCE_BITS
+                | (stamp & ((1 << SEQUENCE_BITS) - 1));
+    }
+
+    public String next() {
+        return encode(nextLong());
+    }
+
+    public static String encode(long id) {
+        char[] chars = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    public static long decode(String id) {
+        if (id == null || id.length() != LENGTH) {
+            throw new IllegalArgumentException("Not a " + LENGTH + "-character id: " + id);
+        }
+        long value = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            int digit = indexOf(Character.toUpperCase(id.charAt(i)));
+            if (digit < 0) {
+                throw new IllegalArgumentException("Not a base32 id: " + id);
+            }
+            value = value << 5 | digit;
+        }
+        return value;
+    }
+
+    // When an id was generated, to the millisecond
+    public static Instant timestampOf(long id) {
+        return EPOCH.plusMillis(id >>> (NODE_BITS + SEQUENCE_BITS));
+    }
+
+    public static int nodeOf(long id) {
+        return (int) (id >>> SEQUENCE_BITS) & MAX_NODE;
+    }
+
+    private static int indexOf(char c) {
+        for (int i = 0; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int nodeFromHostName() {
+        try {
+            return Math.floorMod(InetAddress.getLocalHost().getHostName().hashCode(), MAX_NODE + 1);
+        } catch (UnknownHostException ex) {
+            return 0;
+        }
+    }
+}
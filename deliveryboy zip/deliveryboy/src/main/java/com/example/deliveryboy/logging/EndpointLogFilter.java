@@ -0,0 +1,40 @@
+package com.example.deliveryboy.logging;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Per-request minimum log level, above or below the loggers' own. Logback consults turbo filters before it checks the
+ * logger level or builds an event, so a denied call (and {@code isInfoEnabled()}) costs a
+ * thread-local read: no event, no formatting, no message string. Threads outside a
+ * request carry no threshold and log as configured.
+ */
+public class EndpointLogFilter extends TurboFilter {
+    private final ThreadLocal<Level> threshold = new ThreadLocal<>();
+
+    // Lines below the level are dropped on this thread until exit()
+    public void enter(Level level) {
+        threshold.set(level);
+    }
+
+    public void exit() {
+        threshold.remove();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        Level min = threshold.get();
+        if (min == null || level == null) {
+            return FilterReply.NEUTRAL;
+        }
+        if (!level.isGreaterOrEqual(min)) {
+            return FilterReply.DENY;
+        }
+        // An endpoint set below its loggers' level, e.g. DEBUG for one path, overrides them
+        return min.isGreaterOrEqual(logger.getEffectiveLevel()) ? FilterReply.NEUTRAL : FilterReply.ACCEPT;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.deliveryboy.logging;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.MDC;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import ch.qos.logback.classic.Level;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Decides once per request which lines it may log: the endpoint's configured level, raised
+ * to WARN when the request falls outside the sample. Also puts the endpoint and method in
+ * the MDC, so every line of the request carries them in the structured log.
+ */
+public class LogSamplingInterceptor implements AsyncHandlerInterceptor {
+    static final String ENDPOINT = "endpoint";
+    static final String METHOD = "method";
+    private static final String UNMATCHED = "unmatched";
+
+    private final EndpointLogFilter filter;
+    private final LogSamplingProperties properties;
+    // Resolved rule per path pattern; patterns come from the handler mappings, so this stays small
+    private final Map<String, Rule> rules = new ConcurrentHashMap<>();
+
+    public LogSamplingInterceptor(EndpointLogFilter filter, LogSamplingProperties properties) {
+        this.filter = filter;
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Rule rule = rules.computeIfAbsent(pattern instanceof String p ? p : UNMATCHED, this::resolve);
+        boolean sampled = rule.sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < rule.sampleRate;
+        Level level = sampled ? rule.level : max(rule.level, Level.WARN);
+        if (level != null) {
+            filter.enter(level);
+        }
+        MDC.put(ENDPOINT, rule.endpoint);
+        MDC.put(METHOD, request.getMethod());
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        clear();  // The servlet thread goes back to the pool while the response streams
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        clear();
+    }
+
+    private void clear() {
+        filter.exit();
+        MDC.remove(ENDPOINT);
+        MDC.remove(METHOD);
+    }
+
+    private Rule resolve(String pattern) {
+        LogSamplingProperties.Endpoint endpoint = properties.getEndpoints().get(pattern);
+        double rate = properties.getSampleRate();
+        Level level = null;
+        if (endpoint != null) {
+            if (endpoint.getSampleRate() != null) {
+                rate = endpoint.getSampleRate();
+            }
+            if (endpoint.getLevel() != null) {
+                level = Level.toLevel(endpoint.getLevel(), null);
+            }
+        }
+        return new Rule(pattern, rate, level);
+    }
+
+    private static Level max(Level a, Level b) {
+        return a == null || b.isGreaterOrEqual(a) ? b : a;
+    }
+
+    private record Rule(String endpoint, double sampleRate, Level level) {
+    }
+}
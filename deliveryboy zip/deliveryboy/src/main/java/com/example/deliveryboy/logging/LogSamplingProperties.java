@@ -0,0 +1,56 @@
+package com.example.deliveryboy.logging;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Request log sampling, {@code deliveryboy.logging.*}. A request that is not sampled keeps
+ * only WARN and ERROR lines. Endpoints are keyed by their mapped path pattern, e.g.
+ * {@code deliveryboy.logging.endpoints.[/orders/{orderId}].sample-rate=0.1}, and apply to
+ * every method on that path.
+ */
+@ConfigurationProperties("deliveryboy.logging")
+public class LogSamplingProperties {
+    // Share of requests whose INFO and DEBUG lines are kept, 0 to 1
+    private double sampleRate = 1.0;
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public Map<String, Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, Endpoint> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    public static class Endpoint {
+        private Double sampleRate;  // Falls back to the global rate
+        private String level;  // Level for the endpoint's requests, e.g. WARN to quiet it or DEBUG to trace it
+
+        public Double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(Double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public String getLevel() {
+            return level;
+        }
+
+        public void setLevel(String level) {
+            this.level = level;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.deliveryboy.metrics;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the request's SQL statement count so far as an {@value #HEADER} response header,
+ * outside the prod profile. Statements run while the body is serialized (lazy loading)
+ * come after the header and only show up in the metric.
+ */
+@ControllerAdvice
+@Profile("!prod")
+public class SqlCountHeaderAdvice implements ResponseBodyAdvice<Object> {
+    public static final String HEADER = "X-SQL-Count";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        int count = SqlStatementCounter.current();
+        if (count >= 0) {
+            response.getHeaders().set(HEADER, Integer.toString(count));
+        }
+        return body;
+    }
+}
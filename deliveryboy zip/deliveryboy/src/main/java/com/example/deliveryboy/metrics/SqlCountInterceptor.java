@@ -0,0 +1,51 @@
+package com.example.deliveryboy.metrics;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the statements each request runs and records them as
+ * {@value #METRIC}, tagged like {@code http.server.requests} with the path pattern
+ * and method, so an endpoint whose query count grows (an N+1) stands out.
+ */
+public class SqlCountInterceptor implements AsyncHandlerInterceptor {
+    static final String METRIC = "deliveryboy.sql.statements";
+
+    private final MeterRegistry registry;
+
+    public SqlCountInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlStatementCounter.begin();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlStatementCounter.end();  // Streams are counted by the async dispatch that completes them
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        int count = SqlStatementCounter.end();
+        if (count < 0) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder(METRIC)
+                .description("SQL statements prepared per request")
+                .baseUnit("statements")
+                .tag("uri", pattern instanceof String p ? p : "UNKNOWN")
+                .tag("method", request.getMethod())
+                .register(registry)
+                .record(count);
+    }
+}
@@ -1,9 +1,116 @@
 package com.example.deliveryboy.repository;
 
 import com.example.deliveryboy.entity.Bill;
+import com.example.deliveryboy.response.BillRevenue;
+import com.example.deliveryboy.response.BillSummary;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface BillRepository extends JpaRepository<Bill, Long> {
+
+    // Keyset page: rows strictly after the given bill id, optionally for one order
+    @EntityGraph(attributePaths = {"order", "order.user"})
+    @Query("select b from Bill b where b.billId > :after"
+            + " and (:orderId is null or b.order.orderId = :orderId)"
+            + " order by b.billId")
+    List<Bill> findPageAfter(@Param("after") Long after, @Param("orderId") String orderId, Limit limit);
+
+    // The same page as flat summaries: ids instead of the nested order and user
+    @Query("select new com.example.deliveryboy.response.BillSummary(b.billId, o.orderId, o.user.userId,"
+            + " b.amount, b.transactionId, b.version)"
+            + " from Bill b left join b.order o where b.billId > :after"
+            + " and (:orderId is null or o.orderId = :orderId)"
+            + " order by b.billId")
+    List<BillSummary> findSummaryPageAfter(@Param("after") Long after, @Param("orderId") String orderId, Limit limit);
+
+    // Which of the given transaction ids are already billed, in one round trip
+    @Query("select b.transactionId from Bill b where b.transactionId in :transactionIds")
+    List<String> findExistingTransactionIds(@Param("transactionIds") Collection<String> transactionIds);
+
+    // The bill holding a transaction id, for answering a repeated create
+    @Query("select new com.example.deliveryboy.response.BillSummary(b.billId, o.orderId, o.user.userId,"
+            + " b.amount, b.transactionId, b.version)"
+            + " from Bill b left join b.order o where b.transactionId = :transactionId")
+    Optional<BillSummary> findSummaryByTransactionId(@Param("transactionId") String transactionId);
+
+    // Version alone, for the ETag after a bulk update
+    @Query("select b.version from Bill b where b.billId = :billId")
+    Optional<Long> findVersionById(@Param("billId") Long billId);
+
+    // Scalar lookup of a bill's transaction id, before an update or delete frees it
+    @Query("select b.transactionId from Bill b where b.billId = :billId")
+    Optional<String> findTransactionIdById(@Param("billId") Long billId);
+
+    // Every billed transaction id, for loading the duplicate filter; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select b.transactionId from Bill b")
+    Stream<String> streamAllTransactionIds();
+
+    // Revenue attribution of bills: the order's user and the delivery boy of the order's delivery
+    String REVENUE = "select new com.example.deliveryboy.response.BillRevenue(b.billId, o.user.userId,"
+            + " (select min(d.deliveryBoy.empId) from Delivery d where d.order = o), b.createdAt, b.amount)"
+            + " from Bill b left join b.order o";
+
+    @Query(REVENUE + " where b.billId in :billIds")
+    List<BillRevenue> findRevenueByIds(@Param("billIds") Collection<Long> billIds);
+
+    @Query(REVENUE + " where o.orderId in :orderIds")
+    List<BillRevenue> findRevenueByOrderIds(@Param("orderIds") Collection<String> orderIds);
+
+    @Query(REVENUE + " where b.billId between :from and :to")
+    List<BillRevenue> findRevenueBetween(@Param("from") Long from, @Param("to") Long to);
+
+    @Query("select min(b.billId) from Bill b")
+    Long findMinId();
+
+    @Query("select max(b.billId) from Bill b")
+    Long findMaxId();
+
+    // Row lock held to the end of the caller's transaction, so the bill cannot change between two reads
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b.billId from Bill b where b.billId = :billId")
+    Optional<Long> lockById(@Param("billId") Long billId);
+
+    // Forward-only read of the whole table for NDJSON export; must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select b from Bill b left join fetch b.order o left join fetch o.user order by b.billId")
+    Stream<Bill> streamAllForExport();
+
+    // Single-statement updates and deletes; a null version skips the optimistic check
+    @Transactional
+    @Modifying
+    @Query("update Bill b set b.order.orderId = :orderId, b.amount = :amount,"
+            + " b.transactionId = :transactionId, b.version = b.version + 1"
+            + " where b.billId = :billId and (:version is null or b.version = :version)")
+    int updateIfVersion(@Param("billId") Long billId, @Param("orderId") String orderId,
+            @Param("amount") BigDecimal amount, @Param("transactionId") String transactionId,
+            @Param("version") Long version);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Bill b where b.billId = :billId and (:version is null or b.version = :version)")
+    int deleteIfVersion(@Param("billId") Long billId, @Param("version") Long version);
 }
@@ -0,0 +1,25 @@
+package com.example.deliveryboy.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.deliveryboy.entity.CollectionVersion;
+
+public interface CollectionVersionRepository extends JpaRepository<CollectionVersion, String> {
+
+    @Query("select c.version from CollectionVersion c where c.collectionName = :name")
+    Optional<Long> findVersionByName(@Param("name") String name);
+
+    // 0 rows if the collection has no row yet. Holds the row lock until the transaction ends, so keep that one short
+    @Modifying
+    @Query("update CollectionVersion c set c.version = c.version + 1 where c.collectionName = :name")
+    int increment(@Param("name") String name);
+
+    @Modifying
+    @Query("insert into CollectionVersion (collectionName, version) values (:name, :version)")
+    int insertFirst(@Param("name") String name, @Param("version") long version);
+}
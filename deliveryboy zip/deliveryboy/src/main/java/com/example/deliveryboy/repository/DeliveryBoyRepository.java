@@ -1,8 +1,17 @@
 package com.example.deliveryboy.repository;
 
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.example.deliveryboy.entity.DeliveryBoy;
 
+// findById goes through the Hibernate second-level cache (region "deliveryBoy"), see DeliveryBoy
 public interface DeliveryBoyRepository extends JpaRepository<DeliveryBoy, Long> {
+
+    // Keyset pages ordered by primary key
+    List<DeliveryBoy> findByEmpIdGreaterThanOrderByEmpIdAsc(Long after, Limit limit);
+
+    List<DeliveryBoy> findByVehicleAndEmpIdGreaterThanOrderByEmpIdAsc(String vehicle, Long after, Limit limit);
 }
@@ -0,0 +1,33 @@
+package com.example.deliveryboy.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.deliveryboy.entity.DeliveryCurrentState;
+import com.example.deliveryboy.entity.DeliveryState;
+
+public interface DeliveryCurrentStateRepository extends JpaRepository<DeliveryCurrentState, String> {
+
+    // Compare-and-set on the state; 0 rows if another transition got there first. Runs in the caller's transaction
+    @Modifying
+    @Query("update DeliveryCurrentState s set s.state = :next, s.lastEventId = :eventId, s.updatedAt = :at"
+            + " where s.deliveryId = :deliveryId and s.state = :current")
+    int advance(@Param("deliveryId") String deliveryId, @Param("current") DeliveryState current,
+            @Param("next") DeliveryState next, @Param("eventId") Long eventId, @Param("at") Instant at);
+
+    // Keeps the projection's owner in step with the delivery row. Runs in the caller's transaction
+    @Modifying
+    @Query("update DeliveryCurrentState s set s.userId = :userId where s.deliveryId = :deliveryId")
+    int updateUserId(@Param("deliveryId") String deliveryId, @Param("userId") String userId);
+
+    // Deliveries per delivery boy in the given states, as (empId, count) pairs; read once at startup
+    @Query("select s.empId, count(s) from DeliveryCurrentState s where s.empId is not null and s.state in :states"
+            + " group by s.empId")
+    List<Object[]> countByEmpId(@Param("states") Collection<DeliveryState> states);
+}
@@ -1,9 +1,91 @@
 package com.example.deliveryboy.repository;
 
 import com.example.deliveryboy.entity.Delivery;
+import com.example.deliveryboy.response.DeliverySummary;
+
+import jakarta.persistence.QueryHint;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface DeliveryRepository extends JpaRepository<Delivery, String> {
+
+    // Keyset page: rows strictly after the given delivery id, with optional filters
+    @EntityGraph(Delivery.LISTING_GRAPH)
+    @Query("select d from Delivery d where d.deliveryId > :after"
+            + " and (:userId is null or d.user.userId = :userId)"
+            + " and (:empId is null or d.deliveryBoy.empId = :empId)"
+            + " and (:status is null or d.deliveryStatus = :status)"
+            + " order by d.deliveryId")
+    List<Delivery> findPageAfter(@Param("after") String after, @Param("userId") String userId,
+            @Param("empId") Long empId, @Param("status") Boolean status, Limit limit);
+
+    // The same page as flat summaries: only the listed columns, no entity graph to hydrate
+    @Query("select new com.example.deliveryboy.response.DeliverySummary(d.deliveryId, o.orderId, u.userId,"
+            + " b.empId, b.ename, o.deliveryAddress, d.deliveryStatus, d.version)"
+            + " from Delivery d left join d.order o left join d.user u left join d.deliveryBoy b"
+            + " where d.deliveryId > :after"
+            + " and (:userId is null or u.userId = :userId)"
+            + " and (:empId is null or b.empId = :empId)"
+            + " and (:status is null or d.deliveryStatus = :status)"
+            + " order by d.deliveryId")
+    List<DeliverySummary> findSummaryPageAfter(@Param("after") String after, @Param("userId") String userId,
+            @Param("empId") Long empId, @Param("status") Boolean status, Limit limit);
+
+    @Query("select new com.example.deliveryboy.response.DeliverySummary(d.deliveryId, o.orderId, u.userId,"
+            + " b.empId, b.ename, o.deliveryAddress, d.deliveryStatus, d.version)"
+            + " from Delivery d left join d.order o left join d.user u left join d.deliveryBoy b"
+            + " where d.deliveryId = :deliveryId")
+    Optional<DeliverySummary> findSummaryById(@Param("deliveryId") String deliveryId);
+
+    // Forward-only read of the whole table for NDJSON export; must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select d from Delivery d left join fetch d.user left join fetch d.order o"
+            + " left join fetch o.user left join fetch d.deliveryBoy order by d.deliveryId")
+    Stream<Delivery> streamAllForExport();
+
+    // Which of the given orders already have a delivery, in one round trip
+    @Query("select d.order.orderId from Delivery d where d.order.orderId in :orderIds")
+    List<String> findAssignedOrderIds(@Param("orderIds") Collection<String> orderIds);
+
+    // Scalar lookup for change events, without loading the entity graph
+    @Query("select d.user.userId from Delivery d where d.deliveryId = :deliveryId")
+    String findUserIdById(@Param("deliveryId") String deliveryId);
+
+    // Single-statement updates and deletes; a null version skips the optimistic check.
+    // Status and delivery boy are left to the lifecycle, see DeliveryLifecycleService.update
+    @Transactional
+    @Modifying
+    @Query("update Delivery d set d.user.userId = :userId, d.order.orderId = :orderId, d.version = d.version + 1"
+            + " where d.deliveryId = :deliveryId and (:version is null or d.version = :version)")
+    int updateIfVersion(@Param("deliveryId") String deliveryId, @Param("userId") String userId,
+            @Param("orderId") String orderId, @Param("version") Long version);
+
+    // Keeps the boolean flag in step once the lifecycle reaches DELIVERED
+    @Transactional
+    @Modifying
+    @Query("update Delivery d set d.deliveryStatus = true, d.version = d.version + 1 where d.deliveryId = :deliveryId")
+    int markDelivered(@Param("deliveryId") String deliveryId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Delivery d where d.deliveryId = :deliveryId and (:version is null or d.version = :version)")
+    int deleteIfVersion(@Param("deliveryId") String deliveryId, @Param("version") Long version);
 }
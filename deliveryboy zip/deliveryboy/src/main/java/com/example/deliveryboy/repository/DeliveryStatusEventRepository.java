@@ -0,0 +1,18 @@
+package com.example.deliveryboy.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.deliveryboy.entity.DeliveryStatusEvent;
+
+public interface DeliveryStatusEventRepository extends JpaRepository<DeliveryStatusEvent, Long> {
+
+    // Timelines, oldest first; the rider query is time-bounded so PostgreSQL can skip older partitions
+    List<DeliveryStatusEvent> findByDeliveryIdOrderByOccurredAtAscEventIdAsc(String deliveryId);
+
+    List<DeliveryStatusEvent> findByEmpIdAndOccurredAtGreaterThanEqualOrderByOccurredAtAscEventIdAsc(Long empId,
+            Instant from, Limit limit);
+}
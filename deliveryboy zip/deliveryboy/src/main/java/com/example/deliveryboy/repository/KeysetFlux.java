@@ -0,0 +1,31 @@
+package com.example.deliveryboy.repository;
+
+import java.util.List;
+import java.util.function.Function;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Streams a whole keyset-ordered result as a {@link Flux} by issuing one bounded page
+ * query at a time. The next page is only queried once the subscriber has demanded the
+ * rows of the current one, so a slow client holds at most a page or two in memory and
+ * no database cursor or connection stays open between pages.
+ */
+public final class KeysetFlux {
+    public static final int PAGE_SIZE = 500;
+
+    private KeysetFlux() {}
+
+    public static <T, K> Flux<T> stream(K start, Function<K, Flux<T>> pageQuery, Function<T, K> keyExtractor) {
+        return page(start, pageQuery)
+                .expand(rows -> rows.size() < PAGE_SIZE
+                        ? Mono.empty()
+                        : page(keyExtractor.apply(rows.get(rows.size() - 1)), pageQuery))
+                .flatMapIterable(rows -> rows, 1);
+    }
+
+    private static <T, K> Mono<List<T>> page(K after, Function<K, Flux<T>> pageQuery) {
+        return pageQuery.apply(after).collectList();
+    }
+}
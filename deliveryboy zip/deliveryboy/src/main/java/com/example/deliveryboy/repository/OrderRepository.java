@@ -1,9 +1,74 @@
 package com.example.deliveryboy.repository;
 
 import com.example.deliveryboy.entity.Order;
+import com.example.deliveryboy.response.OrderSummary;
+
+import jakarta.persistence.QueryHint;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, String> {
+
+    // Keyset page: rows strictly after the given order id, optionally for one user
+    @EntityGraph(attributePaths = "user")
+    @Query("select o from Order o where o.orderId > :after"
+            + " and (:userId is null or o.user.userId = :userId)"
+            + " order by o.orderId")
+    List<Order> findPageAfter(@Param("after") String after, @Param("userId") String userId, Limit limit);
+
+    // The same page as flat summaries, without loading the user
+    @Query("select new com.example.deliveryboy.response.OrderSummary(o.orderId, o.user.userId, o.orderDetails,"
+            + " o.deliveryAddress, o.latitude, o.longitude, o.version)"
+            + " from Order o where o.orderId > :after"
+            + " and (:userId is null or o.user.userId = :userId)"
+            + " order by o.orderId")
+    List<OrderSummary> findSummaryPageAfter(@Param("after") String after, @Param("userId") String userId, Limit limit);
+
+    // Version alone, to answer If-None-Match without loading the order
+    @Query("select o.version from Order o where o.orderId = :orderId")
+    Optional<Long> findVersionById(@Param("orderId") String orderId);
+
+    // Which of the given ids are already taken, in one round trip
+    @Query("select o.orderId from Order o where o.orderId in :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
+
+    // Forward-only read of the whole table for NDJSON export; must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select o from Order o left join fetch o.user order by o.orderId")
+    Stream<Order> streamAllForExport();
+
+    // Single-statement updates and deletes; a null version skips the optimistic check
+    @Transactional
+    @Modifying
+    @Query("update Order o set o.orderDetails = :orderDetails, o.deliveryAddress = :deliveryAddress,"
+            + " o.user.userId = :userId, o.latitude = :latitude, o.longitude = :longitude,"
+            + " o.version = o.version + 1"
+            + " where o.orderId = :orderId and (:version is null or o.version = :version)")
+    int updateIfVersion(@Param("orderId") String orderId, @Param("orderDetails") String orderDetails,
+            @Param("deliveryAddress") String deliveryAddress, @Param("userId") String userId,
+            @Param("latitude") Double latitude, @Param("longitude") Double longitude,
+            @Param("version") Long version);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Order o where o.orderId = :orderId and (:version is null or o.version = :version)")
+    int deleteIfVersion(@Param("orderId") String orderId, @Param("version") Long version);
 }
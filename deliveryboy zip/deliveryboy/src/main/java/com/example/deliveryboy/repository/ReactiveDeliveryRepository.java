@@ -0,0 +1,24 @@
+package com.example.deliveryboy.repository;
+
+import com.example.deliveryboy.entity.DeliveryRow;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveDeliveryRepository extends R2dbcRepository<DeliveryRow, String> {
+
+    // Keyset page: rows strictly after the given delivery id, with optional filters
+    @Query("select delivery_id, user_id, order_id, emp_id, delivery_status, version from delivery"
+            + " where delivery_id > :after"
+            + " and (:userId is null or user_id = :userId)"
+            + " and (:empId is null or emp_id = :empId)"
+            + " and (:status is null or delivery_status = :status)"
+            + " order by delivery_id limit :limit")
+    Flux<DeliveryRow> findPageAfter(@Param("after") String after, @Param("userId") String userId,
+            @Param("empId") Long empId, @Param("status") Boolean status, @Param("limit") int limit);
+}
@@ -0,0 +1,21 @@
+package com.example.deliveryboy.repository;
+
+import com.example.deliveryboy.entity.OrderRow;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveOrderRepository extends R2dbcRepository<OrderRow, String> {
+
+    // Keyset page: rows strictly after the given order id, optionally for one user
+    @Query("select order_id, order_details, delivery_address, user_id, latitude, longitude, version from orders"
+            + " where order_id > :after and (:userId is null or user_id = :userId)"
+            + " order by order_id limit :limit")
+    Flux<OrderRow> findPageAfter(@Param("after") String after, @Param("userId") String userId,
+            @Param("limit") int limit);
+}
@@ -0,0 +1,23 @@
+package com.example.deliveryboy.repository;
+
+import java.math.BigDecimal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.deliveryboy.entity.RevenueRollup;
+
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, String> {
+
+    // Adds a delta in place; 0 rows if the key has no row yet. Runs in the caller's transaction
+    @Modifying
+    @Query("update RevenueRollup r set r.amount = r.amount + :amount, r.billCount = r.billCount + :count"
+            + " where r.rollupKey = :key")
+    int add(@Param("key") String key, @Param("amount") BigDecimal amount, @Param("count") long count);
+
+    @Modifying
+    @Query("insert into RevenueRollup (rollupKey, amount, billCount) values (:key, 0, 0)")
+    int insertEmpty(@Param("key") String key);
+}
@@ -0,0 +1,16 @@
+package com.example.deliveryboy.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.deliveryboy.entity.RiderPosition;
+
+public interface RiderPositionRepository extends JpaRepository<RiderPosition, Long> {
+
+    // A rider's track from a point in time, oldest first
+    List<RiderPosition> findByEmpIdAndRecordedAtGreaterThanEqualOrderByRecordedAtAsc(Long empId, Instant from,
+            Limit limit);
+}
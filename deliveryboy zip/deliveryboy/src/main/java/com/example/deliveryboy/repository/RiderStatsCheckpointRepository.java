@@ -0,0 +1,8 @@
+package com.example.deliveryboy.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.deliveryboy.entity.RiderStatsCheckpoint;
+
+public interface RiderStatsCheckpointRepository extends JpaRepository<RiderStatsCheckpoint, Long> {
+}
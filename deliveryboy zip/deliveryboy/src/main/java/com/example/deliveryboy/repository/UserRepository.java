@@ -1,7 +1,21 @@
 package com.example.deliveryboy.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import com.example.deliveryboy.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+// findById goes through the Hibernate second-level cache (region "user"), see User
 public interface UserRepository extends JpaRepository<User, String> {
+
+    // Keyset page ordered by primary key
+    List<User> findByUserIdGreaterThanOrderByUserIdAsc(String after, Limit limit);
+
+    // Which of the given ids exist, in one round trip
+    @Query("select u.userId from User u where u.userId in :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
 }
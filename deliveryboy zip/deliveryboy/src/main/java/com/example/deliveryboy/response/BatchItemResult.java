@@ -0,0 +1,63 @@
+package com.example.deliveryboy.response;
+
+/**
+ * Outcome of one item in a batch write, reported in the order the items were submitted.
+ */
+public class BatchItemResult {
+    public static final String CREATED = "created";
+    public static final String ERROR = "error";
+
+    private int index;
+    private String id;
+    private String status;
+    private String message;
+
+    public BatchItemResult() {}
+
+    public BatchItemResult(int index, String id, String status, String message) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.message = message;
+    }
+
+    public static BatchItemResult created(int index, String id) {
+        return new BatchItemResult(index, id, CREATED, null);
+    }
+
+    public static BatchItemResult error(int index, String id, String message) {
+        return new BatchItemResult(index, id, ERROR, message);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.deliveryboy.response;
+
+/**
+ * State and decision counters of duplicate-bill detection. The estimated false positive
+ * rate is predicted from how full the filter is; the observed one is the share of new
+ * transaction ids that still cost a database lookup.
+ */
+public class BillDedupStats {
+    private long timestamp;
+    private boolean loaded;
+    private long filterKeys;
+    private int filterLayers;
+    private long filterBytes;
+    private double estimatedFalsePositiveRate;
+    private double observedFalsePositiveRate;
+    private long recentSize;
+    private long recentHits;
+    private long filterNegatives;
+    private long lookupHits;
+    private long falsePositives;
+    private long failedInserts;
+
+    public BillDedupStats() {}
+
+    public BillDedupStats(boolean loaded, long filterKeys, int filterLayers, long filterBytes,
+            double estimatedFalsePositiveRate, double observedFalsePositiveRate, long recentSize, long recentHits,
+            long filterNegatives, long lookupHits, long falsePositives, long failedInserts) {
+        this.timestamp = System.currentTimeMillis();
+        this.loaded = loaded;
+        this.filterKeys = filterKeys;
+        this.filterLayers = filterLayers;
+        this.filterBytes = filterBytes;
+        this.estimatedFalsePositiveRate = estimatedFalsePositiveRate;
+        this.observedFalsePositiveRate = observedFalsePositiveRate;
+        this.recentSize = recentSize;
+        this.recentHits = recentHits;
+        this.filterNegatives = filterNegatives;
+        this.lookupHits = lookupHits;
+        this.falsePositives = falsePositives;
+        this.failedInserts = failedInserts;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public void setLoaded(boolean loaded) {
+        this.loaded = loaded;
+    }
+
+    public long getFilterKeys() {
+        return filterKeys;
+    }
+
+    public void setFilterKeys(long filterKeys) {
+        this.filterKeys = filterKeys;
+    }
+
+    public int getFilterLayers() {
+        return filterLayers;
+    }
+
+    public void setFilterLayers(int filterLayers) {
+        this.filterLayers = filterLayers;
+    }
+
+    public long getFilterBytes() {
+        return filterBytes;
+    }
+
+    public void setFilterBytes(long filterBytes) {
+        this.filterBytes = filterBytes;
+    }
+
+    public double getEstimatedFalsePositiveRate() {
+        return estimatedFalsePositiveRate;
+    }
+
+    public void setEstimatedFalsePositiveRate(double estimatedFalsePositiveRate) {
+        this.estimatedFalsePositiveRate = estimatedFalsePositiveRate;
+    }
+
+    public double getObservedFalsePositiveRate() {
+        return observedFalsePositiveRate;
+    }
+
+    public void setObservedFalsePositiveRate(double observedFalsePositiveRate) {
+        this.observedFalsePositiveRate = observedFalsePositiveRate;
+    }
+
+    public long getRecentSize() {
+        return recentSize;
+    }
+
+    public void setRecentSize(long recentSize) {
+        this.recentSize = recentSize;
+    }
+
+    public long getRecentHits() {
+        return recentHits;
+    }
+
+    public void setRecentHits(long recentHits) {
+        this.recentHits = recentHits;
+    }
+
+    public long getFilterNegatives() {
+        return filterNegatives;
+    }
+
+    public void setFilterNegatives(long filterNegatives) {
+        this.filterNegatives = filterNegatives;
+    }
+
+    public long getLookupHits() {
+        return lookupHits;
+    }
+
+    public void setLookupHits(long lookupHits) {
+        this.lookupHits = lookupHits;
+    }
+
+    public long getFalsePositives() {
+        return falsePositives;
+    }
+
+    public void setFalsePositives(long falsePositives) {
+        this.falsePositives = falsePositives;
+    }
+
+    public long getFailedInserts() {
+        return failedInserts;
+    }
+
+    public void setFailedInserts(long failedInserts) {
+        this.failedInserts = failedInserts;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.deliveryboy.response;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * What one bill adds to the revenue rollups: its amount, the day it was created, the
+ * user of its order and the delivery boy of that order's delivery, selected in one query.
+ */
+public record BillRevenue(
+        Long billId,
+        String userId,
+        Long empId,
+        Instant createdAt,
+        BigDecimal amount) {
+}
@@ -0,0 +1,16 @@
+package com.example.deliveryboy.response;
+
+import java.math.BigDecimal;
+
+/**
+ * Flat listing view of a bill, selected directly by the repository; the order and its
+ * user are carried as ids rather than nested objects.
+ */
+public record BillSummary(
+        Long billId,
+        String orderId,
+        String userId,
+        BigDecimal amount,
+        String transactionId,
+        Long version) {
+}
@@ -0,0 +1,109 @@
+package com.example.deliveryboy.response;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is an opaque token
+ * for the request that fetches the following page, or {@code null} on the last page.
+ */
+public class CursorPage<T> {
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 500;
+
+    private List<T> items;
+    private String nextCursor;
+    private int size;
+
+    public CursorPage() {}
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.size = items.size();
+    }
+
+    /**
+     * Builds a page from a query that asked for {@code limit + 1} rows; the extra row
+     * only tells us whether another page exists and is not returned.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, ?> keyExtractor) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, encode(String.valueOf(keyExtractor.apply(items.get(limit - 1)))));
+    }
+
+    // Clamp the requested page size to [1, MAX_SIZE]
+    public static int clampSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_SIZE;
+        }
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    public static String encode(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns the last key of the previous page, or the empty string for the first page
+    public static String decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return "";
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    public static long decodeLong(String cursor) {
+        String key = decode(cursor);
+        if (key.isEmpty()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(key);
+        } catch (NumberFormatException ex) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public static class InvalidCursorException extends RuntimeException {
+        public InvalidCursorException(String cursor) {
+            super("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.deliveryboy.response;
+
+/**
+ * A change to one delivery as pushed to SSE subscribers. {@code version} is the row
+ * version after the change, so a client that also holds a snapshot keeps the newer one.
+ */
+public class DeliveryEvent {
+    public static final String SNAPSHOT = "snapshot";
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    public static final String STATUS = "status";
+
+    private String type;
+    private String deliveryId;
+    private String userId;
+    private boolean deliveryStatus;
+    private Long version;
+    private String state;  // Lifecycle state, on status events
+    private long timestamp;
+
+    public DeliveryEvent() {}
+
+    public DeliveryEvent(String type, String deliveryId, String userId, boolean deliveryStatus, Long version) {
+        this.type = type;
+        this.deliveryId = deliveryId;
+        this.userId = userId;
+        this.deliveryStatus = deliveryStatus;
+        this.version = version;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    // A lifecycle transition; there is no row version, the projection is not versioned
+    public static DeliveryEvent status(String deliveryId, String userId, String state) {
+        DeliveryEvent event = new DeliveryEvent(STATUS, deliveryId, userId, "DELIVERED".equals(state), null);
+        event.setState(state);
+        return event;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getDeliveryId() {
+        return deliveryId;
+    }
+
+    public void setDeliveryId(String deliveryId) {
+        this.deliveryId = deliveryId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public boolean isDeliveryStatus() {
+        return deliveryStatus;
+    }
+
+    public void setDeliveryStatus(boolean deliveryStatus) {
+        this.deliveryStatus = deliveryStatus;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+}
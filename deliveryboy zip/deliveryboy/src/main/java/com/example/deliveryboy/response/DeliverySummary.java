@@ -0,0 +1,17 @@
+package com.example.deliveryboy.response;
+
+/**
+ * Flat listing view of a delivery, selected column by column by the repository instead of
+ * loading the entity graph: the user, order and delivery boy appear as ids plus the one
+ * field a list shows, not as nested objects repeated in every row.
+ */
+public record DeliverySummary(
+        String deliveryId,
+        String orderId,
+        String userId,
+        Long empId,
+        String riderName,
+        String deliveryAddress,
+        boolean deliveryStatus,
+        Long version) {
+}
@@ -0,0 +1,103 @@
+package com.example.deliveryboy.response;
+
+/**
+ * Summary of one dispatch batching window.
+ */
+public class DispatchBatchResult {
+    private long timestamp;
+    private int orders;
+    private int partitions;
+    private int assigned;
+    private int deferred;
+    private int dropped;
+    private double totalDistanceMeters;
+    private long solveMillis;
+    private long persistMillis;
+
+    public DispatchBatchResult() {}
+
+    public DispatchBatchResult(int orders, int partitions, int assigned, int deferred, int dropped,
+            double totalDistanceMeters, long solveMillis, long persistMillis) {
+        this.timestamp = System.currentTimeMillis();
+        this.orders = orders;
+        this.partitions = partitions;
+        this.assigned = assigned;
+        this.deferred = deferred;
+        this.dropped = dropped;
+        this.totalDistanceMeters = totalDistanceMeters;
+        this.solveMillis = solveMillis;
+        this.persistMillis = persistMillis;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public int getOrders() {
+        return orders;
+    }
+
+    public void setOrders(int orders) {
+        this.orders = orders;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(int partitions) {
+        this.partitions = partitions;
+    }
+
+    public int getAssigned() {
+        return assigned;
+    }
+
+    public void setAssigned(int assigned) {
+        this.assigned = assigned;
+    }
+
+    public int getDeferred() {
+        return deferred;
+    }
+
+    public void setDeferred(int deferred) {
+        this.deferred = deferred;
+    }
+
+    public int getDropped() {
+        return dropped;
+    }
+
+    public void setDropped(int dropped) {
+        this.dropped = dropped;
+    }
+
+    public double getTotalDistanceMeters() {
+        return totalDistanceMeters;
+    }
+
+    public void setTotalDistanceMeters(double totalDistanceMeters) {
+        this.totalDistanceMeters = totalDistanceMeters;
+    }
+
+    public long getSolveMillis() {
+        return solveMillis;
+    }
+
+    public void setSolveMillis(long solveMillis) {
+        this.solveMillis = solveMillis;
+    }
+
+    public long getPersistMillis() {
+        return persistMillis;
+    }
+
+    public void setPersistMillis(long persistMillis) {
+        this.persistMillis = persistMillis;
+    }
+}
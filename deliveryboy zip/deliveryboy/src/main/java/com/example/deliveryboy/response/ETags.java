@@ -0,0 +1,40 @@
+package com.example.deliveryboy.response;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Entity tags derived from the {@code @Version} column. Only strong tags are issued,
+ * so a weak tag in If-Match never matches (RFC 9110, strong comparison).
+ */
+public final class ETags {
+
+    private ETags() {}
+
+    public static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // Expected version from an If-Match header; null when the header is absent or "*"
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new PreconditionFailedException(ifMatch);
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException ex) {
+            throw new PreconditionFailedException(ifMatch);
+        }
+    }
+
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public static class PreconditionFailedException extends RuntimeException {
+        public PreconditionFailedException(String ifMatch) {
+            super("Precondition failed for If-Match: " + ifMatch);
+        }
+    }
+}
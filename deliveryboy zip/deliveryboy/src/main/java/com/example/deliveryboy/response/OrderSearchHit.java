@@ -0,0 +1,5 @@
+package com.example.deliveryboy.response;
+
+// One order matching a search, as indexed; score is the relevance the page is ordered by
+public record OrderSearchHit(String orderId, String userId, String orderDetails, String deliveryAddress, float score) {
+}
@@ -0,0 +1,15 @@
+package com.example.deliveryboy.response;
+
+/**
+ * Flat listing view of an order, selected directly by the repository; the user is
+ * carried as its id rather than a nested object.
+ */
+public record OrderSummary(
+        String orderId,
+        String userId,
+        String orderDetails,
+        String deliveryAddress,
+        Double latitude,
+        Double longitude,
+        Long version) {
+}
@@ -0,0 +1,177 @@
+package com.example.deliveryboy.response;
+
+/**
+ * Counters and lag figures of the GPS ping ingest pipeline. Lag is measured from when a
+ * ping reached this node until its rider's fix was flushed; device lag is how far behind
+ * the phone's own timestamp the node received the fix.
+ */
+public class PingStats {
+    private long timestamp;
+    private int riders;
+    private long received;
+    private long stale;
+    private long rejected;
+    private long coalesced;
+    private int pending;
+    private long oldestPendingMillis;
+    private long rowsWritten;
+    private long rowsFailed;
+    private int lastFlushRiders;
+    private int lastFlushRows;
+    private long lastFlushMillis;
+    private long lastFlushMaxLagMillis;
+    private double lastFlushMeanLagMillis;
+    private double lastFlushMeanDeviceLagMillis;
+
+    public PingStats() {}
+
+    public PingStats(int riders, long received, long stale, long rejected, long coalesced, int pending,
+            long oldestPendingMillis, long rowsWritten, long rowsFailed, int lastFlushRiders, int lastFlushRows,
+            long lastFlushMillis, long lastFlushMaxLagMillis, double lastFlushMeanLagMillis,
+            double lastFlushMeanDeviceLagMillis) {
+        this.timestamp = System.currentTimeMillis();
+        this.riders = riders;
+        this.received = received;
+        this.stale = stale;
+        this.rejected = rejected;
+        this.coalesced = coalesced;
+        this.pending = pending;
+        this.oldestPendingMillis = oldestPendingMillis;
+        this.rowsWritten = rowsWritten;
+        this.rowsFailed = rowsFailed;
+        this.lastFlushRiders = lastFlushRiders;
+        this.lastFlushRows = lastFlushRows;
+        this.lastFlushMillis = lastFlushMillis;
+        this.lastFlushMaxLagMillis = lastFlushMaxLagMillis;
+        this.lastFlushMeanLagMillis = lastFlushMeanLagMillis;
+        this.lastFlushMeanDeviceLagMillis = lastFlushMeanDeviceLagMillis;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public int getRiders() {
+        return riders;
+    }
+
+    public void setRiders(int riders) {
+        this.riders = riders;
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    public long getStale() {
+        return stale;
+    }
+
+    public void setStale(long stale) {
+        this.stale = stale;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    public void setCoalesced(long coalesced) {
+        this.coalesced = coalesced;
+    }
+
+    public int getPending() {
+        return pending;
+    }
+
+    public void setPending(int pending) {
+        this.pending = pending;
+    }
+
+    public long getOldestPendingMillis() {
+        return oldestPendingMillis;
+    }
+
+    public void setOldestPendingMillis(long oldestPendingMillis) {
+        this.oldestPendingMillis = oldestPendingMillis;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public void setRowsWritten(long rowsWritten) {
+        this.rowsWritten = rowsWritten;
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed;
+    }
+
+    public void setRowsFailed(long rowsFailed) {
+        this.rowsFailed = rowsFailed;
+    }
+
+    public int getLastFlushRiders() {
+        return lastFlushRiders;
+    }
+
+    public void setLastFlushRiders(int lastFlushRiders) {
+        this.lastFlushRiders = lastFlushRiders;
+    }
+
+    public int getLastFlushRows() {
+        return lastFlushRows;
+    }
+
+    public void setLastFlushRows(int lastFlushRows) {
+        this.lastFlushRows = lastFlushRows;
+    }
+
+    public long getLastFlushMillis() {
+        return lastFlushMillis;
+    }
+
+    public void setLastFlushMillis(long lastFlushMillis) {
+        this.lastFlushMillis = lastFlushMillis;
+    }
+
+    public long getLastFlushMaxLagMillis() {
+        return lastFlushMaxLagMillis;
+    }
+
+    public void setLastFlushMaxLagMillis(long lastFlushMaxLagMillis) {
+        this.lastFlushMaxLagMillis = lastFlushMaxLagMillis;
+    }
+
+    public double getLastFlushMeanLagMillis() {
+        return lastFlushMeanLagMillis;
+    }
+
+    public void setLastFlushMeanLagMillis(double lastFlushMeanLagMillis) {
+        this.lastFlushMeanLagMillis = lastFlushMeanLagMillis;
+    }
+
+    public double getLastFlushMeanDeviceLagMillis() {
+        return lastFlushMeanDeviceLagMillis;
+    }
+
+    public void setLastFlushMeanDeviceLagMillis(double lastFlushMeanDeviceLagMillis) {
+        this.lastFlushMeanDeviceLagMillis = lastFlushMeanDeviceLagMillis;
+    }
+}
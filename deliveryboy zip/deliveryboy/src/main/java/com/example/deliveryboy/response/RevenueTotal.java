@@ -0,0 +1,7 @@
+package com.example.deliveryboy.response;
+
+import java.math.BigDecimal;
+
+// Revenue and bill count for one day, user or delivery boy; zero when nothing was billed
+public record RevenueTotal(String scope, String key, BigDecimal amount, long billCount) {
+}
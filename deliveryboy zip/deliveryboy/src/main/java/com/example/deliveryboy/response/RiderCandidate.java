@@ -0,0 +1,62 @@
+package com.example.deliveryboy.response;
+
+/**
+ * A delivery boy eligible for an order, with the straight-line distance to the pickup point.
+ */
+public class RiderCandidate {
+    private long empId;
+    private String vehicle;
+    private double latitude;
+    private double longitude;
+    private double distanceMeters;
+
+    public RiderCandidate() {}
+
+    public RiderCandidate(long empId, String vehicle, double latitude, double longitude, double distanceMeters) {
+        this.empId = empId;
+        this.vehicle = vehicle;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.distanceMeters = distanceMeters;
+    }
+
+    public long getEmpId() {
+        return empId;
+    }
+
+    public void setEmpId(long empId) {
+        this.empId = empId;
+    }
+
+    public String getVehicle() {
+        return vehicle;
+    }
+
+    public void setVehicle(String vehicle) {
+        this.vehicle = vehicle;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+
+    public double getDistanceMeters() {
+        return distanceMeters;
+    }
+
+    public void setDistanceMeters(double distanceMeters) {
+        this.distanceMeters = distanceMeters;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.deliveryboy.response;
+
+/**
+ * Live figures of one delivery boy, served from memory. Daily counters cover the UTC
+ * day given; averages run from assignment to delivery and are 0 with no completions.
+ */
+public class RiderStats {
+    private long empId;
+    private String day;
+    private long activeDeliveries;
+    private long completedToday;
+    private long failedToday;
+    private long averageCompletionMillisToday;
+    private long completedTotal;
+    private long averageCompletionMillis;
+
+    public RiderStats() {}
+
+    public RiderStats(long empId, String day, long activeDeliveries, long completedToday, long failedToday,
+            long averageCompletionMillisToday, long completedTotal, long averageCompletionMillis) {
+        this.empId = empId;
+        this.day = day;
+        this.activeDeliveries = activeDeliveries;
+        this.completedToday = completedToday;
+        this.failedToday = failedToday;
+        this.averageCompletionMillisToday = averageCompletionMillisToday;
+        this.completedTotal = completedTotal;
+        this.averageCompletionMillis = averageCompletionMillis;
+    }
+
+    public long getEmpId() {
+        return empId;
+    }
+
+    public void setEmpId(long empId) {
+        this.empId = empId;
+    }
+
+    public String getDay() {
+        return day;
+    }
+
+    public void setDay(String day) {
+        this.day = day;
+    }
+
+    public long getActiveDeliveries() {
+        return activeDeliveries;
+    }
+
+    public void setActiveDeliveries(long activeDeliveries) {
+        this.activeDeliveries = activeDeliveries;
+    }
+
+    public long getCompletedToday() {
+        return completedToday;
+    }
+
+    public void setCompletedToday(long completedToday) {
+        this.completedToday = completedToday;
+    }
+
+    public long getFailedToday() {
+        return failedToday;
+    }
+
+    public void setFailedToday(long failedToday) {
+        this.failedToday = failedToday;
+    }
+
+    public long getAverageCompletionMillisToday() {
+        return averageCompletionMillisToday;
+    }
+
+    public void setAverageCompletionMillisToday(long averageCompletionMillisToday) {
+        this.averageCompletionMillisToday = averageCompletionMillisToday;
+    }
+
+    public long getCompletedTotal() {
+        return completedTotal;
+    }
+
+    public void setCompletedTotal(long completedTotal) {
+        this.completedTotal = completedTotal;
+    }
+
+    public long getAverageCompletionMillis() {
+        return averageCompletionMillis;
+    }
+
+    public void setAverageCompletionMillis(long averageCompletionMillis) {
+        this.averageCompletionMillis = averageCompletionMillis;
+    }
+}
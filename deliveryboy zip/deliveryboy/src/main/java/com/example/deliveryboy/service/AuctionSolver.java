@@ -0,0 +1,62 @@
+package com.example.deliveryboy.service;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.deliveryboy.response.RiderCandidate;
+
+/**
+ * Assigns orders to riders so the total pickup distance is minimal, each rider taking at
+ * most one order, using Bertsekas' auction algorithm over each order's sparse candidate
+ * list. Orders bid for their best rider by how much better it is than their second best;
+ * outbid orders bid again. The result is within {@link #EPSILON_METERS} per order of the
+ * optimum, and an order stays unassigned when no candidate beats {@link #UNASSIGNED_COST}.
+ */
+public final class AuctionSolver {
+    static final double EPSILON_METERS = 5;
+    // Worse than any real candidate, which are all within the dispatch radius
+    static final double UNASSIGNED_COST = 2 * DispatchIndex.MAX_RADIUS_METERS;
+
+    private AuctionSolver() {}
+
+    // Rider chosen for each order, by position; null where the order got nobody
+    public static RiderCandidate[] solve(List<List<RiderCandidate>> candidates) {
+        Map<Long, Double> prices = new HashMap<>();
+        Map<Long, Integer> owners = new HashMap<>();
+        RiderCandidate[] won = new RiderCandidate[candidates.size()];
+        ArrayDeque<Integer> bidders = new ArrayDeque<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            bidders.add(i);
+        }
+
+        while (!bidders.isEmpty()) {
+            int order = bidders.poll();
+            RiderCandidate best = null;
+            double bestValue = -UNASSIGNED_COST;
+            double secondValue = -UNASSIGNED_COST;
+            for (RiderCandidate candidate : candidates.get(order)) {
+                double value = -candidate.getDistanceMeters() - prices.getOrDefault(candidate.getEmpId(), 0.0);
+                if (value > bestValue) {
+                    secondValue = bestValue;
+                    bestValue = value;
+                    best = candidate;
+                } else if (value > secondValue) {
+                    secondValue = value;
+                }
+            }
+            if (best == null) {
+                continue;  // Every candidate now costs more than staying unassigned
+            }
+            prices.merge(best.getEmpId(), bestValue - secondValue + EPSILON_METERS, Double::sum);
+            Integer outbid = owners.put(best.getEmpId(), order);
+            if (outbid != null) {
+                won[outbid] = null;
+                bidders.add(outbid);
+            }
+            won[order] = best;
+        }
+        return won;
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.deliveryboy.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.deliveryboy.entity.Bill;
+import com.example.deliveryboy.repository.BillRepository;
+import com.example.deliveryboy.repository.OrderRepository;
+import com.example.deliveryboy.response.BillDedupStats;
+import com.example.deliveryboy.response.BillSummary;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Idempotent bill creation keyed by transaction id, so gateway retries do not reach the
+ * unique constraint. A retry of a recent bill is answered from a small cache of the
+ * bills created here. Otherwise a {@link BloomFilter} over every billed transaction id
+ * (loaded at startup, then fed by each insert) decides: "absent" is certain and the bill
+ * is inserted without a lookup; "maybe" costs one indexed lookup, which either finds the
+ * original bill or counts as a false positive. Only two requests racing with the same
+ * new id still end in a failed insert, and the loser is answered like any other retry.
+ */
+@Service
+public class BillIdempotencyService {
+    private static final Logger logger = LoggerFactory.getLogger(BillIdempotencyService.class);
+
+    public enum Outcome { CREATED, REPLAYED, CONFLICT }
+
+    public record Result(Outcome outcome, Long billId) {
+    }
+
+    // The bill names an order that does not exist
+    public static class UnknownOrderException extends RuntimeException {
+        public UnknownOrderException(String orderId) {
+            super("Order not found for ID: " + orderId);
+        }
+    }
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private RevenueRollupService rollupService;
+
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final BloomFilter filter;
+    private final Cache<String, BillSummary> recent;
+    private volatile boolean loaded;  // Until the startup load finishes every id is a "maybe"
+
+    private final LongAdder recentHits = new LongAdder();
+    private final LongAdder filterNegatives = new LongAdder();
+    private final LongAdder lookupHits = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder failedInserts = new LongAdder();
+
+    @Autowired
+    public BillIdempotencyService(PlatformTransactionManager transactionManager, MeterRegistry registry,
+            @Value("${deliveryboy.bills.dedup.expected-ids:1000000}") long expectedIds,
+            @Value("${deliveryboy.bills.dedup.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${deliveryboy.bills.dedup.recent-size:10000}") long recentSize,
+            @Value("${deliveryboy.bills.dedup.recent-ttl:10m}") Duration recentTtl) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.filter = new BloomFilter(expectedIds, falsePositiveRate);
+        this.recent = Caffeine.newBuilder().maximumSize(recentSize).expireAfterWrite(recentTtl).build();
+
+        String name = "deliveryboy.bills.dedup";
+        FunctionCounter.builder(name, recentHits, LongAdder::sum).tag("decision", "recent").register(registry);
+        FunctionCounter.builder(name, filterNegatives, LongAdder::sum).tag("decision", "filter_negative").register(registry);
+        FunctionCounter.builder(name, lookupHits, LongAdder::sum).tag("decision", "lookup_hit").register(registry);
+        FunctionCounter.builder(name, falsePositives, LongAdder::sum).tag("decision", "false_positive").register(registry);
+        FunctionCounter.builder(name, failedInserts, LongAdder::sum).tag("decision", "failed_insert").register(registry);
+        Gauge.builder(name + ".false.positive.rate", this, BillIdempotencyService::observedFalsePositiveRate)
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        readOnlyTemplate.executeWithoutResult(status -> {
+            try (Stream<String> ids = billRepository.streamAllTransactionIds()) {
+                ids.forEach(filter::add);
+            }
+        });
+        loaded = true;
+        logger.info("Loaded {} transaction ids into the bill filter in {} ms ({} KB)", filter.keyCount(),
+                System.currentTimeMillis() - start, filter.sizeBytes() / 1024);
+    }
+
+    /**
+     * Creates the bill unless its transaction id is already billed. A repeat with the same
+     * order and amount is REPLAYED with the original bill id; the same id for a different
+     * order or amount is a CONFLICT.
+     */
+    public Result create(Bill bill) {
+        String transactionId = bill.getTransactionId();
+        if (transactionId == null) {
+            return insert(bill);  // Rejected by the not-null constraint as before
+        }
+        BillSummary original = recent.getIfPresent(transactionId);
+        if (original != null) {
+            recentHits.increment();
+            return repeatOf(original, bill);
+        }
+        if (loaded && !filter.mightContain(transactionId)) {
+            filterNegatives.increment();
+        } else {
+            Optional<BillSummary> existing = billRepository.findSummaryByTransactionId(transactionId);
+            if (existing.isPresent()) {
+                lookupHits.increment();
+                recent.put(transactionId, existing.get());
+                return repeatOf(existing.get(), bill);
+            }
+            if (loaded) {
+                falsePositives.increment();
+            }
+        }
+        try {
+            return insert(bill);
+        } catch (DataIntegrityViolationException ex) {
+            // Lost a race with the same new id; an unknown order is reported as such, any other constraint rethrown
+            Optional<BillSummary> winner = billRepository.findSummaryByTransactionId(transactionId);
+            if (winner.isEmpty()) {
+                String orderId = bill.getOrder() == null ? null : bill.getOrder().getOrderId();
+                if (orderId != null && !orderRepository.existsById(orderId)) {
+                    throw new UnknownOrderException(orderId);
+                }
+                throw ex;
+            }
+            failedInserts.increment();
+            recent.put(transactionId, winner.get());
+            return repeatOf(winner.get(), bill);
+        }
+    }
+
+    private Result insert(Bill bill) {
+        if (bill.getOrder() != null) {
+            bill.setOrder(orderRepository.getReferenceById(bill.getOrder().getOrderId()));
+        }
+        bill.setVersion(null);
+        transactionTemplate.executeWithoutResult(status -> {
+            billRepository.save(bill);
+            rollupService.afterInsert(List.of(bill.getBillId()));
+        });
+        added(bill.getTransactionId());
+        recent.put(bill.getTransactionId(), new BillSummary(bill.getBillId(),
+                bill.getOrder() == null ? null : bill.getOrder().getOrderId(), null, bill.getAmount(),
+                bill.getTransactionId(), bill.getVersion()));
+        return new Result(Outcome.CREATED, bill.getBillId());
+    }
+
+    // Every path that writes a transaction id reports it here, or the filter would answer "absent" for it
+    public void added(String transactionId) {
+        filter.add(transactionId);
+    }
+
+    // Updates and deletes report the old transaction id here, or a retry is answered from the stale entry
+    public void invalidate(String transactionId) {
+        if (transactionId != null) {
+            recent.invalidate(transactionId);
+        }
+    }
+
+    // Share of new transaction ids that still cost a lookup: false positives / (false positives + negatives)
+    public double observedFalsePositiveRate() {
+        long negatives = filterNegatives.sum();
+        long positives = falsePositives.sum();
+        return negatives + positives == 0 ? 0 : (double) positives / (negatives + positives);
+    }
+
+    public BillDedupStats getStats() {
+        return new BillDedupStats(loaded, filter.keyCount(), filter.layerCount(), filter.sizeBytes(),
+                filter.estimatedFalsePositiveRate(), observedFalsePositiveRate(), recent.estimatedSize(),
+                recentHits.sum(), filterNegatives.sum(), lookupHits.sum(), falsePositives.sum(), failedInserts.sum());
+    }
+
+    private static Result repeatOf(BillSummary original, Bill bill) {
+        String orderId = bill.getOrder() == null ? null : bill.getOrder().getOrderId();
+        boolean same = Objects.equals(original.orderId(), orderId)
+                && original.amount() != null && bill.getAmount() != null
+                && original.amount().compareTo(bill.getAmount()) == 0;
+        return new Result(same ? Outcome.REPLAYED : Outcome.CONFLICT, original.billId());
+    }
+}
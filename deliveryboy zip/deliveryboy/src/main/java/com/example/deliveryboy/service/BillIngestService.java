@@ -0,0 +1,161 @@
+package com.example.deliveryboy.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.deliveryboy.entity.Bill;
+import com.example.deliveryboy.entity.Order;
+import com.example.deliveryboy.repository.BillRepository;
+import com.example.deliveryboy.repository.OrderRepository;
+import com.example.deliveryboy.response.BatchItemResult;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Bulk bill creation. Bill ids come from a pooled sequence, so the chunk's INSERTs
+ * are batched by Hibernate with one sequence call per allocation block. Taken
+ * transaction ids and unknown orders are detected with one IN query per chunk.
+ */
+@Service
+public class BillIngestService {
+    private static final Logger logger = LoggerFactory.getLogger(BillIngestService.class);
+
+    // Keep in line with spring.jpa.properties.hibernate.jdbc.batch_size
+    public static final int CHUNK_SIZE = 500;
+    public static final int MAX_ITEMS = 10_000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private BillIdempotencyService idempotencyService;
+
+    @Autowired
+    private RevenueRollupService rollupService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public BillIngestService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public List<BatchItemResult> ingest(List<Bill> bills) {
+        BatchItemResult[] results = new BatchItemResult[bills.size()];
+        List<Integer> pending = new ArrayList<>(bills.size());
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < bills.size(); i++) {
+            Bill bill = bills.get(i);
+            String error = validate(bill);
+            if (error == null && !seen.add(bill.getTransactionId())) {
+                error = "Duplicate transaction ID in batch";
+            }
+            if (error != null) {
+                results[i] = BatchItemResult.error(i, null, error);
+            } else {
+                pending.add(i);
+            }
+        }
+
+        for (int from = 0; from < pending.size(); from += CHUNK_SIZE) {
+            List<Integer> chunk = pending.subList(from, Math.min(from + CHUNK_SIZE, pending.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeChunk(bills, chunk, results));
+                for (int i : chunk) {
+                    if (BatchItemResult.CREATED.equals(results[i].getStatus())) {
+                        idempotencyService.added(bills.get(i).getTransactionId());
+                    }
+                }
+            } catch (RuntimeException ex) {
+                logger.warn("Bill batch chunk of {} rows failed: {}", chunk.size(), ex.getMessage());
+                entityManager.clear();
+                // Rows the chunk already rejected keep their own error; only those it would have written failed
+                for (int i : chunk) {
+                    if (results[i] == null || BatchItemResult.CREATED.equals(results[i].getStatus())) {
+                        results[i] = BatchItemResult.error(i, null, "Batch write failed");
+                    }
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private void writeChunk(List<Bill> bills, List<Integer> chunk, BatchItemResult[] results) {
+        Set<String> transactionIds = new HashSet<>();
+        Set<String> orderIds = new HashSet<>();
+        for (int i : chunk) {
+            Bill bill = bills.get(i);
+            transactionIds.add(bill.getTransactionId());
+            if (bill.getOrder() != null) {
+                orderIds.add(bill.getOrder().getOrderId());
+            }
+        }
+        Set<String> taken = new HashSet<>(billRepository.findExistingTransactionIds(transactionIds));
+        Set<String> knownOrders = orderIds.isEmpty() ? Set.of() : new HashSet<>(orderRepository.findExistingIds(orderIds));
+
+        List<Integer> written = new ArrayList<>(chunk.size());
+        for (int i : chunk) {
+            Bill bill = bills.get(i);
+            if (taken.contains(bill.getTransactionId())) {
+                results[i] = BatchItemResult.error(i, null, "Transaction ID already billed");
+                continue;
+            }
+            if (bill.getOrder() != null) {
+                String orderId = bill.getOrder().getOrderId();
+                if (!knownOrders.contains(orderId)) {
+                    results[i] = BatchItemResult.error(i, null, "Order not found for ID: " + orderId);
+                    continue;
+                }
+                // Proxy reference: no SELECT for the order row
+                bill.setOrder(entityManager.getReference(Order.class, orderId));
+            }
+            bill.setBillId(null);
+            bill.setVersion(null);
+            entityManager.persist(bill);
+            written.add(i);
+        }
+        entityManager.flush();
+        List<Long> billIds = new ArrayList<>(written.size());
+        for (int i : written) {
+            results[i] = BatchItemResult.created(i, String.valueOf(bills.get(i).getBillId()));
+            billIds.add(bills.get(i).getBillId());
+        }
+        rollupService.afterInsert(billIds);
+        entityManager.clear();
+    }
+
+    private static String validate(Bill bill) {
+        if (bill == null) {
+            return "Bill cannot be null";
+        }
+        if (bill.getAmount() == null || bill.getAmount().signum() < 0
+                || bill.getAmount().scale() > 2 || bill.getAmount().precision() - bill.getAmount().scale() > 8) {
+            return "Amount must be a non-negative value with at most 8 integer and 2 fraction digits";
+        }
+        if (bill.getTransactionId() == null || bill.getTransactionId().isBlank()
+                || bill.getTransactionId().length() > 50) {
+            return "Transaction ID must be 1 to 50 characters";
+        }
+        if (bill.getOrder() != null && (bill.getOrder().getOrderId() == null || bill.getOrder().getOrderId().isBlank())) {
+            return "Order ID cannot be blank";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.deliveryboy.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Add-only set membership for strings with no false negatives and a bounded false
+ * positive rate. It grows instead of degrading: once a layer has taken its capacity, a
+ * new layer with twice the capacity and half the target rate is added in front, so the
+ * combined rate stays under twice the first layer's however many keys arrive. Adds and
+ * lookups are lock-free; only adding a layer synchronizes.
+ */
+public class BloomFilter {
+    private final double falsePositiveRate;
+    private volatile Layer[] layers;  // Newest first; lookups check every layer
+
+    public BloomFilter(long expectedKeys, double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+        this.layers = new Layer[] { new Layer(Math.max(expectedKeys, 1_000), falsePositiveRate) };
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        for (Layer layer : layers) {
+            if (layer.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void add(String key) {
+        long hash = hash(key);
+        Layer layer = layers[0];
+        layer.add(hash);
+        if (layer.keys.incrementAndGet() == layer.capacity) {
+            grow(layer);
+        }
+    }
+
+    public long keyCount() {
+        long keys = 0;
+        for (Layer layer : layers) {
+            keys += layer.keys.get();
+        }
+        return keys;
+    }
+
+    public int layerCount() {
+        return layers.length;
+    }
+
+    public long sizeBytes() {
+        long bits = 0;
+        for (Layer layer : layers) {
+            bits += layer.bitCount;
+        }
+        return bits / 8;
+    }
+
+    // Rate predicted from how full each layer is: 1 - product of (1 - fill^k)
+    public double estimatedFalsePositiveRate() {
+        double missAll = 1;
+        for (Layer layer : layers) {
+            missAll *= 1 - Math.pow(layer.fill(), layer.hashes);
+        }
+        return 1 - missAll;
+    }
+
+    private synchronized void grow(Layer full) {
+        Layer[] current = layers;
+        if (current[0] != full) {
+            return;
+        }
+        Layer[] grown = new Layer[current.length + 1];
+        grown[0] = new Layer(full.capacity * 2, falsePositiveRate / Math.pow(2, current.length));
+        System.arraycopy(current, 0, grown, 1, current.length);
+        layers = grown;
+    }
+
+    // 64-bit FNV-1a over the chars, finished with the MurmurHash3 mixer so every bit depends on every char
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    private static final class Layer {
+        final long capacity;
+        final int hashes;
+        final long bitCount;
+        final AtomicLongArray words;
+        final AtomicLong keys = new AtomicLong();
+
+        // Optimal sizing: m = -n ln p / (ln 2)^2 bits, k = m/n ln 2 hashes
+        Layer(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) ((bits + 63) / 64));
+            this.bitCount = words.length() * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+        }
+
+        // Double hashing (Kirsch and Mitzenmacher): probe i is h1 + i * h2, from the two halves of the hash
+        boolean mightContain(long hash) {
+            long h1 = hash;
+            long h2 = Long.rotateLeft(hash, 32) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void add(long hash) {
+            long h1 = hash;
+            long h2 = Long.rotateLeft(hash, 32) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current = words.get(word);
+                while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                    current = words.get(word);
+                }
+            }
+        }
+
+        // Share of bits set; scans the layer, so only for stats
+        double fill() {
+            long set = 0;
+            for (int i = 0; i < words.length(); i++) {
+                set += Long.bitCount(words.get(i));
+            }
+            return (double) set / bitCount;
+        }
+    }
+}
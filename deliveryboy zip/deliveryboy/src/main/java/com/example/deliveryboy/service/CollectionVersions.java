@@ -0,0 +1,91 @@
+package com.example.deliveryboy.service;
+
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.WebRequest;
+
+import com.example.deliveryboy.entity.CollectionVersion;
+import com.example.deliveryboy.repository.CollectionVersionRepository;
+
+/**
+ * Validators for list responses. Every write to a collection runs through
+ * {@link #write}, which moves the collection's {@link CollectionVersion} row once the write
+ * has committed, in a transaction of its own, on every instance. A listing turns the version
+ * into a weak ETag, and a client repeating a listing it already holds gets a 304 after a
+ * one-row read instead of the page query.
+ *
+ * <p>Writers of one collection hold the version row's lock only for that one-statement
+ * transaction, not for their own. The price is a short window after each commit in which a
+ * listing can still be answered 304 against the old version; the next listing after the
+ * bump sees the change. A collection's row starts at the current time in milliseconds, so
+ * a table created afresh does not hand back tags clients still hold.
+ */
+@Service
+public class CollectionVersions {
+    private static final Logger logger = LoggerFactory.getLogger(CollectionVersions.class);
+
+    public static final String USERS = "users";
+    public static final String DELIVERY_BOYS = "deliveryBoys";
+
+    @Autowired
+    private CollectionVersionRepository versionRepository;
+
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate bumpTemplate;
+
+    @Autowired
+    public CollectionVersions(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // The write's own transaction is still bound while its afterCommit callbacks run
+        this.bumpTemplate = new TransactionTemplate(transactionManager);
+        this.bumpTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Runs a write to the collection in one transaction and moves its version after it commits
+    public <T> T write(String collection, Supplier<T> work) {
+        return transactionTemplate.execute(status -> {
+            T result = work.get();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(collection);
+                }
+            });
+            return result;
+        });
+    }
+
+    // Short transactions, one after another, after the write's connection has gone back to the pool
+    private void bump(String collection) {
+        try {
+            if (bumpTemplate.execute(s -> versionRepository.increment(collection)) == 0) {
+                try {
+                    bumpTemplate.executeWithoutResult(
+                            s -> versionRepository.insertFirst(collection, System.currentTimeMillis()));
+                } catch (DataIntegrityViolationException ex) {
+                    // Another writer created the row first
+                }
+                bumpTemplate.execute(s -> versionRepository.increment(collection));
+            }
+        } catch (RuntimeException ex) {
+            // The write is already durable; listings stay on the old version until the next write
+            logger.error("Could not move the version of collection {}", collection, ex);
+        }
+    }
+
+    // True, with 304 set on the response, when the client's copy of the collection is current
+    public boolean checkNotModified(WebRequest request, String collection) {
+        long version = versionRepository.findVersionByName(collection).orElse(0L);
+        return request.checkNotModified("W/\"" + Long.toString(version, 36) + "\"");
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.deliveryboy.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.example.deliveryboy.response.DeliveryEvent;
+
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * In-memory fan-out of delivery changes to SSE subscribers, keyed by delivery id and by
+ * user id. A topic exists only while someone is subscribed to it, so publishing for a
+ * delivery nobody watches is a single map lookup. Each subscriber gets a bounded buffer;
+ * one that falls {@link #BUFFER_SIZE} events behind is disconnected rather than slowing
+ * the publisher or growing without limit, and is expected to reconnect and re-read.
+ */
+@Service
+public class DeliveryEventHub {
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryEventHub.class);
+    public static final int BUFFER_SIZE = 32;
+
+    private final Map<String, Topic> deliveryTopics = new ConcurrentHashMap<>();
+    private final Map<String, Topic> userTopics = new ConcurrentHashMap<>();
+
+    public void publish(DeliveryEvent event) {
+        emit(deliveryTopics, event.getDeliveryId(), event);
+        if (event.getUserId() != null) {
+            emit(userTopics, event.getUserId(), event);
+        }
+    }
+
+    // A change that moved the delivery to another user reaches the previous user's stream as well
+    public void publish(DeliveryEvent event, String previousUserId) {
+        publish(event);
+        if (previousUserId != null && !previousUserId.equals(event.getUserId())) {
+            emit(userTopics, previousUserId, event);
+        }
+    }
+
+    public Flux<DeliveryEvent> forDelivery(String deliveryId) {
+        return subscribe(deliveryTopics, deliveryId);
+    }
+
+    public Flux<DeliveryEvent> forUser(String userId) {
+        return subscribe(userTopics, userId);
+    }
+
+    public int subscriberCount() {
+        return count(deliveryTopics) + count(userTopics);
+    }
+
+    private static void emit(Map<String, Topic> topics, String key, DeliveryEvent event) {
+        Topic topic = topics.get(key);
+        if (topic == null) {
+            return;
+        }
+        // The sink takes one emitter at a time; publishers queue on the topic's lock instead of
+        // spinning, and hold it only while the event is handed to the subscribers' buffers
+        Sinks.EmitResult result;
+        topic.lock.lock();
+        try {
+            result = topic.sink.tryEmitNext(event);
+        } finally {
+            topic.lock.unlock();
+        }
+        if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            logger.warn("Dropped {} event for {}: {}", event.getType(), key, result);
+        }
+    }
+
+    private static Flux<DeliveryEvent> subscribe(Map<String, Topic> topics, String key) {
+        return Flux.defer(() -> {
+            // Reference counts change inside compute so a topic is never dropped while joined
+            Topic topic = topics.compute(key, (k, t) -> {
+                Topic joined = t == null ? new Topic() : t;
+                joined.subscribers++;
+                return joined;
+            });
+            // Overflow ends the stream at once instead of after the backlog has drained
+            Sinks.Empty<Void> evicted = Sinks.empty();
+            return topic.sink.asFlux()
+                    .onBackpressureBuffer(BUFFER_SIZE, dropped -> {
+                        if (evicted.tryEmitEmpty().isSuccess()) {
+                            logger.warn("Disconnecting slow subscriber to {}", key);
+                        }
+                    }, BufferOverflowStrategy.DROP_LATEST)
+                    .takeUntilOther(evicted.asMono())
+                    .doFinally(signal -> topics.computeIfPresent(key, (k, t) -> --t.subscribers == 0 ? null : t));
+        });
+    }
+
+    private static int count(Map<String, Topic> topics) {
+        return topics.values().stream().mapToInt(t -> t.sink.currentSubscriberCount()).sum();
+    }
+
+    private static final class Topic {
+        private final Sinks.Many<DeliveryEvent> sink = Sinks.many().multicast().directBestEffort();
+        private final ReentrantLock lock = new ReentrantLock();  // Not a monitor, so virtual threads never pin on it
+        private int subscribers;  // Guarded by the owning map's per-key compute
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.deliveryboy.service;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Time partitioning of {@code delivery_status_event} on PostgreSQL. At startup, before
+ * the EntityManagerFactory (see {@code SchemaConfig}), it creates the table as
+ * range-partitioned by month, which Hibernate's schema update cannot do; after that it
+ * keeps monthly partitions created ahead of time, so inserts never land in the default
+ * partition and an old month can be detached or dropped as a whole. Does nothing on
+ * other databases or when the table already exists unpartitioned.
+ */
+@Service
+public class DeliveryEventPartitions {
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryEventPartitions.class);
+    private static final String TABLE = "delivery_status_event";
+    private static final String SCRIPT = "db/delivery_status_event-postgresql.sql";
+    private static final int MONTHS_AHEAD = 2;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private boolean partitioned;
+
+    @PostConstruct
+    void createTable() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(product)) {
+            return;
+        }
+        new ResourceDatabasePopulator(new ClassPathResource(SCRIPT)).execute(dataSource);
+        Integer count = jdbcTemplate.queryForObject("select count(*) from pg_partitioned_table p"
+                + " join pg_class c on c.oid = p.partrelid where c.relname = ?", Integer.class, TABLE);
+        partitioned = count != null && count > 0;
+        if (!partitioned) {
+            logger.warn("Table {} exists but is not partitioned, skipping partition maintenance", TABLE);
+            return;
+        }
+        ensurePartitions();
+    }
+
+    @Scheduled(cron = "${deliveryboy.delivery-events.partition-cron:0 0 3 * * *}")
+    public void ensurePartitions() {
+        if (!partitioned) {
+            return;
+        }
+        YearMonth month = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= MONTHS_AHEAD; i++) {
+            createPartition(month.plusMonths(i));
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = String.format("%s_y%04dm%02d", TABLE, month.getYear(), month.getMonthValue());
+        try {
+            jdbcTemplate.execute("create table if not exists " + name + " partition of " + TABLE
+                    + " for values from ('" + month.atDay(1) + " 00:00:00+00')"
+                    + " to ('" + month.plusMonths(1).atDay(1) + " 00:00:00+00')");
+        } catch (DataAccessException ex) {
+            // E.g. rows for this month already sit in the default partition
+            logger.warn("Could not create partition {}: {}", name, ex.getMessage());
+        }
+    }
+}
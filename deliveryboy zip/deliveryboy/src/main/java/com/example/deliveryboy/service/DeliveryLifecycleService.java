@@ -0,0 +1,202 @@
+package com.example.deliveryboy.service;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.deliveryboy.entity.Delivery;
+import com.example.deliveryboy.entity.DeliveryCurrentState;
+import com.example.deliveryboy.entity.DeliveryState;
+import com.example.deliveryboy.entity.DeliveryStatusEvent;
+import com.example.deliveryboy.repository.DeliveryCurrentStateRepository;
+import com.example.deliveryboy.repository.DeliveryRepository;
+import com.example.deliveryboy.repository.DeliveryStatusEventRepository;
+import com.example.deliveryboy.response.DeliverySummary;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Delivery status as an append-only event log plus a current-state projection. A
+ * transition is one INSERT into {@code delivery_status_event} and one conditional UPDATE
+ * of the narrow {@code delivery_current_state} row, in one transaction; the wide
+ * {@code delivery} row is only touched once, when the delivery completes, to keep its
+ * {@code deliveryStatus} flag in step for existing readers.
+ */
+@Service
+public class DeliveryLifecycleService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private DeliveryCurrentStateRepository currentStateRepository;
+
+    @Autowired
+    private DeliveryStatusEventRepository statusEventRepository;
+
+    @Autowired
+    private RiderStatsService riderStats;
+
+    @Autowired
+    private RevenueRollupService rollupService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public DeliveryLifecycleService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Saves a new delivery together with its ASSIGNED event; the order's bills start counting for its rider
+    public Delivery create(Delivery delivery) {
+        String orderId = delivery.getOrder() == null ? null : delivery.getOrder().getOrderId();
+        return transactionTemplate.execute(status -> rollupService.reattribute(Collections.singletonList(orderId), () -> {
+            Delivery saved = deliveryRepository.save(delivery);
+            recordAssigned(saved);
+            return saved;
+        }));
+    }
+
+    // Starts the lifecycle of a delivery persisted in the caller's transaction
+    public void recordAssigned(Delivery delivery) {
+        Long empId = delivery.getDeliveryBoy() == null ? null : delivery.getDeliveryBoy().getEmpId();
+        DeliveryState state = delivery.isDeliveryStatus() ? DeliveryState.DELIVERED : DeliveryState.ASSIGNED;
+        start(delivery.getDeliveryId(), delivery.getUser() == null ? null : delivery.getUser().getUserId(),
+                empId, state, Instant.now());
+        if (state == DeliveryState.ASSIGNED) {
+            riderStats.assigned(empId);
+        }
+    }
+
+    /**
+     * Moves a delivery to the next state. Fails with {@link InvalidTransitionException} if the
+     * lifecycle does not allow it, or if another transition committed first.
+     */
+    public DeliveryCurrentState transition(String deliveryId, DeliveryState next, String note) {
+        return transactionTemplate.execute(status -> advance(deliveryId, next, note));
+    }
+
+    private DeliveryCurrentState advance(String deliveryId, DeliveryState next, String note) {
+        DeliveryCurrentState current = currentStateRepository.findById(deliveryId)
+                .orElseGet(() -> startFromDelivery(deliveryId));
+        if (!current.getState().canMoveTo(next)) {
+            throw new InvalidTransitionException("Delivery " + deliveryId + " cannot move from "
+                    + current.getState() + " to " + next);
+        }
+        Instant now = Instant.now();
+        DeliveryStatusEvent event = new DeliveryStatusEvent(deliveryId, current.getEmpId(), next, note, now);
+        entityManager.persist(event);
+        if (currentStateRepository.advance(deliveryId, current.getState(), next, event.getEventId(), now) == 0) {
+            throw new InvalidTransitionException("Delivery " + deliveryId + " changed state concurrently");
+        }
+        if (next == DeliveryState.DELIVERED) {
+            deliveryRepository.markDelivered(deliveryId);
+            riderStats.completed(current.getEmpId(), current.getAssignedAt(), now);
+        } else if (next == DeliveryState.FAILED) {
+            riderStats.failed(current.getEmpId(), now);
+        }
+        DeliveryCurrentState advanced = new DeliveryCurrentState(deliveryId, current.getUserId(), current.getEmpId(),
+                next, event.getEventId(), now);
+        advanced.setAssignedAt(current.getAssignedAt());
+        return advanced;
+    }
+
+    /**
+     * Applies a full-entity update. User and order are rewritten under the optimistic check;
+     * a delivery status of {@code true} on an open delivery is a DELIVERED transition, so it
+     * gets its event, projection and rider stats like any other. The status cannot go back
+     * and the delivery boy cannot change here: both fail with {@link InvalidUpdateException}.
+     * Returns the delivery as updated, or null if it is gone or its version moved on.
+     */
+    public DeliverySummary update(String deliveryId, String userId, String orderId, Long empId, boolean delivered,
+            Long version) {
+        return transactionTemplate.execute(status -> {
+            DeliverySummary current = deliveryRepository.findSummaryById(deliveryId).orElse(null);
+            if (current == null || (version != null && !version.equals(current.version()))) {
+                return null;
+            }
+            if (empId != null && !empId.equals(current.empId())) {
+                throw new InvalidUpdateException("The delivery boy of delivery " + deliveryId
+                        + " cannot be changed by an update");
+            }
+            if (current.deliveryStatus() && !delivered) {
+                throw new InvalidUpdateException("Delivery " + deliveryId + " is delivered and cannot be reopened");
+            }
+            // Moving the delivery to another order moves the rider's revenue with it
+            if (rollupService.reattribute(Arrays.asList(current.orderId(), orderId),
+                    () -> deliveryRepository.updateIfVersion(deliveryId, userId, orderId, version)) == 0) {
+                return null;
+            }
+            currentStateRepository.updateUserId(deliveryId, userId);
+            if (delivered && !current.deliveryStatus()) {
+                advance(deliveryId, DeliveryState.DELIVERED, null);
+            }
+            return deliveryRepository.findSummaryById(deliveryId).orElseThrow();
+        });
+    }
+
+    public DeliveryCurrentState currentState(String deliveryId) {
+        return currentStateRepository.findById(deliveryId).orElse(null);
+    }
+
+    public List<DeliveryStatusEvent> timeline(String deliveryId) {
+        return statusEventRepository.findByDeliveryIdOrderByOccurredAtAscEventIdAsc(deliveryId);
+    }
+
+    // Drops the projection of a deleted delivery and returns it, or null if it had none; its events stay as history
+    public DeliveryCurrentState forget(String deliveryId) {
+        return transactionTemplate.execute(status -> currentStateRepository.findById(deliveryId).map(state -> {
+            currentStateRepository.delete(state);
+            if (!state.getState().isTerminal()) {
+                riderStats.released(state.getEmpId());
+            }
+            return state;
+        }).orElse(null));
+    }
+
+    // Deliveries created before the event log have no projection yet; seed it from the row
+    private DeliveryCurrentState startFromDelivery(String deliveryId) {
+        Delivery delivery = deliveryRepository.findById(deliveryId)
+                .orElseThrow(() -> new UnknownDeliveryException(deliveryId));
+        recordAssigned(delivery);
+        return currentStateRepository.findById(deliveryId).orElseThrow();
+    }
+
+    private void start(String deliveryId, String userId, Long empId, DeliveryState state, Instant at) {
+        DeliveryStatusEvent event = new DeliveryStatusEvent(deliveryId, empId, state, null, at);
+        entityManager.persist(event);
+        DeliveryCurrentState current = new DeliveryCurrentState(deliveryId, userId, empId, state, event.getEventId(), at);
+        current.setAssignedAt(at);
+        entityManager.persist(current);
+    }
+
+    // Thrown for a transition the lifecycle does not allow or that lost a race
+    public static class InvalidTransitionException extends RuntimeException {
+        public InvalidTransitionException(String message) {
+            super(message);
+        }
+    }
+
+    // Thrown for an update that would reopen a delivery or reassign it outside dispatch
+    public static class InvalidUpdateException extends RuntimeException {
+        public InvalidUpdateException(String message) {
+            super(message);
+        }
+    }
+
+    public static class UnknownDeliveryException extends RuntimeException {
+        public UnknownDeliveryException(String deliveryId) {
+            super("Delivery not found for ID: " + deliveryId);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.deliveryboy.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.deliveryboy.entity.Delivery;
+import com.example.deliveryboy.entity.DeliveryBoy;
+import com.example.deliveryboy.entity.Order;
+import com.example.deliveryboy.entity.User;
+import com.example.deliveryboy.id.TimeOrderedIdGenerator;
+import com.example.deliveryboy.repository.DeliveryRepository;
+import com.example.deliveryboy.repository.OrderRepository;
+import com.example.deliveryboy.response.DeliveryEvent;
+import com.example.deliveryboy.response.DispatchBatchResult;
+import com.example.deliveryboy.response.RiderCandidate;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Batching dispatch stage. Orders with a pickup point queue up here instead of being
+ * matched one by one; every window the queue is drained, split into areas, and each area
+ * is solved as an assignment problem ({@link AuctionSolver}) on a ForkJoin pool. Riders
+ * near an area border can win in two areas; the first claim stands and the other order
+ * waits for the next window. All resulting deliveries are written in one batched
+ * transaction, so the {@code delivery} table sees one flush per window instead of a
+ * contended INSERT per order; if that transaction fails, the window is retried row by
+ * row so one bad order cannot hold back the rest.
+ */
+@Service
+public class DispatchBatcher {
+    private static final Logger logger = LoggerFactory.getLogger(DispatchBatcher.class);
+    public static final int CANDIDATES = 8;  // Nearest riders each order may bid for
+    private static final double AREA_DEGREES = 0.05;  // About 5 km partitions
+    private static final int MAX_WINDOWS = 30;  // Windows an order may wait before it leaves the queue
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private DispatchIndex dispatchIndex;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DeliveryEventHub eventHub;
+
+    @Autowired
+    private DeliveryLifecycleService lifecycleService;
+
+    @Autowired
+    private RevenueRollupService rollupService;
+
+    @Autowired
+    private TimeOrderedIdGenerator idGenerator;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool solverPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    private final ConcurrentLinkedQueue<PendingOrder> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Set<String> queuedIds = ConcurrentHashMap.newKeySet();  // Orders queued or in the running window
+    private volatile DispatchBatchResult lastBatch;
+
+    @Autowired
+    public DispatchBatcher(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Queues an order for the next window, once however often it is submitted; false if it has no pickup point
+    public boolean submit(Order order) {
+        if (order.getLatitude() == null || order.getLongitude() == null) {
+            return false;
+        }
+        if (queuedIds.add(order.getOrderId())) {
+            enqueue(new PendingOrder(order.getOrderId(), order.getUser() == null ? null : order.getUser().getUserId(),
+                    order.getLatitude(), order.getLongitude(), 0));
+        }
+        return true;
+    }
+
+    // Takes a deleted order out of the queue; its entry is skipped when the next window drains it
+    public void cancel(String orderId) {
+        queuedIds.remove(orderId);
+    }
+
+    public int pendingCount() {
+        return queued.get();
+    }
+
+    public DispatchBatchResult getLastBatch() {
+        return lastBatch;
+    }
+
+    @Scheduled(fixedDelayString = "${deliveryboy.dispatch.window-ms:2000}")
+    public void dispatchPending() {
+        // One entry per order still wanted; a cancelled and resubmitted order can have left a stale copy
+        Map<String, PendingOrder> batch = new LinkedHashMap<>();
+        for (PendingOrder order : drain()) {
+            if (queuedIds.contains(order.orderId())) {
+                batch.putIfAbsent(order.orderId(), order);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+
+        // Orders deleted, or given a delivery some other way, since they were queued
+        Set<String> existing = new HashSet<>(orderRepository.findExistingIds(batch.keySet()));
+        Set<String> assigned = new HashSet<>(deliveryRepository.findAssignedOrderIds(batch.keySet()));
+        Map<Long, List<PendingOrder>> areas = new HashMap<>();
+        for (PendingOrder order : batch.values()) {
+            if (existing.contains(order.orderId()) && !assigned.contains(order.orderId())) {
+                areas.computeIfAbsent(areaOf(order), area -> new ArrayList<>()).add(order);
+            } else {
+                queuedIds.remove(order.orderId());
+            }
+        }
+        List<List<Assignment>> solved = solverPool.submit(() -> areas.values().parallelStream()
+                .map(this::solveArea)
+                .toList()).join();
+
+        List<Assignment> winners = new ArrayList<>();
+        List<PendingOrder> deferred = new ArrayList<>();
+        Set<Long> claimed = new HashSet<>();
+        for (List<Assignment> area : solved) {
+            for (Assignment assignment : area) {
+                if (assignment.rider() != null && claimed.add(assignment.rider().getEmpId())) {
+                    winners.add(assignment);
+                } else {
+                    deferred.add(assignment.order());
+                }
+            }
+        }
+        for (Assignment assignment : winners) {
+            dispatchIndex.setAvailable(assignment.rider().getEmpId(), false);
+        }
+        long solveNanos = System.nanoTime() - start;
+
+        long persistStart = System.nanoTime();
+        List<Delivery> deliveries = persist(winners);
+        if (deliveries == null) {
+            // Nothing was written: retry row by row, so only the orders that fail on their own wait
+            deliveries = new ArrayList<>(winners.size());
+            List<Assignment> written = new ArrayList<>(winners.size());
+            for (Assignment assignment : winners) {
+                List<Delivery> one = persist(List.of(assignment));
+                if (one == null) {
+                    dispatchIndex.setAvailable(assignment.rider().getEmpId(), true);  // Back on offer
+                    deferred.add(assignment.order());
+                } else {
+                    deliveries.addAll(one);
+                    written.add(assignment);
+                }
+            }
+            winners = written;
+        }
+        long persistNanos = System.nanoTime() - persistStart;
+        for (Delivery delivery : deliveries) {
+            eventHub.publish(new DeliveryEvent(DeliveryEvent.CREATED, delivery.getDeliveryId(),
+                    delivery.getUser() == null ? null : delivery.getUser().getUserId(), false, 0L));
+        }
+        for (Assignment assignment : winners) {
+            queuedIds.remove(assignment.order().orderId());
+        }
+
+        int dropped = 0;
+        for (PendingOrder order : deferred) {
+            if (order.windows() + 1 < MAX_WINDOWS) {
+                enqueue(order.waited());
+            } else {
+                queuedIds.remove(order.orderId());
+                dropped++;
+            }
+        }
+        double distance = winners.stream().mapToDouble(a -> a.rider().getDistanceMeters()).sum();
+        lastBatch = new DispatchBatchResult(batch.size(), areas.size(), winners.size(), deferred.size() - dropped,
+                dropped, distance, solveNanos / 1_000_000, persistNanos / 1_000_000);
+        if (logger.isInfoEnabled()) {  // Five arguments would box into a varargs array even when INFO is off
+            logger.info("Dispatched {} of {} orders in {} areas ({} deferred, {} dropped)",
+                    winners.size(), batch.size(), areas.size(), deferred.size() - dropped, dropped);
+        }
+    }
+
+    private List<Assignment> solveArea(List<PendingOrder> orders) {
+        List<List<RiderCandidate>> candidates = new ArrayList<>(orders.size());
+        for (PendingOrder order : orders) {
+            candidates.add(dispatchIndex.nearest(order.latitude(), order.longitude(), null, CANDIDATES));
+        }
+        RiderCandidate[] riders = AuctionSolver.solve(candidates);
+        List<Assignment> result = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            result.add(new Assignment(orders.get(i), riders[i]));
+        }
+        return result;
+    }
+
+    // One transaction, INSERTs batched by hibernate.jdbc.batch_size; null if it rolled back
+    private List<Delivery> persist(List<Assignment> winners) {
+        if (winners.isEmpty()) {
+            return List.of();
+        }
+        try {
+            List<String> orderIds = winners.stream().map(assignment -> assignment.order().orderId()).toList();
+            // Orders billed before dispatch: their bills start counting for the rider
+            return transactionTemplate.execute(status -> rollupService.reattribute(orderIds, () -> {
+                List<Delivery> deliveries = new ArrayList<>(winners.size());
+                for (Assignment assignment : winners) {
+                    PendingOrder order = assignment.order();
+                    Delivery delivery = new Delivery(idGenerator.next(),
+                            order.userId() == null ? null : entityManager.getReference(User.class, order.userId()),
+                            entityManager.getReference(Order.class, order.orderId()),
+                            entityManager.getReference(DeliveryBoy.class, assignment.rider().getEmpId()),
+                            false);
+                    entityManager.persist(delivery);
+                    lifecycleService.recordAssigned(delivery);  // Event and projection rows join the same batch
+                    deliveries.add(delivery);
+                }
+                entityManager.flush();
+                entityManager.clear();
+                return deliveries;
+            }));
+        } catch (RuntimeException ex) {
+            logger.warn("Dispatch batch of {} deliveries failed: {}", winners.size(), ex.getMessage());
+            return null;
+        }
+    }
+
+    private void enqueue(PendingOrder order) {
+        queue.add(order);
+        queued.incrementAndGet();
+    }
+
+    private List<PendingOrder> drain() {
+        List<PendingOrder> batch = new ArrayList<>();
+        PendingOrder order;
+        while ((order = queue.poll()) != null) {
+            queued.decrementAndGet();
+            batch.add(order);
+        }
+        return batch;
+    }
+
+    private static long areaOf(PendingOrder order) {
+        return (long) Math.floor((order.latitude() + 90) / AREA_DEGREES) * 100_000
+                + (long) Math.floor((order.longitude() + 180) / AREA_DEGREES);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        solverPool.shutdown();
+    }
+
+    private record PendingOrder(String orderId, String userId, double latitude, double longitude, int windows) {
+        PendingOrder waited() {
+            return new PendingOrder(orderId, userId, latitude, longitude, windows + 1);
+        }
+    }
+
+    private record Assignment(PendingOrder order, RiderCandidate rider) {
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.deliveryboy.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+
+import com.example.deliveryboy.response.RiderCandidate;
+
+/**
+ * Live position and availability of delivery boys in in-memory uniform grids, one per
+ * vehicle type, kept at four cell sizes. A nearest-riders query walks rings of cells
+ * outward from the pickup point and stops as soon as no unvisited cell can hold anything
+ * closer than the k-th candidate found. It starts on the finest grid and only moves to a
+ * coarser one when a few rings were not enough, so a lookup scans a similar handful of
+ * riders whether the area around the point is dense or sparse, and the size of the fleet
+ * does not enter into it.
+ */
+@Service
+public class DispatchIndex {
+    public static final int DEFAULT_K = 5;
+    public static final int MAX_K = 50;
+    public static final double MAX_RADIUS_METERS = 25_000;  // Nobody further away is a candidate
+    private static final double[] CELL_DEGREES = { 0.0015, 0.006, 0.024, 0.096 };  // About 170 m up to 10 km
+    private static final int RINGS_BEFORE_COARSER = 3;
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+    private static final double METERS_PER_DEGREE = EARTH_RADIUS_METERS * Math.PI / 180;
+    private static final Comparator<RiderCandidate> BY_DISTANCE = Comparator.comparingDouble(RiderCandidate::getDistanceMeters);
+
+    private final Map<Long, Rider> riders = new ConcurrentHashMap<>();
+    private final Level[] levels;
+
+    public DispatchIndex() {
+        levels = new Level[CELL_DEGREES.length];
+        for (int i = 0; i < levels.length; i++) {
+            levels[i] = new Level(CELL_DEGREES[i]);
+        }
+    }
+
+    // Records a position fix; unavailable riders are tracked but never returned as candidates
+    public void update(long empId, String vehicle, double latitude, double longitude, boolean available) {
+        riders.compute(empId, (id, old) -> {
+            Rider rider = new Rider(id, normalize(vehicle), latitude, longitude, available);
+            move(old, rider);
+            return rider;
+        });
+    }
+
+    // Position-only update for a rider already in the index; false if the rider is unknown
+    public boolean updatePosition(long empId, double latitude, double longitude) {
+        return riders.computeIfPresent(empId, (id, old) -> {
+            Rider rider = new Rider(id, old.vehicle(), latitude, longitude, old.available());
+            move(old, rider);
+            return rider;
+        }) != null;
+    }
+
+    // Taken by an assignment, or back on offer; false if the rider is unknown
+    public boolean setAvailable(long empId, boolean available) {
+        return riders.computeIfPresent(empId, (id, old) -> {
+            Rider rider = new Rider(id, old.vehicle(), old.latitude(), old.longitude(), available);
+            move(old, rider);
+            return rider;
+        }) != null;
+    }
+
+    public void updateVehicle(long empId, String vehicle) {
+        riders.computeIfPresent(empId, (id, old) -> {
+            Rider rider = new Rider(id, normalize(vehicle), old.latitude(), old.longitude(), old.available());
+            move(old, rider);
+            return rider;
+        });
+    }
+
+    public void remove(long empId) {
+        riders.computeIfPresent(empId, (id, old) -> {
+            move(old, null);
+            return null;
+        });
+    }
+
+    public int size() {
+        return riders.size();
+    }
+
+    /**
+     * Up to {@code k} available riders nearest to the point, closest first, optionally only
+     * those with the given vehicle. Distances are straight-line (equirectangular), which is
+     * well within a metre of great-circle distance at city scale.
+     */
+    public List<RiderCandidate> nearest(double latitude, double longitude, String vehicle, int k) {
+        int limit = Math.max(1, Math.min(k, MAX_K));
+        String wanted = vehicle == null ? null : normalize(vehicle);
+        PriorityQueue<RiderCandidate> best = new PriorityQueue<>(limit, BY_DISTANCE.reversed());
+        for (int i = 0; i < levels.length; i++) {
+            best.clear();
+            int maxRing = i == levels.length - 1 ? Integer.MAX_VALUE : RINGS_BEFORE_COARSER;
+            if (levels[i].search(latitude, longitude, wanted, limit, best, maxRing)) {
+                break;
+            }
+        }
+        List<RiderCandidate> result = new ArrayList<>(best);
+        result.sort(BY_DISTANCE);
+        return result;
+    }
+
+    // Called inside the riders map compute for this rider, so moves of one rider never interleave
+    private void move(Rider from, Rider to) {
+        for (Level level : levels) {
+            level.move(from != null && from.available() ? from : null, to != null && to.available() ? to : null);
+        }
+    }
+
+    static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLon = Math.IEEEremainder(lon2 - lon1, 360);  // The short way round, across the antimeridian too
+        double x = Math.toRadians(dLon) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        double y = Math.toRadians(lat2 - lat1);
+        return Math.sqrt(x * x + y * y) * EARTH_RADIUS_METERS;
+    }
+
+    private static String normalize(String vehicle) {
+        return vehicle == null ? "" : vehicle.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Rider(long empId, String vehicle, double latitude, double longitude, boolean available) {
+        RiderCandidate toCandidate(double distance) {
+            return new RiderCandidate(empId, vehicle, latitude, longitude, distance);
+        }
+    }
+
+    // One grid resolution: vehicle -> cell key -> riders currently available in that cell
+    private static final class Level {
+        private final double cellDegrees;
+        private final long latCells;
+        private final long lonCells;
+        private final Map<String, Map<Long, Map<Long, Rider>>> grids = new ConcurrentHashMap<>();
+
+        Level(double cellDegrees) {
+            this.cellDegrees = cellDegrees;
+            this.latCells = Math.round(180 / cellDegrees);
+            this.lonCells = Math.round(360 / cellDegrees);
+        }
+
+        void move(Rider from, Rider to) {
+            long toCell = to == null ? -1 : cellOf(to.latitude(), to.longitude());
+            if (from != null) {
+                long fromCell = cellOf(from.latitude(), from.longitude());
+                if (to != null && fromCell == toCell && from.vehicle().equals(to.vehicle())) {
+                    grids.get(to.vehicle()).get(toCell).put(to.empId(), to);  // Same cell, replace in place
+                    return;
+                }
+                grids.computeIfPresent(from.vehicle(), (vehicle, grid) -> {
+                    grid.computeIfPresent(fromCell, (key, cell) -> {
+                        cell.remove(from.empId());
+                        return cell.isEmpty() ? null : cell;
+                    });
+                    return grid;
+                });
+            }
+            if (to != null) {
+                grids.computeIfAbsent(to.vehicle(), vehicle -> new ConcurrentHashMap<>())
+                        .compute(toCell, (key, cell) -> {
+                            Map<Long, Rider> riders = cell == null ? new ConcurrentHashMap<>() : cell;
+                            riders.put(to.empId(), to);
+                            return riders;
+                        });
+            }
+        }
+
+        /**
+         * Ring search on this grid. Returns false if it gave up after {@code maxRing} rings
+         * without being sure of the answer, in which case a coarser grid should be tried.
+         */
+        boolean search(double latitude, double longitude, String vehicle, int limit,
+                PriorityQueue<RiderCandidate> best, int maxRing) {
+            List<Map<Long, Map<Long, Rider>>> searched = new ArrayList<>(1);
+            if (vehicle == null) {
+                searched.addAll(grids.values());
+            } else {
+                Map<Long, Map<Long, Rider>> grid = grids.get(vehicle);
+                if (grid != null) {
+                    searched.add(grid);
+                }
+            }
+            if (searched.isEmpty()) {
+                return true;
+            }
+
+            // Lower bound on how far each further ring is: the narrower, east-west cell side
+            double ringMeters = cellDegrees * METERS_PER_DEGREE
+                    * Math.max(0.01, Math.cos(Math.toRadians(Math.min(89.0, Math.abs(latitude) + cellDegrees))));
+            int radiusRings = (int) Math.ceil(MAX_RADIUS_METERS / ringMeters) + 1;
+            int rings = Math.min(maxRing, radiusRings);
+            long latIndex = latIndex(latitude);
+            long lonIndex = lonIndex(longitude);
+
+            for (int ring = 0; ring <= rings; ring++) {
+                for (int dLat = -ring; dLat <= ring; dLat++) {
+                    long cellLat = latIndex + dLat;
+                    if (cellLat < 0 || cellLat >= latCells) {
+                        continue;
+                    }
+                    // Whole top and bottom rows, only the two side cells in between
+                    int step = (dLat == -ring || dLat == ring) ? 1 : 2 * ring;
+                    for (int dLon = -ring; dLon <= ring; dLon += step) {
+                        long key = cellLat * lonCells + Math.floorMod(lonIndex + dLon, lonCells);
+                        for (Map<Long, Map<Long, Rider>> grid : searched) {
+                            Map<Long, Rider> cell = grid.get(key);
+                            if (cell != null) {
+                                collect(cell, latitude, longitude, limit, best);
+                            }
+                        }
+                    }
+                }
+                // Everything not visited yet is at least ring * ringMeters away
+                if (best.size() == limit && best.peek().getDistanceMeters() <= ring * ringMeters) {
+                    return true;
+                }
+            }
+            return rings == radiusRings;
+        }
+
+        private static void collect(Map<Long, Rider> cell, double latitude, double longitude, int limit,
+                PriorityQueue<RiderCandidate> best) {
+            for (Rider rider : cell.values()) {
+                double distance = distanceMeters(latitude, longitude, rider.latitude(), rider.longitude());
+                if (distance > MAX_RADIUS_METERS) {
+                    continue;
+                }
+                if (best.size() < limit) {
+                    best.add(rider.toCandidate(distance));
+                } else if (distance < best.peek().getDistanceMeters()) {
+                    best.poll();
+                    best.add(rider.toCandidate(distance));
+                }
+            }
+        }
+
+        private long cellOf(double latitude, double longitude) {
+            return latIndex(latitude) * lonCells + lonIndex(longitude);
+        }
+
+        private long latIndex(double latitude) {
+            return Math.min(latCells - 1, (long) Math.floor((latitude + 90) / cellDegrees));
+        }
+
+        private long lonIndex(double longitude) {
+            return Math.floorMod((long) Math.floor((longitude + 180) / cellDegrees), lonCells);
+        }
+    }
+}
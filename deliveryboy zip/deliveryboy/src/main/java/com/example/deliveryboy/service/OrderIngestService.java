@@ -0,0 +1,155 @@
+package com.example.deliveryboy.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.deliveryboy.entity.Order;
+import com.example.deliveryboy.entity.User;
+import com.example.deliveryboy.id.TimeOrderedIdGenerator;
+import com.example.deliveryboy.repository.OrderRepository;
+import com.example.deliveryboy.repository.UserRepository;
+import com.example.deliveryboy.response.BatchItemResult;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Bulk order ingestion. Orders are validated up front, then written in chunks with
+ * {@code persist} so Hibernate batches the INSERTs instead of running the
+ * SELECT-then-merge that {@code save} does for client-assigned ids. Existing order ids
+ * and unknown users are detected with one IN query per chunk rather than per row.
+ */
+@Service
+public class OrderIngestService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderIngestService.class);
+
+    // Keep in line with spring.jpa.properties.hibernate.jdbc.batch_size
+    public static final int CHUNK_SIZE = 500;
+    public static final int MAX_ITEMS = 10_000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TimeOrderedIdGenerator idGenerator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public OrderIngestService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public List<BatchItemResult> ingest(List<Order> orders) {
+        BatchItemResult[] results = new BatchItemResult[orders.size()];
+        List<Integer> pending = new ArrayList<>(orders.size());
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            if (order != null && isBlank(order.getOrderId())) {
+                order.setOrderId(idGenerator.next());
+            }
+            String error = validate(order);
+            if (error == null && !seen.add(order.getOrderId())) {
+                error = "Duplicate order ID in batch";
+            }
+            if (error != null) {
+                results[i] = BatchItemResult.error(i, order == null ? null : order.getOrderId(), error);
+            } else {
+                pending.add(i);
+            }
+        }
+
+        for (int from = 0; from < pending.size(); from += CHUNK_SIZE) {
+            List<Integer> chunk = pending.subList(from, Math.min(from + CHUNK_SIZE, pending.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeChunk(orders, chunk, results));
+            } catch (RuntimeException ex) {
+                logger.warn("Order batch chunk of {} rows failed: {}", chunk.size(), ex.getMessage());
+                entityManager.clear();
+                // Rows the chunk already rejected keep their own error; only those it would have written failed
+                for (int i : chunk) {
+                    if (results[i] == null || BatchItemResult.CREATED.equals(results[i].getStatus())) {
+                        results[i] = BatchItemResult.error(i, orders.get(i).getOrderId(), "Batch write failed");
+                    }
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private void writeChunk(List<Order> orders, List<Integer> chunk, BatchItemResult[] results) {
+        Set<String> ids = new HashSet<>();
+        Set<String> userIds = new HashSet<>();
+        for (int i : chunk) {
+            Order order = orders.get(i);
+            ids.add(order.getOrderId());
+            if (order.getUser() != null) {
+                userIds.add(order.getUser().getUserId());
+            }
+        }
+        Set<String> existing = new HashSet<>(orderRepository.findExistingIds(ids));
+        Set<String> knownUsers = userIds.isEmpty() ? Set.of() : new HashSet<>(userRepository.findExistingIds(userIds));
+
+        for (int i : chunk) {
+            Order order = orders.get(i);
+            if (existing.contains(order.getOrderId())) {
+                results[i] = BatchItemResult.error(i, order.getOrderId(), "Order already exists");
+                continue;
+            }
+            if (order.getUser() != null) {
+                String userId = order.getUser().getUserId();
+                if (!knownUsers.contains(userId)) {
+                    results[i] = BatchItemResult.error(i, order.getOrderId(), "User not found for ID: " + userId);
+                    continue;
+                }
+                // Proxy reference: no SELECT for the user row
+                order.setUser(entityManager.getReference(User.class, userId));
+            }
+            order.setVersion(null);
+            entityManager.persist(order);
+            results[i] = BatchItemResult.created(i, order.getOrderId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static String validate(Order order) {
+        if (order == null) {
+            return "Order cannot be null";
+        }
+        if (isBlank(order.getOrderId()) || order.getOrderId().length() > 20) {
+            return "Order ID must be 1 to 20 characters";
+        }
+        if (isBlank(order.getOrderDetails())) {
+            return "Order details cannot be blank";
+        }
+        if (isBlank(order.getDeliveryAddress()) || order.getDeliveryAddress().length() > 255) {
+            return "Delivery address must be 1 to 255 characters";
+        }
+        if (order.getUser() != null && isBlank(order.getUser().getUserId())) {
+            return "User ID cannot be blank";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,345 @@
+package com.example.deliveryboy.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.deliveryboy.repository.OrderRepository;
+import com.example.deliveryboy.response.CursorPage;
+import com.example.deliveryboy.response.OrderSearchHit;
+import com.example.deliveryboy.response.OrderSummary;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Full-text search over order details and delivery addresses, on an embedded Lucene
+ * index kept next to the application (in memory when no directory is configured, as in
+ * tests). The order endpoints update it after each create, update and delete commits;
+ * searches see those changes after the next refresh, and a commit makes them durable.
+ * Each commit records in its user data whether the index was shut down cleanly; after a
+ * crash, which loses whatever was written since the last commit, or when the document
+ * count differs from the orders table, the index is rebuilt from the database at startup.
+ *
+ * <p>Every query word must match, exactly, as a prefix, or within one or two edits, in
+ * either field; exact matches rank first. Pages are in relevance order only, which lets
+ * Lucene skip documents that cannot reach the top of the page instead of scoring every
+ * match. The cursor is the last hit's (score, doc id); doc ids move when segments merge,
+ * so a page boundary can repeat or skip a hit of exactly equal score across a merge.
+ */
+@Service
+public class OrderSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(OrderSearchIndex.class);
+    private static final String ID = "orderId";
+    private static final String USER = "userId";
+    private static final String DETAILS = "details";
+    private static final String ADDRESS = "address";
+    private static final int MAX_QUERY_TERMS = 8;
+    private static final int REBUILD_PAGE = 1_000;
+    private static final String CLEAN_SHUTDOWN = "cleanShutdown";  // Commit user data key
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private final Analyzer analyzer = new OrderAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private volatile Map<String, Boolean> rebuildWrites;  // Orders written by requests while a rebuild runs
+
+    @Autowired
+    public OrderSearchIndex(@Value("${deliveryboy.search.index-dir:}") String indexDir) throws IOException {
+        this.directory = indexDir.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexDir));
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer).setRAMBufferSizeMB(64));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfStale() throws IOException {
+        boolean clean = false;
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData != null) {
+            for (Map.Entry<String, String> entry : commitData) {
+                clean |= CLEAN_SHUTDOWN.equals(entry.getKey()) && "true".equals(entry.getValue());
+            }
+        }
+        // Committed straight away, so a crash from here on is seen at the next startup
+        writer.setLiveCommitData(Map.of(CLEAN_SHUTDOWN, "false").entrySet());
+        writer.commit();
+        int docs = writer.getDocStats().numDocs;
+        long orders = orderRepository.count();
+        if (!clean && docs > 0 || docs != orders) {
+            logger.warn("Order search index is out of date ({}, {} documents for {} orders), rebuilding",
+                    clean ? "clean shutdown" : "no clean shutdown", docs, orders);
+            rebuild();
+        }
+    }
+
+    /**
+     * Re-reads every order in keyset pages; searches during the rebuild see a partial index.
+     * Orders that requests index or delete meanwhile are left to them: the page holding
+     * such an order may have been read before that write committed.
+     */
+    public synchronized long rebuild() {
+        long start = System.currentTimeMillis();
+        long count = 0;
+        Map<String, Boolean> written = new ConcurrentHashMap<>();
+        rebuildWrites = written;
+        try {
+            writer.deleteAll();
+            String after = "";
+            List<OrderSummary> page;
+            do {
+                page = orderRepository.findSummaryPageAfter(after, null, Limit.of(REBUILD_PAGE));
+                for (OrderSummary order : page) {
+                    // Atomic per order with the request path, so neither can overwrite the other's newer document
+                    written.computeIfAbsent(order.orderId(), id -> {
+                        update(id, order.userId(), order.orderDetails(), order.deliveryAddress());
+                        return Boolean.FALSE;
+                    });
+                }
+                count += page.size();
+                if (!page.isEmpty()) {
+                    after = page.get(page.size() - 1).orderId();
+                }
+            } while (page.size() == REBUILD_PAGE);
+            writer.commit();
+            searcherManager.maybeRefresh();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            rebuildWrites = null;
+        }
+        logger.info("Rebuilt order search index with {} orders in {} ms", count, System.currentTimeMillis() - start);
+        return count;
+    }
+
+    // Adds or replaces the order's document; call after the write has committed
+    public void index(String orderId, String userId, String orderDetails, String deliveryAddress) {
+        Map<String, Boolean> written = rebuildWrites;
+        if (written == null) {
+            update(orderId, userId, orderDetails, deliveryAddress);
+        } else {
+            written.compute(orderId, (id, previous) -> {
+                update(id, userId, orderDetails, deliveryAddress);
+                return Boolean.TRUE;
+            });
+        }
+    }
+
+    public void delete(String orderId) {
+        Map<String, Boolean> written = rebuildWrites;
+        if (written == null) {
+            remove(orderId);
+        } else {
+            written.compute(orderId, (id, previous) -> {
+                remove(id);
+                return Boolean.TRUE;
+            });
+        }
+    }
+
+    private void update(String orderId, String userId, String orderDetails, String deliveryAddress) {
+        try {
+            writer.updateDocument(new Term(ID, orderId), document(orderId, userId, orderDetails, deliveryAddress));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void remove(String orderId) {
+        try {
+            writer.deleteDocuments(new Term(ID, orderId));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${deliveryboy.search.refresh-ms:1000}")
+    public void refresh() throws IOException {
+        searcherManager.maybeRefresh();
+    }
+
+    @Scheduled(fixedDelayString = "${deliveryboy.search.commit-ms:30000}")
+    public void commit() throws IOException {
+        if (writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+
+    public int size() {
+        return writer.getDocStats().numDocs;
+    }
+
+    /**
+     * One page of matches, best first. Returns null when the text has no searchable
+     * words; {@code userId} narrows the search to one customer's orders.
+     */
+    public CursorPage<OrderSearchHit> search(String text, String userId, String cursor, int limit) {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            return null;
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms) {
+            query.add(termQuery(term), BooleanClause.Occur.MUST);
+        }
+        if (userId != null) {
+            query.add(new TermQuery(new Term(USER, userId)), BooleanClause.Occur.FILTER);
+        }
+        ScoreDoc after = decodeCursor(cursor);
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                if (after != null && after.doc >= searcher.getIndexReader().maxDoc()) {
+                    after = new ScoreDoc(searcher.getIndexReader().maxDoc() - 1, after.score);  // Index shrank since
+                }
+                TopDocs top = searcher.searchAfter(after, query.build(), limit + 1);
+                StoredFields stored = searcher.storedFields();
+                List<OrderSearchHit> hits = new ArrayList<>(Math.min(top.scoreDocs.length, limit));
+                for (int i = 0; i < Math.min(top.scoreDocs.length, limit); i++) {
+                    ScoreDoc hit = top.scoreDocs[i];
+                    Document doc = stored.document(hit.doc);
+                    hits.add(new OrderSearchHit(doc.get(ID), doc.get(USER), doc.get(DETAILS), doc.get(ADDRESS),
+                            hit.score));
+                }
+                String next = null;
+                if (top.scoreDocs.length > limit) {
+                    ScoreDoc last = top.scoreDocs[limit - 1];
+                    next = CursorPage.encode(last.score + ":" + last.doc);
+                }
+                return new CursorPage<>(hits, next);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        searcherManager.close();
+        writer.setLiveCommitData(Map.of(CLEAN_SHUTDOWN, "true").entrySet());
+        writer.close();  // Commits what is pending, with the marker
+        directory.close();
+    }
+
+    private static Document document(String orderId, String userId, String orderDetails, String deliveryAddress) {
+        Document doc = new Document();
+        doc.add(new StringField(ID, orderId, Field.Store.YES));
+        if (userId != null) {
+            doc.add(new StringField(USER, userId, Field.Store.YES));
+        }
+        if (orderDetails != null) {
+            doc.add(new TextField(DETAILS, orderDetails, Field.Store.YES));
+        }
+        if (deliveryAddress != null) {
+            doc.add(new TextField(ADDRESS, deliveryAddress, Field.Store.YES));
+        }
+        return doc;
+    }
+
+    // Exact beats prefix beats fuzzy; short words skip the expensive forms
+    private static Query termQuery(String term) {
+        BooleanQuery.Builder either = new BooleanQuery.Builder();
+        for (String field : new String[] { DETAILS, ADDRESS }) {
+            either.add(new BoostQuery(new TermQuery(new Term(field, term)), 4f), BooleanClause.Occur.SHOULD);
+            if (term.length() >= 2) {
+                either.add(new BoostQuery(new PrefixQuery(new Term(field, term)), 2f), BooleanClause.Occur.SHOULD);
+            }
+            if (term.length() >= 4) {
+                either.add(new FuzzyQuery(new Term(field, term), term.length() >= 8 ? 2 : 1, 1),
+                        BooleanClause.Occur.SHOULD);
+            }
+        }
+        return either.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        try (TokenStream stream = analyzer.tokenStream(DETAILS, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken() && terms.size() < MAX_QUERY_TERMS) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return terms;
+    }
+
+    // The previous page's last hit: score and doc id
+    private static ScoreDoc decodeCursor(String cursor) {
+        String key = CursorPage.decode(cursor);
+        if (key.isEmpty()) {
+            return null;
+        }
+        int colon = key.indexOf(':');
+        try {
+            return new ScoreDoc(Integer.parseInt(key.substring(colon + 1)), Float.parseFloat(key.substring(0, colon)));
+        } catch (RuntimeException ex) {
+            throw new CursorPage.InvalidCursorException(cursor);
+        }
+    }
+
+    // Words split on Unicode boundaries, lower-cased and folded to ASCII, so "Café" finds "cafe"
+    private static final class OrderAnalyzer extends Analyzer {
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            StandardTokenizer tokenizer = new StandardTokenizer();
+            return new TokenStreamComponents(tokenizer, new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer)));
+        }
+
+        @Override
+        protected TokenStream normalize(String fieldName, TokenStream in) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+        }
+    }
+}
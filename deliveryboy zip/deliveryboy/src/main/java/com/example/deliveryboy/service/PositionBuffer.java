@@ -0,0 +1,151 @@
+package com.example.deliveryboy.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latest GPS fix per rider, written from request threads without locks. Each rider has a
+ * slot whose fix is swapped in with a compare-and-set, so a burst of pings from one
+ * phone just replaces the fix until the next drain: updates coalesce and memory stays at
+ * one slot per registered rider. A slot enters the dirty queue only on its clean-to-dirty
+ * transition, so the queue never holds more entries than there are riders.
+ */
+public class PositionBuffer {
+
+    public enum Outcome { ACCEPTED, STALE, UNKNOWN }
+
+    // One fix as received; recordedAt is device time, receivedAt node time, both epoch millis
+    public record Fix(double latitude, double longitude, long recordedAt, long receivedAt) {
+    }
+
+    // A rider's latest fix taken off the dirty queue, with when the rider first went dirty
+    public record Drained(long empId, Fix fix, long dirtySince) {
+    }
+
+    private static final class Slot {
+        final long empId;
+        final AtomicReference<Fix> latest = new AtomicReference<>();
+        final AtomicBoolean dirty = new AtomicBoolean();
+        volatile long dirtySince;
+
+        Slot(long empId) {
+            this.empId = empId;
+        }
+    }
+
+    private final int capacity;
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Slot> dirtyQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+    private final LongAdder drained = new LongAdder();
+
+    public PositionBuffer(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public boolean isRegistered(long empId) {
+        return slots.containsKey(empId);
+    }
+
+    // Adds a slot for the rider; false once the buffer holds capacity riders (checked without locking, so approximate)
+    public boolean register(long empId) {
+        if (slots.containsKey(empId)) {
+            return true;
+        }
+        if (slots.size() >= capacity) {
+            return false;
+        }
+        slots.putIfAbsent(empId, new Slot(empId));
+        return true;
+    }
+
+    public void remove(long empId) {
+        slots.remove(empId);
+    }
+
+    public Outcome record(long empId, double latitude, double longitude, long recordedAt, long receivedAt) {
+        Slot slot = slots.get(empId);
+        if (slot == null) {
+            return Outcome.UNKNOWN;
+        }
+        Fix fix = new Fix(latitude, longitude, recordedAt, receivedAt);
+        Fix previous;
+        do {
+            previous = slot.latest.get();
+            if (previous != null && previous.recordedAt() > recordedAt) {
+                stale.increment();  // Arrived out of order, a newer fix is already in
+                return Outcome.STALE;
+            }
+        } while (!slot.latest.compareAndSet(previous, fix));
+        received.increment();
+        if (!slot.dirty.get() && slot.dirty.compareAndSet(false, true)) {
+            slot.dirtySince = receivedAt;
+            dirtyQueue.add(slot);
+            pending.incrementAndGet();
+        }
+        return Outcome.ACCEPTED;
+    }
+
+    public Fix latest(long empId) {
+        Slot slot = slots.get(empId);
+        return slot == null ? null : slot.latest.get();
+    }
+
+    /**
+     * Takes every dirty rider's latest fix. The flag is cleared before the fix is read, so a
+     * ping that lands in between marks the slot dirty again and is picked up next time.
+     * Only what was queued on entry is taken, so a drain ends even while pings keep arriving.
+     */
+    public List<Drained> drain() {
+        int queued = pending.get();
+        List<Drained> result = new ArrayList<>(queued);
+        Slot slot;
+        for (int i = 0; i < queued && (slot = dirtyQueue.poll()) != null; i++) {
+            pending.decrementAndGet();
+            long dirtySince = slot.dirtySince;
+            slot.dirty.set(false);
+            if (slots.get(slot.empId) != slot) {
+                continue;  // Removed while queued
+            }
+            result.add(new Drained(slot.empId, slot.latest.get(), dirtySince));
+        }
+        drained.add(result.size());
+        return result;
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    public int pendingCount() {
+        return pending.get();
+    }
+
+    // Age of the longest-waiting undrained fix, 0 when nothing is pending
+    public long oldestPendingMillis(long now) {
+        Slot head = dirtyQueue.peek();
+        return head == null ? 0 : Math.max(0, now - head.dirtySince);
+    }
+
+    public long receivedCount() {
+        return received.sum();
+    }
+
+    public long staleCount() {
+        return stale.sum();
+    }
+
+    // Accepted pings that were replaced by a newer one before they were drained
+    public long coalescedCount() {
+        return Math.max(0, received.sum() - drained.sum() - pending.get());
+    }
+}
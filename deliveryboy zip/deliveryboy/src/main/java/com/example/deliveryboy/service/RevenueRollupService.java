@@ -0,0 +1,356 @@
+package com.example.deliveryboy.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.deliveryboy.entity.RevenueRollup;
+import com.example.deliveryboy.repository.BillRepository;
+import com.example.deliveryboy.repository.RevenueRollupRepository;
+import com.example.deliveryboy.response.BillRevenue;
+import com.example.deliveryboy.response.RevenueTotal;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Revenue per day, per user and per delivery boy as running totals in {@link RevenueRollup}
+ * rows, so a dashboard reads one row per figure instead of summing bills. Every bill
+ * write moves the totals in its own transaction, so a committed bill is counted exactly
+ * once. Deltas are netted per key and applied in key order, which keeps two writers of
+ * the same rows from deadlocking; a key's first delta creates its row in a separate
+ * transaction, so two first writers do not fail each other.
+ *
+ * <p>A bill counts for the user of its order and the delivery boy of that order's
+ * delivery. Writes that change either (an order moved to another user, a delivery
+ * created, dispatched, moved to another order or deleted) go through
+ * {@link #reattribute}, which moves the bills of the orders involved along. The
+ * {@link #rebuild()} recomputes every total from the bills in parallel id ranges, e.g. to
+ * repair a bill and a delivery of the same order written concurrently, which neither
+ * sees. One rebuild runs at a time.
+ */
+@Service
+public class RevenueRollupService {
+    private static final Logger logger = LoggerFactory.getLogger(RevenueRollupService.class);
+    private static final int WRITE_BATCH = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private RevenueRollupRepository rollupRepository;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate newRowTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final int rebuildThreads;
+    private final int rebuildChunk;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private boolean postgres;
+
+    @Autowired
+    public RevenueRollupService(PlatformTransactionManager transactionManager,
+            @Value("${deliveryboy.revenue.rebuild-threads:4}") int rebuildThreads,
+            @Value("${deliveryboy.revenue.rebuild-chunk:10000}") int rebuildChunk) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newRowTemplate = new TransactionTemplate(transactionManager);
+        this.newRowTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.rebuildThreads = rebuildThreads;
+        this.rebuildChunk = rebuildChunk;
+    }
+
+    @PostConstruct
+    void detectDatabase() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        postgres = "PostgreSQL".equals(product);
+    }
+
+    // Counts newly inserted bills; call inside the transaction that inserted them
+    public void afterInsert(Collection<Long> billIds) {
+        if (!billIds.isEmpty()) {
+            apply(List.of(), billRepository.findRevenueByIds(billIds));
+        }
+    }
+
+    /**
+     * Runs an update or delete of one bill and moves the totals from what the bill was to
+     * what it is, in one transaction. The bill row is locked first, so no other write can
+     * slip in between. Returns the rows written, 0 when the bill is missing or stale.
+     */
+    public int rewrite(Long billId, IntSupplier write) {
+        return transactionTemplate.execute(status -> {
+            if (billRepository.lockById(billId).isEmpty()) {
+                return 0;
+            }
+            List<BillRevenue> before = billRepository.findRevenueByIds(List.of(billId));
+            int written = write.getAsInt();
+            if (written > 0) {
+                apply(before, billRepository.findRevenueByIds(List.of(billId)));  // Empty once deleted
+            }
+            return written;
+        });
+    }
+
+    /**
+     * Runs a write that can change which user or delivery boy the bills of the given orders
+     * count for, and moves their totals from the old attribution to the new one in the same
+     * transaction (the caller's, or a new one). Costs one lookup when the orders have no bills.
+     */
+    public <T> T reattribute(Collection<String> orderIds, Supplier<T> write) {
+        List<String> ids = orderIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) {
+            return write.get();
+        }
+        return transactionTemplate.execute(status -> {
+            List<BillRevenue> before = billRepository.findRevenueByOrderIds(ids);
+            T result = write.get();
+            if (!before.isEmpty()) {
+                apply(before, billRepository.findRevenueByOrderIds(ids));  // Only the keys that moved change
+            }
+            return result;
+        });
+    }
+
+    public RevenueTotal get(String scope, String key) {
+        return rollupRepository.findById(scope + ":" + key)
+                .map(r -> new RevenueTotal(scope, key, r.getAmount(), r.getBillCount()))
+                .orElse(new RevenueTotal(scope, key, BigDecimal.ZERO, 0));
+    }
+
+    // One total per day of the range, both ends included, read in one query
+    public List<RevenueTotal> days(LocalDate from, LocalDate to) {
+        List<String> keys = from.datesUntil(to.plusDays(1)).map(RevenueRollup::dayKey).toList();
+        Map<String, RevenueRollup> rows = new HashMap<>();
+        rollupRepository.findAllById(keys).forEach(r -> rows.put(r.getRollupKey(), r));
+        List<RevenueTotal> totals = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            RevenueRollup row = rows.get(key);
+            String day = key.substring(RevenueRollup.DAY.length() + 1);
+            totals.add(row == null ? new RevenueTotal(RevenueRollup.DAY, day, BigDecimal.ZERO, 0)
+                    : new RevenueTotal(RevenueRollup.DAY, day, row.getAmount(), row.getBillCount()));
+        }
+        return totals;
+    }
+
+    @Scheduled(cron = "${deliveryboy.revenue.rebuild-cron:-}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (RebuildRunningException ex) {
+            logger.warn("Skipping the scheduled revenue rebuild: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Recomputes every total from the bills: id ranges are summed in parallel read-only
+     * transactions, then the rollup table is replaced, all while one transaction holds
+     * the rollup table locked against writes (PostgreSQL). A bill write committed before
+     * the lock is in the sums; one still open waits in {@code apply} and moves the new
+     * totals after the swap, so no bill is missed or counted twice. Bill writes stall
+     * while it runs, so run it when billing is quiet. The readers take their connections
+     * before the lock, so writers queued on it cannot starve them of the pool; it needs
+     * {@code rebuild-threads + 1} connections. Returns the number of bills counted.
+     *
+     * @throws RebuildRunningException if another rebuild is in progress
+     */
+    public long rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new RebuildRunningException();
+        }
+        try {
+            return transactionTemplate.execute(status -> lockedRebuild());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private long lockedRebuild() {
+        long start = System.currentTimeMillis();
+        if (postgres) {
+            // Conflicts with the row locks taken by apply(); readers are not blocked
+            jdbcTemplate.execute("lock table revenue_rollup in exclusive mode");
+        }
+        Map<String, Total> totals = new HashMap<>();
+        long bills = 0;
+        CountDownLatch connected = new CountDownLatch(rebuildThreads);
+        CompletableFuture<Long> maxId = new CompletableFuture<>();  // Read under the lock, then the readers start
+        AtomicLong nextId = new AtomicLong();
+        List<Future<Chunk>> readers = new ArrayList<>(rebuildThreads);
+        try (ExecutorService pool = Executors.newFixedThreadPool(rebuildThreads)) {
+            for (int i = 0; i < rebuildThreads; i++) {
+                readers.add(pool.submit(() -> sumRanges(connected, maxId, nextId)));
+            }
+            try {
+                connected.await();
+                for (Future<Chunk> reader : readers) {
+                    if (reader.isDone()) {
+                        reader.get();  // No connection for it: fail before anyone waits on the lock
+                    }
+                }
+                if (postgres) {
+                    // Conflicts with the row locks taken by apply(); readers are not blocked
+                    jdbcTemplate.execute("lock table revenue_rollup in exclusive mode");
+                }
+                Long min = billRepository.findMinId();
+                Long max = billRepository.findMaxId();
+                nextId.set(min == null ? 1 : min);
+                maxId.complete(max == null ? 0 : max);
+            } finally {
+                maxId.completeExceptionally(new IllegalStateException("Revenue rebuild aborted"));  // No-op once read
+            }
+            for (Future<Chunk> reader : readers) {
+                Chunk chunk = reader.get();
+                bills += chunk.bills();
+                chunk.totals().forEach((key, total) -> totals.computeIfAbsent(key, k -> new Total()).add(total));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Revenue rebuild interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(ex.getCause());
+        }
+        rollupRepository.deleteAllInBatch();
+        int written = 0;
+        for (Map.Entry<String, Total> entry : totals.entrySet()) {
+            entityManager.persist(new RevenueRollup(entry.getKey(), entry.getValue().amount, entry.getValue().count));
+            if (++written % WRITE_BATCH == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        logger.info("Rebuilt {} revenue rollups from {} bills in {} ms", totals.size(), bills,
+                System.currentTimeMillis() - start);
+        return bills;
+    }
+
+    // One reader: takes id ranges until past the max id, all in one read-only transaction on one connection
+    private Chunk sumRanges(CountDownLatch connected, CompletableFuture<Long> maxId, AtomicLong nextId) {
+        boolean[] counted = new boolean[1];
+        try {
+            return readOnlyTemplate.execute(status -> {
+                counted[0] = true;
+                connected.countDown();  // The transaction holds its connection from begin
+                long max = maxId.join();
+                Map<String, Total> totals = new HashMap<>();
+                int bills = 0;
+                for (long from = nextId.getAndAdd(rebuildChunk); from <= max; from = nextId.getAndAdd(rebuildChunk)) {
+                    List<BillRevenue> rows = billRepository.findRevenueBetween(from, Math.min(from + rebuildChunk - 1, max));
+                    for (BillRevenue bill : rows) {
+                        for (String key : keysOf(bill)) {
+                            totals.computeIfAbsent(key, k -> new Total()).add(bill.amount(), 1);
+                        }
+                    }
+                    bills += rows.size();
+                }
+                return new Chunk(totals, bills);
+            });
+        } finally {
+            if (!counted[0]) {
+                connected.countDown();  // Failed to begin
+            }
+        }
+    }
+
+    private void apply(List<BillRevenue> removed, List<BillRevenue> added) {
+        Map<String, Total> deltas = new TreeMap<>();  // Key order, the same in every writer
+        for (BillRevenue bill : removed) {
+            for (String key : keysOf(bill)) {
+                deltas.computeIfAbsent(key, k -> new Total()).add(bill.amount().negate(), -1);
+            }
+        }
+        for (BillRevenue bill : added) {
+            for (String key : keysOf(bill)) {
+                deltas.computeIfAbsent(key, k -> new Total()).add(bill.amount(), 1);
+            }
+        }
+        deltas.forEach((key, delta) -> {
+            if (delta.count == 0 && delta.amount.signum() == 0) {
+                return;  // E.g. an update that left the amount and attribution alone
+            }
+            if (rollupRepository.add(key, delta.amount, delta.count) == 0) {
+                try {
+                    newRowTemplate.executeWithoutResult(status -> rollupRepository.insertEmpty(key));
+                } catch (DataIntegrityViolationException ex) {
+                    // Another writer created the row first
+                }
+                rollupRepository.add(key, delta.amount, delta.count);
+            }
+        });
+    }
+
+    private static List<String> keysOf(BillRevenue bill) {
+        List<String> keys = new ArrayList<>(3);
+        if (bill.createdAt() != null) {
+            keys.add(RevenueRollup.dayKey(LocalDate.ofInstant(bill.createdAt(), ZoneOffset.UTC)));
+        }
+        if (bill.userId() != null) {
+            keys.add(RevenueRollup.userKey(bill.userId()));
+        }
+        if (bill.empId() != null) {
+            keys.add(RevenueRollup.riderKey(bill.empId()));
+        }
+        return keys;
+    }
+
+    public static class RebuildRunningException extends RuntimeException {
+        public RebuildRunningException() {
+            super("A revenue rebuild is already running");
+        }
+    }
+
+    private record Chunk(Map<String, Total> totals, int bills) {
+    }
+
+    private static final class Total {
+        private BigDecimal amount = BigDecimal.ZERO;
+        private long count;
+
+        void add(BigDecimal amount, long count) {
+            this.amount = this.amount.add(amount);
+            this.count += count;
+        }
+
+        void add(Total other) {
+            add(other.amount, other.count);
+        }
+    }
+}
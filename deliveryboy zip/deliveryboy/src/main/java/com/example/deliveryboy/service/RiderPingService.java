@@ -0,0 +1,179 @@
+package com.example.deliveryboy.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.deliveryboy.entity.RiderPosition;
+import com.example.deliveryboy.repository.DeliveryBoyRepository;
+import com.example.deliveryboy.response.PingStats;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * GPS ping ingest with write-behind persistence. Pings only touch the in-memory
+ * {@link PositionBuffer}; a scheduled flush drains the riders that moved since the last
+ * one, feeds their latest fix to the {@link DispatchIndex}, and writes a compacted
+ * history: a row only when the rider moved {@value #MIN_MOVE_METERS} m or
+ * {@value #MAX_GAP_MILLIS} ms passed since the last stored fix. Rows go out in batched
+ * INSERTs, a few per rider per minute however often the phones report.
+ */
+@Service
+public class RiderPingService {
+    private static final Logger logger = LoggerFactory.getLogger(RiderPingService.class);
+    public static final double MIN_MOVE_METERS = 50;
+    public static final long MAX_GAP_MILLIS = 30_000;
+    private static final long MAX_CLOCK_AHEAD_MILLIS = 60_000;  // Later device times are taken as receive time
+
+    // Keep in line with spring.jpa.properties.hibernate.jdbc.batch_size
+    private static final int CHUNK_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private DeliveryBoyRepository deliveryBoyRepository;
+
+    @Autowired
+    private DispatchIndex dispatchIndex;
+
+    private final TransactionTemplate transactionTemplate;
+    private final PositionBuffer buffer;
+    // Last stored fix per rider; only read and written by the flush
+    private final Map<Long, PositionBuffer.Fix> stored = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder rowsWritten = new LongAdder();
+    private final LongAdder rowsFailed = new LongAdder();
+    private volatile FlushResult lastFlush = new FlushResult(0, 0, 0, 0, 0, 0);
+
+    @Autowired
+    public RiderPingService(PlatformTransactionManager transactionManager,
+            @Value("${deliveryboy.pings.max-riders:200000}") int maxRiders) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.buffer = new PositionBuffer(maxRiders);
+    }
+
+    /**
+     * Records a ping. The first ping of a rider checks it exists (through the delivery boy
+     * cache) and gives it a slot; after that a ping is a map lookup and a compare-and-set.
+     * A null or far-future device time is replaced by the receive time.
+     */
+    public PositionBuffer.Outcome record(long empId, double latitude, double longitude, Long timestamp) {
+        long now = System.currentTimeMillis();
+        long recordedAt = timestamp == null || timestamp > now + MAX_CLOCK_AHEAD_MILLIS ? now : timestamp;
+        if (!buffer.isRegistered(empId)) {
+            if (deliveryBoyRepository.findById(empId).isEmpty()) {
+                rejected.increment();
+                return PositionBuffer.Outcome.UNKNOWN;
+            }
+            if (!buffer.register(empId)) {
+                rejected.increment();
+                throw new CapacityExceededException("Ping buffer is full, rider " + empId + " not tracked");
+            }
+        }
+        return buffer.record(empId, latitude, longitude, recordedAt, now);
+    }
+
+    public PositionBuffer.Fix latest(long empId) {
+        return buffer.latest(empId);
+    }
+
+    // Stops tracking a rider, e.g. when the delivery boy is deleted
+    public void forget(long empId) {
+        buffer.remove(empId);
+        stored.remove(empId);
+    }
+
+    @Scheduled(fixedDelayString = "${deliveryboy.pings.flush-ms:1000}")
+    public void flush() {
+        List<PositionBuffer.Drained> drained = buffer.drain();
+        if (drained.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        long maxLag = 0;
+        long totalLag = 0;
+        long totalDeviceLag = 0;
+        List<PositionBuffer.Drained> due = new ArrayList<>();
+        for (PositionBuffer.Drained rider : drained) {
+            PositionBuffer.Fix fix = rider.fix();
+            dispatchIndex.updatePosition(rider.empId(), fix.latitude(), fix.longitude());
+            long lag = start - rider.dirtySince();
+            maxLag = Math.max(maxLag, lag);
+            totalLag += lag;
+            totalDeviceLag += Math.max(0, fix.receivedAt() - fix.recordedAt());
+            if (isDue(stored.get(rider.empId()), fix)) {
+                due.add(rider);
+            }
+        }
+
+        int written = 0;
+        for (int from = 0; from < due.size(); from += CHUNK_SIZE) {
+            List<PositionBuffer.Drained> chunk = due.subList(from, Math.min(from + CHUNK_SIZE, due.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeChunk(chunk));
+                for (PositionBuffer.Drained rider : chunk) {
+                    stored.put(rider.empId(), rider.fix());
+                }
+                written += chunk.size();
+            } catch (RuntimeException ex) {
+                // History is best effort: the fixes stay in memory and the next move is stored
+                logger.warn("Rider position batch of {} rows failed: {}", chunk.size(), ex.getMessage());
+                entityManager.clear();
+                rowsFailed.add(chunk.size());
+            }
+        }
+        rowsWritten.add(written);
+        lastFlush = new FlushResult(drained.size(), written, System.currentTimeMillis() - start, maxLag,
+                (double) totalLag / drained.size(), (double) totalDeviceLag / drained.size());
+    }
+
+    private void writeChunk(List<PositionBuffer.Drained> chunk) {
+        for (PositionBuffer.Drained rider : chunk) {
+            PositionBuffer.Fix fix = rider.fix();
+            entityManager.persist(new RiderPosition(rider.empId(), fix.latitude(), fix.longitude(),
+                    Instant.ofEpochMilli(fix.recordedAt())));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static boolean isDue(PositionBuffer.Fix last, PositionBuffer.Fix fix) {
+        return last == null
+                || fix.recordedAt() - last.recordedAt() >= MAX_GAP_MILLIS
+                || DispatchIndex.distanceMeters(last.latitude(), last.longitude(),
+                        fix.latitude(), fix.longitude()) >= MIN_MOVE_METERS;
+    }
+
+    public PingStats getStats() {
+        FlushResult flush = lastFlush;
+        return new PingStats(buffer.size(), buffer.receivedCount(), buffer.staleCount(), rejected.sum(),
+                buffer.coalescedCount(), buffer.pendingCount(), buffer.oldestPendingMillis(System.currentTimeMillis()),
+                rowsWritten.sum(), rowsFailed.sum(), flush.riders(), flush.rows(), flush.millis(),
+                flush.maxLagMillis(), flush.meanLagMillis(), flush.meanDeviceLagMillis());
+    }
+
+    private record FlushResult(int riders, int rows, long millis, long maxLagMillis, double meanLagMillis,
+            double meanDeviceLagMillis) {
+    }
+
+    // Thrown when a new rider would grow the buffer past deliveryboy.pings.max-riders
+    public static class CapacityExceededException extends RuntimeException {
+        public CapacityExceededException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.deliveryboy.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.deliveryboy.entity.DeliveryState;
+import com.example.deliveryboy.entity.RiderStatsCheckpoint;
+import com.example.deliveryboy.repository.DeliveryCurrentStateRepository;
+import com.example.deliveryboy.repository.RiderStatsCheckpointRepository;
+import com.example.deliveryboy.response.RiderStats;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Live per-delivery-boy counters: open deliveries, deliveries completed and failed today
+ * (UTC), and completion times. The delivery lifecycle records into {@link LongAdder}s once
+ * its transaction commits, so concurrent writers never contend on one cell and a
+ * dashboard read is a few sums in memory. Riders that changed are checkpointed to
+ * {@code rider_stats} every few seconds in batched writes, and at shutdown.
+ *
+ * <p>At startup the checkpoints are loaded back, and the open counts are recounted from
+ * the delivery state projection, once, so a crash between checkpoints cannot leave them
+ * off for good. Daily counters lost that way stay lost. Like the dispatch index the
+ * counters are per instance: only deliveries written through this node move them.
+ */
+@Service
+public class RiderStatsService {
+    private static final Logger logger = LoggerFactory.getLogger(RiderStatsService.class);
+    private static final Set<DeliveryState> OPEN = EnumSet.of(DeliveryState.ASSIGNED, DeliveryState.PICKED_UP,
+            DeliveryState.IN_TRANSIT);
+
+    // Keep in line with spring.jpa.properties.hibernate.jdbc.batch_size
+    private static final int CHUNK_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private RiderStatsCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private DeliveryCurrentStateRepository currentStateRepository;
+
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, Counters> riders = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public RiderStatsService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Before the scheduler or any request can record
+    @PostConstruct
+    void load() {
+        long start = System.currentTimeMillis();
+        for (RiderStatsCheckpoint checkpoint : checkpointRepository.findAll()) {
+            counters(checkpoint.getEmpId()).restore(checkpoint);
+        }
+        Map<Long, Long> open = new HashMap<>();
+        for (Object[] row : currentStateRepository.countByEmpId(OPEN)) {
+            open.put((Long) row[0], (Long) row[1]);
+        }
+        riders.forEach((empId, counters) -> counters.setActive(open.getOrDefault(empId, 0L)));
+        open.forEach((empId, count) -> counters(empId).setActive(count));
+        logger.info("Loaded stats of {} riders in {} ms", riders.size(), System.currentTimeMillis() - start);
+    }
+
+    // A delivery was assigned to the rider
+    public void assigned(Long empId) {
+        afterCommit(empId, counters -> counters.active.increment());
+    }
+
+    // An open delivery was delivered; the completion time runs from its assignment, when known
+    public void completed(Long empId, Instant assignedAt, Instant completedAt) {
+        long millis = assignedAt == null ? -1 : Math.max(0, Duration.between(assignedAt, completedAt).toMillis());
+        afterCommit(empId, counters -> {
+            counters.active.decrement();
+            counters.completedTotal.increment();
+            Day day = counters.day(LocalDate.ofInstant(completedAt, ZoneOffset.UTC));
+            day.completed.increment();
+            if (millis >= 0) {
+                counters.timedTotal.increment();
+                counters.completionMillisTotal.add(millis);
+                day.timed.increment();
+                day.completionMillis.add(millis);
+            }
+        });
+    }
+
+    public void failed(Long empId, Instant failedAt) {
+        afterCommit(empId, counters -> {
+            counters.active.decrement();
+            counters.day(LocalDate.ofInstant(failedAt, ZoneOffset.UTC)).failed.increment();
+        });
+    }
+
+    // An open delivery went away without finishing, e.g. it was deleted
+    public void released(Long empId) {
+        afterCommit(empId, counters -> counters.active.decrement());
+    }
+
+    // Drops a deleted delivery boy's counters and checkpoint
+    public void forget(Long empId) {
+        riders.remove(empId);
+        dirty.remove(empId);
+        checkpointRepository.deleteById(empId);
+    }
+
+    public RiderStats get(Long empId) {
+        Counters counters = riders.get(empId);
+        return counters == null ? new Counters().snapshot(empId, today()) : counters.snapshot(empId, today());
+    }
+
+    // Every rider with counters, by id
+    public List<RiderStats> getAll() {
+        LocalDate today = today();
+        return riders.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> e.getValue().snapshot(e.getKey(), today))
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${deliveryboy.rider-stats.checkpoint-ms:10000}")
+    public void checkpoint() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Long> due = new ArrayList<>(dirty.size());
+        for (Long empId : dirty) {
+            dirty.remove(empId);  // Removed before the read, so a later record marks it again
+            due.add(empId);
+        }
+        Instant now = Instant.now();
+        for (int from = 0; from < due.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = due.subList(from, Math.min(from + CHUNK_SIZE, due.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeChunk(chunk, now));
+            } catch (RuntimeException ex) {
+                logger.warn("Rider stats checkpoint of {} riders failed: {}", chunk.size(), ex.getMessage());
+                dirty.addAll(chunk);  // Retried on the next run
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        checkpoint();
+    }
+
+    // Existing rows are read in one query and updated in place, new ones persisted; all batched on commit
+    private void writeChunk(List<Long> empIds, Instant now) {
+        Map<Long, RiderStatsCheckpoint> rows = new HashMap<>();
+        checkpointRepository.findAllById(empIds).forEach(row -> rows.put(row.getEmpId(), row));
+        for (Long empId : empIds) {
+            Counters counters = riders.get(empId);
+            if (counters == null) {
+                continue;  // Forgotten since
+            }
+            RiderStatsCheckpoint row = rows.get(empId);
+            boolean inserted = row == null;
+            if (inserted) {
+                row = new RiderStatsCheckpoint(empId);
+            }
+            counters.save(row);
+            row.setCheckpointedAt(now);
+            if (inserted) {
+                entityManager.persist(row);
+            }
+        }
+    }
+
+    // Counters move only once the delivery write is durable; a rollback leaves them alone
+    private void afterCommit(Long empId, Consumer<Counters> update) {
+        if (empId == null) {
+            return;
+        }
+        Runnable apply = () -> {
+            update.accept(counters(empId));
+            dirty.add(empId);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private Counters counters(Long empId) {
+        return riders.computeIfAbsent(empId, id -> new Counters());
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+
+    private static final class Counters {
+        private final LongAdder active = new LongAdder();
+        private final LongAdder completedTotal = new LongAdder();
+        private final LongAdder timedTotal = new LongAdder();  // Completions with a known assignment time
+        private final LongAdder completionMillisTotal = new LongAdder();
+        private volatile Day day = new Day(LocalDate.EPOCH);
+
+        // The counters of the given day, starting a fresh set when the day turned
+        Day day(LocalDate date) {
+            Day current = day;
+            if (current.date.equals(date)) {
+                return current;
+            }
+            synchronized (this) {
+                if (!day.date.equals(date) && day.date.isBefore(date)) {
+                    day = new Day(date);
+                }
+                return day.date.equals(date) ? day : new Day(date);  // A late record for a past day is dropped
+            }
+        }
+
+        void setActive(long count) {
+            active.reset();
+            active.add(count);
+        }
+
+        RiderStats snapshot(long empId, LocalDate today) {
+            Day current = day.date.equals(today) ? day : new Day(today);
+            long timedToday = current.timed.sum();
+            long timed = timedTotal.sum();
+            return new RiderStats(empId, today.toString(), Math.max(0, active.sum()), current.completed.sum(),
+                    current.failed.sum(), timedToday == 0 ? 0 : current.completionMillis.sum() / timedToday,
+                    completedTotal.sum(), timed == 0 ? 0 : completionMillisTotal.sum() / timed);
+        }
+
+        void save(RiderStatsCheckpoint row) {
+            Day current = day;
+            row.setActive(active.sum());
+            row.setStatsDay(current.date);
+            row.setCompletedToday(current.completed.sum());
+            row.setFailedToday(current.failed.sum());
+            row.setTimedToday(current.timed.sum());
+            row.setCompletionMillisToday(current.completionMillis.sum());
+            row.setCompletedTotal(completedTotal.sum());
+            row.setTimedTotal(timedTotal.sum());
+            row.setCompletionMillisTotal(completionMillisTotal.sum());
+        }
+
+        void restore(RiderStatsCheckpoint row) {
+            active.add(row.getActive());
+            completedTotal.add(row.getCompletedTotal());
+            timedTotal.add(row.getTimedTotal());
+            completionMillisTotal.add(row.getCompletionMillisTotal());
+            if (row.getStatsDay() != null) {
+                Day saved = new Day(row.getStatsDay());
+                saved.completed.add(row.getCompletedToday());
+                saved.failed.add(row.getFailedToday());
+                saved.timed.add(row.getTimedToday());
+                saved.completionMillis.add(row.getCompletionMillisToday());
+                day = saved;
+            }
+        }
+    }
+
+    private static final class Day {
+        private final LocalDate date;
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder timed = new LongAdder();
+        private final LongAdder completionMillis = new LongAdder();
+
+        Day(LocalDate date) {
+            this.date = date;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+-- Run by DeliveryEventPartitions on PostgreSQL before Hibernate's schema update, so the status
+-- event log is created as a partitioned table; Hibernate then only adds its sequence and indexes.
+-- Monthly partitions are created ahead of time by the same class.
+create table if not exists delivery_status_event (
+    event_id bigint not null,
+    delivery_id varchar(20) not null,
+    emp_id bigint,
+    state varchar(16) not null,
+    note varchar(200),
+    occurred_at timestamp(6) with time zone not null,
+    primary key (event_id, occurred_at)
+) partition by range (occurred_at);
+
+-- Catches rows outside every monthly partition instead of failing the insert
+create table if not exists delivery_status_event_default partition of delivery_status_event default;
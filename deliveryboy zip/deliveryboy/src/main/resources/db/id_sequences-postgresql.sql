@@ -0,0 +1,32 @@
+-- Run by IdSequences on PostgreSQL before Hibernate's schema update, which would create the Bill and
+-- DeliveryBoy sequences at 1 on a database whose keys came from identity columns, so the first insert
+-- would collide. Creates each sequence with the configured increment (${allocation_size} is replaced
+-- with spring.jpa.properties.deliveryboy.id.allocation_size), realigns the increment when the setting
+-- changed, and moves the sequence past the highest id in use. Once the sequence is ahead it is left alone.
+-- One statement: the whole file runs as a single DO block.
+do $$
+declare
+    s record;
+    current_increment bigint;
+    max_id bigint;
+    last_id bigint;
+begin
+    for s in select * from (values
+            ('bill_seq', 'bill', 'bill_id'),
+            ('delivery_boy_seq', 'delivery_boy', 'emp_id')) as t(seq, tbl, col) loop
+        execute format('create sequence if not exists %I start with 1 increment by %s', s.seq, ${allocation_size});
+        select increment_by into current_increment from pg_sequences
+            where schemaname = current_schema() and sequencename = s.seq;
+        if current_increment <> ${allocation_size} then
+            execute format('alter sequence %I increment by %s', s.seq, ${allocation_size});
+        end if;
+        if to_regclass(s.tbl) is not null then
+            execute format('select max(%I) from %I', s.col, s.tbl) into max_id;
+            execute format('select last_value from %I', s.seq) into last_id;
+            if max_id >= last_id then
+                perform setval(s.seq::regclass, max_id);
+            end if;
+        end if;
+    end loop;
+end
+$$;
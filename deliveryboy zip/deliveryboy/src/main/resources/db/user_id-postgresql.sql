@@ -0,0 +1,16 @@
+-- Run by UserIdColumns on PostgreSQL before Hibernate's schema update, which never changes the
+-- type of an existing column. Widens the user key from 3 characters, and the columns that
+-- reference it, so generated 13-character ids fit; widening a varchar rewrites no rows. Columns
+-- already wide enough are skipped, so a restart does not queue an exclusive lock on each table.
+-- One statement: the whole file runs as a single DO block.
+do $$
+declare
+    c record;
+begin
+    for c in select table_name from information_schema.columns
+            where table_schema = current_schema() and column_name = 'user_id'
+            and table_name in ('users', 'orders', 'delivery') and character_maximum_length < 20 loop
+        execute format('alter table %I alter column user_id type varchar(20)', c.table_name);
+    end loop;
+end
+$$;
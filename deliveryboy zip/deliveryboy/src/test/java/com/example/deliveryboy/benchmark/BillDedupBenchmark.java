@@ -0,0 +1,71 @@
+package com.example.deliveryboy.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.example.deliveryboy.service.BloomFilter;
+
+/**
+ * False positive rate, size and speed of the transaction-id filter in front of bill
+ * creation. The filter is sized for 1M ids at 1% and filled to 1x, 4x and 16x that, so
+ * the grown layers are measured too; each fill is probed with 1M ids it has never seen
+ * (a lookup the database would have to answer for nothing) and with every id it holds,
+ * which must all be found.
+ *
+ * Opt-in: {@code mvn test -Dbenchmark=true -Dtest=BillDedupBenchmark}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BillDedupBenchmark {
+    private static final int EXPECTED = 1_000_000;
+    private static final double TARGET_RATE = 0.01;
+    private static final int PROBES = 1_000_000;
+    private static final int[] FILLS = { 1, 4, 16 };
+
+    @Test
+    void falsePositiveRateAsTheFilterGrows() {
+        for (int fill : FILLS) {
+            run(fill);
+        }
+    }
+
+    private static void run(int fill) {
+        BloomFilter filter = new BloomFilter(EXPECTED, TARGET_RATE);
+        int keys = EXPECTED * fill;
+        long start = System.nanoTime();
+        for (int i = 0; i < keys; i++) {
+            filter.add(transactionId(i));
+        }
+        long addNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < keys; i++) {
+            assertTrue(filter.mightContain(transactionId(i)), "false negative");
+        }
+        long hitNanos = System.nanoTime() - start;
+
+        SplittableRandom random = new SplittableRandom(fill);
+        int falsePositives = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < PROBES; i++) {
+            if (filter.mightContain("TXN-R" + random.nextLong())) {
+                falsePositives++;
+            }
+        }
+        long missNanos = System.nanoTime() - start;
+
+        System.out.printf("%,d ids in %d layers, %,d KB: false positives %.3f%% observed, %.3f%% estimated;"
+                + " add %.0f ns, hit %.0f ns, miss %.0f ns%n",
+                keys, filter.layerCount(), filter.sizeBytes() / 1024, 100.0 * falsePositives / PROBES,
+                100 * filter.estimatedFalsePositiveRate(), (double) addNanos / keys, (double) hitNanos / keys,
+                (double) missNanos / PROBES);
+    }
+
+    // Gateway-style ids: a fixed prefix and a sequence, the shape that defeats a weak hash
+    private static String transactionId(int i) {
+        return "TXN-" + (20260000000L + i);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.deliveryboy.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.example.deliveryboy.response.RiderCandidate;
+import com.example.deliveryboy.service.DispatchIndex;
+
+/**
+ * Latency of a 5-nearest-riders lookup (filtered by vehicle) as the number of active
+ * riders grows from 1k to 500k. Riders are spread at a constant density of about 20
+ * per km², a fleet growing by covering more area, and again all packed into one
+ * 30 x 30 km city, where each lookup scans more riders per cell. A sample of lookups is
+ * checked against a brute-force scan.
+ *
+ * Opt-in: {@code mvn test -Dbenchmark=true -Dtest=DispatchBenchmark}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class DispatchBenchmark {
+    private static final int[] FLEET_SIZES = { 1_000, 10_000, 100_000, 500_000 };
+    private static final String[] VEHICLES = { "bike", "scooter", "car" };
+    private static final int QUERIES = 200_000;
+    private static final int CHECKED = 200;
+    private static final int K = 5;
+    private static final double CENTER_LAT = 12.97;
+    private static final double CENTER_LON = 77.59;
+    private static final double RIDERS_PER_KM2 = 20;
+    private static final double CITY_KM = 30;
+
+    @Test
+    void lookupLatencyByFleetSize() {
+        for (int riders : FLEET_SIZES) {
+            run("spread", riders, Math.sqrt(riders / RIDERS_PER_KM2));
+        }
+        for (int riders : FLEET_SIZES) {
+            run("one city", riders, CITY_KM);
+        }
+    }
+
+    private static void run(String layout, int riders, double sideKm) {
+        SplittableRandom random = new SplittableRandom(riders);
+        double sideDegrees = sideKm / 111.2;
+        DispatchIndex index = new DispatchIndex();
+        double[][] positions = new double[riders][];
+        for (int i = 0; i < riders; i++) {
+            positions[i] = point(random, sideDegrees);
+            index.update(i, VEHICLES[i % VEHICLES.length], positions[i][0], positions[i][1], true);
+        }
+
+        double[][] queries = new double[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = point(random, sideDegrees);
+        }
+        for (int i = 0; i < CHECKED; i++) {
+            List<RiderCandidate> found = index.nearest(queries[i][0], queries[i][1], "bike", K);
+            assertEquals(bruteForce(positions, queries[i], K), found.stream().map(RiderCandidate::getEmpId).toList());
+        }
+
+        // Warm up, then time each lookup
+        for (int i = 0; i < QUERIES; i++) {
+            index.nearest(queries[i][0], queries[i][1], "bike", K);
+        }
+        long[] nanos = new long[QUERIES];
+        long found = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            long start = System.nanoTime();
+            found += index.nearest(queries[i][0], queries[i][1], "bike", K).size();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-8s %,8d riders over %4.0f km side: mean %6.2f us  p50 %6.2f us  p99 %7.2f us  (%.1f found)%n",
+                layout, riders, sideKm, Arrays.stream(nanos).average().orElse(0) / 1e3,
+                nanos[QUERIES / 2] / 1e3, nanos[(int) (QUERIES * 0.99)] / 1e3, (double) found / QUERIES);
+    }
+
+    private static double[] point(SplittableRandom random, double sideDegrees) {
+        return new double[] {
+                CENTER_LAT + (random.nextDouble() - 0.5) * sideDegrees,
+                CENTER_LON + (random.nextDouble() - 0.5) * sideDegrees };
+    }
+
+    // Reference answer: every bike within the index's radius, closest first
+    private static List<Long> bruteForce(double[][] positions, double[] query, int k) {
+        Long[] ids = new Long[positions.length / VEHICLES.length + 1];
+        int n = 0;
+        for (int i = 0; i < positions.length; i += VEHICLES.length) {
+            ids[n++] = (long) i;
+        }
+        Comparator<Long> byDistance = Comparator.comparingDouble(id -> distance(query, positions[id.intValue()]));
+        return Arrays.stream(ids, 0, n)
+                .filter(id -> distance(query, positions[id.intValue()]) <= DispatchIndex.MAX_RADIUS_METERS)
+                .sorted(byDistance)
+                .limit(k)
+                .toList();
+    }
+
+    private static double distance(double[] a, double[] b) {
+        double x = Math.toRadians(b[1] - a[1]) * Math.cos(Math.toRadians((a[0] + b[0]) / 2));
+        double y = Math.toRadians(b[0] - a[0]);
+        return Math.sqrt(x * x + y * y) * 6_371_000;
+    }
+}
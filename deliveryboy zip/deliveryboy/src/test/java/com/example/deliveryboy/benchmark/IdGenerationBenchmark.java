@@ -0,0 +1,125 @@
+package com.example.deliveryboy.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Rows per second for bill-shaped inserts with IDENTITY keys versus pooled sequence
+ * keys, issued the way Hibernate issues them: IDENTITY forces one INSERT per row with
+ * the generated key read back, pooled reserves a block of ids per sequence call and
+ * sends the INSERTs in JDBC batches.
+ *
+ * Opt-in: {@code mvn test -Dbenchmark=true -Dtest=IdGenerationBenchmark}. Runs against
+ * in-memory H2 unless {@code benchmark.jdbc.url} (plus {@code .user} / {@code .password})
+ * points at a PostgreSQL instance, which is where the difference really shows.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class IdGenerationBenchmark {
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 100_000);
+    private static final int ALLOCATION_SIZE = 50;
+    private static final int BATCH_SIZE = 500;
+
+    @Test
+    void identityVersusPooledSequence() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(
+                System.getProperty("benchmark.jdbc.url", "jdbc:h2:mem:idbench;MODE=PostgreSQL"),
+                System.getProperty("benchmark.jdbc.user", "sa"),
+                System.getProperty("benchmark.jdbc.password", ""))) {
+            connection.setAutoCommit(false);
+            createSchema(connection);
+
+            // Warm up both paths before measuring
+            insertIdentity(connection, ROWS / 10, "w");
+            insertPooled(connection, ROWS / 10, "w");
+
+            long identityNanos = time(() -> insertIdentity(connection, ROWS, "i"));
+            long pooledNanos = time(() -> insertPooled(connection, ROWS, "p"));
+
+            System.out.printf("IDENTITY: %,d rows in %,d ms = %,.0f rows/s%n",
+                    ROWS, identityNanos / 1_000_000, ROWS * 1e9 / identityNanos);
+            System.out.printf("POOLED(%d): %,d rows in %,d ms = %,.0f rows/s%n",
+                    ALLOCATION_SIZE, ROWS, pooledNanos / 1_000_000, ROWS * 1e9 / pooledNanos);
+        }
+    }
+
+    private static void createSchema(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists bench_identity_bill");
+            statement.execute("drop table if exists bench_pooled_bill");
+            statement.execute("drop sequence if exists bench_bill_seq");
+            statement.execute("create table bench_identity_bill (bill_id bigint generated by default as identity primary key,"
+                    + " amount numeric(10, 2) not null, transaction_id varchar(50) not null unique)");
+            statement.execute("create table bench_pooled_bill (bill_id bigint primary key,"
+                    + " amount numeric(10, 2) not null, transaction_id varchar(50) not null unique)");
+            statement.execute("create sequence bench_bill_seq increment by " + ALLOCATION_SIZE);
+        }
+        connection.commit();
+    }
+
+    private static void insertIdentity(Connection connection, int rows, String prefix) throws SQLException {
+        String sql = "insert into bench_identity_bill (amount, transaction_id) values (?, ?)";
+        try (PreparedStatement insert = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < rows; i++) {
+                insert.setBigDecimal(1, BigDecimal.valueOf(i % 10_000, 2));
+                insert.setString(2, prefix + i);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    keys.getLong(1);
+                }
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    connection.commit();
+                }
+            }
+        }
+        connection.commit();
+    }
+
+    private static void insertPooled(Connection connection, int rows, String prefix) throws SQLException {
+        String sql = "insert into bench_pooled_bill (bill_id, amount, transaction_id) values (?, ?, ?)";
+        try (PreparedStatement nextval = connection.prepareStatement("select nextval('bench_bill_seq')");
+                PreparedStatement insert = connection.prepareStatement(sql)) {
+            long hi = 0;
+            long next = 0;
+            for (int i = 0; i < rows; i++) {
+                if (next >= hi) {
+                    // Pooled optimizer: the sequence value is the upper bound of the reserved block
+                    try (ResultSet rs = nextval.executeQuery()) {
+                        rs.next();
+                        hi = rs.getLong(1) + ALLOCATION_SIZE;
+                        next = hi - ALLOCATION_SIZE;
+                    }
+                }
+                insert.setLong(1, next++);
+                insert.setBigDecimal(2, BigDecimal.valueOf(i % 10_000, 2));
+                insert.setString(3, prefix + i);
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+    }
+
+    private static long time(SqlRunnable work) throws SQLException {
+        long start = System.nanoTime();
+        work.run();
+        return System.nanoTime() - start;
+    }
+
+    @FunctionalInterface
+    private interface SqlRunnable {
+        void run() throws SQLException;
+    }
+}
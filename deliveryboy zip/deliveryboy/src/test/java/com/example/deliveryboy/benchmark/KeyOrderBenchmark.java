@@ -0,0 +1,140 @@
+package com.example.deliveryboy.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.example.deliveryboy.id.TimeOrderedIdGenerator;
+
+/**
+ * Rows per second and primary key size for order-shaped inserts keyed by random client
+ * strings versus {@link TimeOrderedIdGenerator} ids. Random keys land all over the
+ * B-tree, splitting pages that are then left half full; time-ordered keys append at the
+ * right edge. Random keys are tried at the generated 13 characters too, so the
+ * difference is down to order and not length.
+ *
+ * Opt-in: {@code mvn test -Dbenchmark=true -Dtest=KeyOrderBenchmark}. Runs against a
+ * file H2 database under {@code target/} and reports its size on disk, unless
+ * {@code benchmark.jdbc.url} (plus {@code .user} / {@code .password}) points at a
+ * PostgreSQL instance, where the index size comes from {@code pg_relation_size}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class KeyOrderBenchmark {
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 500_000);
+    private static final int BATCH_SIZE = 500;
+    private static final char[] ALPHANUMERIC = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    @Test
+    void randomVersusTimeOrderedKeys() throws SQLException, IOException {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(1);
+        run("random-uuid", () -> UUID.randomUUID().toString().replace("-", "").substring(0, 20));
+        run("random-13", () -> randomKey(TimeOrderedIdGenerator.LENGTH));
+        run("time-ordered", generator::next);
+    }
+
+    private static void run(String name, Supplier<String> keys) throws SQLException, IOException {
+        String url = System.getProperty("benchmark.jdbc.url");
+        boolean postgres = url != null && url.startsWith("jdbc:postgresql:");
+        Path dir = Path.of("target", "key-order-bench", name);
+        if (url == null) {
+            deleteRecursively(dir);
+            url = "jdbc:h2:file:./" + dir.resolve("db").toString().replace('\\', '/') + ";MODE=PostgreSQL";
+        }
+        try (Connection connection = DriverManager.getConnection(url,
+                System.getProperty("benchmark.jdbc.user", "sa"),
+                System.getProperty("benchmark.jdbc.password", ""))) {
+            connection.setAutoCommit(false);
+            String table = "bench_order_" + name.replace('-', '_');
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("drop table if exists " + table);
+                statement.execute("create table " + table + " (order_id varchar(20) primary key,"
+                        + " order_details varchar(255), delivery_address varchar(255), user_id varchar(20))");
+            }
+            connection.commit();
+
+            long nanos = insert(connection, table, ROWS, keys);
+            System.out.printf("%-13s %,10.0f rows/s  %s%n", name, ROWS / (nanos / 1e9),
+                    postgres ? sizes(connection, table) : "db file " + h2Size(connection, dir) / 1024 + " KiB");
+        }
+    }
+
+    private static long insert(Connection connection, String table, int rows, Supplier<String> keys) throws SQLException {
+        String sql = "insert into " + table + " (order_id, order_details, delivery_address, user_id) values (?, ?, ?, ?)";
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            for (int i = 0; i < rows; i++) {
+                insert.setString(1, keys.get());
+                insert.setString(2, "2 x margherita, 1 x garlic bread #" + i);
+                insert.setString(3, (i % 500) + " Main Street");
+                insert.setString(4, "U" + (i % 1000));
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        return System.nanoTime() - start;
+    }
+
+    private static String sizes(Connection connection, String table) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(
+                "select pg_relation_size(?), pg_relation_size(?)")) {
+            query.setString(1, table + "_pkey");
+            query.setString(2, table);
+            try (ResultSet rs = query.executeQuery()) {
+                rs.next();
+                return "pkey " + rs.getLong(1) / 1024 + " KiB, heap " + rs.getLong(2) / 1024 + " KiB";
+            }
+        }
+    }
+
+    // H2 keeps table and index in one file that only grows; compacting it on shutdown leaves the live pages
+    private static long h2Size(Connection connection, Path dir) throws SQLException, IOException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("shutdown compact");
+        }
+        try (var files = Files.list(dir)) {
+            long total = 0;
+            for (Path file : files.toList()) {
+                total += Files.size(file);
+            }
+            return total;
+        }
+    }
+
+    private static String randomKey(int length) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = ALPHANUMERIC[random.nextInt(ALPHANUMERIC.length)];
+        }
+        return new String(chars);
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (var paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
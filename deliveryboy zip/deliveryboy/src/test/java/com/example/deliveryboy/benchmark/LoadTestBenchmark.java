@@ -0,0 +1,285 @@
+package com.example.deliveryboy.benchmark;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sql.DataSource;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import com.example.deliveryboy.DeliveryboyApplication;
+import com.example.deliveryboy.id.PooledSequenceGenerator;
+
+/**
+ * Pre-release load test of the REST API under the production mix: 70% {@code GET /deliveries/{id}},
+ * 20% {@code POST /orders} and 10% {@code POST /bills/create}. Boots the application on a
+ * random port against an H2 file database in PostgreSQL mode, so nothing outside the JVM
+ * is needed, and seeds {@code benchmark.rows} users, orders, deliveries and bills (1M each
+ * by default) plus riders through JDBC batches.
+ *
+ * The load is an open model: requests start at {@code benchmark.rate} per second on a
+ * fixed schedule whether or not earlier ones have finished, as independent users would
+ * send them. Latency is taken from each request's scheduled start, so a stall counts for
+ * every request that should have gone out during it (corrected for coordinated
+ * omission); the service time from the actual send is reported next to it. Percentiles
+ * come from HdrHistogram, which is on the classpath through Micrometer.
+ *
+ * Opt-in: {@code mvn test -Dbenchmark=true -Dtest=LoadTestBenchmark}, with
+ * {@code benchmark.rate}, {@code benchmark.seconds}, {@code benchmark.warmup} and
+ * {@code benchmark.rows} to size the run. {@code benchmark.jdbc.url} (plus {@code .user} /
+ * {@code .password}) points it at a PostgreSQL instance instead. The generator shares the
+ * machine with the application, so leave it cores of its own when sizing the rate.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LoadTestBenchmark {
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final int USERS = ROWS;
+    private static final int RIDERS = Math.min(ROWS, 10_000);
+    private static final int RATE = Integer.getInteger("benchmark.rate", 500);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 60);
+    private static final int WARMUP_SECONDS = Integer.getInteger("benchmark.warmup", 20);
+    private static final int SEED_BATCH = 5_000;
+    private static final Path DATABASE_DIR = Path.of("target", "loadtest-db");
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    private enum Endpoint {
+        GET_DELIVERY("GET /deliveries/{id}"),
+        CREATE_ORDER("POST /orders"),
+        CREATE_BILL("POST /bills/create");
+
+        private final String label;
+
+        Endpoint(String label) {
+            this.label = label;
+        }
+    }
+
+    @Test
+    void releaseMix() throws Exception {
+        String url = System.getProperty("benchmark.jdbc.url");
+        if (url == null) {
+            FileSystemUtils.deleteRecursively(DATABASE_DIR);
+            url = "jdbc:h2:file:./" + DATABASE_DIR + "/db;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+        }
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DeliveryboyApplication.class).run(
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--logging.file.name=target/loadtest.log",
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + System.getProperty("benchmark.jdbc.user", "sa"),
+                "--spring.datasource.password=" + System.getProperty("benchmark.jdbc.password", ""))) {
+            long seedStart = System.nanoTime();
+            seed(new JdbcTemplate(context.getBean(DataSource.class)));
+            System.out.printf("Seeded %,d users, %,d riders and %,d orders, deliveries and bills in %d s%n",
+                    USERS, RIDERS, ROWS, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - seedStart));
+
+            String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            drive(base, WARMUP_SECONDS);
+            Map<Endpoint, Stats> stats = drive(base, SECONDS);
+            System.out.printf("Open model at %,d req/s for %d s (after %d s warmup)%n", RATE, SECONDS, WARMUP_SECONDS);
+            Stats total = new Stats();
+            for (Endpoint endpoint : Endpoint.values()) {
+                stats.get(endpoint).print(endpoint.label, SECONDS);
+                total.add(stats.get(endpoint));
+            }
+            total.print("all", SECONDS);
+        }
+    }
+
+    // Sends the mix on a fixed schedule for the given time, then waits for the stragglers
+    private Map<Endpoint, Stats> drive(String base, int seconds) throws InterruptedException {
+        Map<Endpoint, Stats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new Stats());
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        AtomicInteger outstanding = new AtomicInteger();
+        long interval = TimeUnit.SECONDS.toNanos(1) / RATE;
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        for (long n = 0; start + n * interval < end; n++) {
+            long scheduled = start + n * interval;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            int pick = random.nextInt(100);
+            Endpoint endpoint = pick < 70 ? Endpoint.GET_DELIVERY : pick < 90 ? Endpoint.CREATE_ORDER : Endpoint.CREATE_BILL;
+            HttpRequest request = request(base, endpoint, random);
+            Stats target = stats.get(endpoint);
+            outstanding.incrementAndGet();
+            long sent = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                target.record(scheduled, sent, System.nanoTime(), error == null && response.statusCode() < 400);
+                outstanding.decrementAndGet();
+            });
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (outstanding.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return stats;
+    }
+
+    private HttpRequest request(String base, Endpoint endpoint, SplittableRandom random) {
+        int n = sequence.incrementAndGet();
+        HttpRequest.Builder builder = switch (endpoint) {
+            case GET_DELIVERY -> HttpRequest.newBuilder(URI.create(base + "/deliveries/" + deliveryId(random.nextInt(ROWS))));
+            case CREATE_ORDER -> HttpRequest.newBuilder(URI.create(base + "/orders"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"orderId\":\"LT" + n
+                            + "\",\"orderDetails\":\"1x thali\",\"deliveryAddress\":\"12, MG Road\",\"user\":{\"userId\":\""
+                            + userId(random.nextInt(USERS)) + "\"}}"));
+            case CREATE_BILL -> HttpRequest.newBuilder(URI.create(base + "/bills/create"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"order\":{\"orderId\":\"" + orderId(random.nextInt(ROWS))
+                            + "\"},\"amount\":249.00,\"transactionId\":\"LT-" + n + "\"}"));
+        };
+        return builder.timeout(Duration.ofSeconds(30)).build();
+    }
+
+    private static void seed(JdbcTemplate jdbc) {
+        insert(jdbc, "insert into users (user_id, name, email, phone_num, version) values (?, ?, ?, ?, 0)", USERS,
+                (ps, i) -> {
+                    ps.setString(1, userId(i));
+                    ps.setString(2, "User " + i);
+                    ps.setString(3, "user" + i + "@example.com");
+                    ps.setString(4, String.format("9%09d", i));
+                });
+        insert(jdbc, "insert into delivery_boy (emp_id, ename, email, vehicle, phone_number, version)"
+                + " values (?, ?, ?, ?, ?, 0)", RIDERS, (ps, i) -> {
+                    ps.setLong(1, i + 1);
+                    ps.setString(2, "Rider " + i);
+                    ps.setString(3, "rider" + i + "@example.com");
+                    ps.setString(4, i % 2 == 0 ? "bike" : "scooter");
+                    ps.setString(5, String.format("8%09d", i));
+                });
+        insert(jdbc, "insert into orders (order_id, order_details, delivery_address, user_id, latitude, longitude, version)"
+                + " values (?, ?, ?, ?, ?, ?, 0)", ROWS, (ps, i) -> {
+                    ps.setString(1, orderId(i));
+                    ps.setString(2, "2x masala dosa, 1x filter coffee");
+                    ps.setString(3, i + ", 4th Cross, Indiranagar, Bengaluru 560038");
+                    ps.setString(4, userId(i % USERS));
+                    ps.setDouble(5, 12.9 + (i % 1000) * 0.0002);
+                    ps.setDouble(6, 77.5 + (i % 1000) * 0.0002);
+                });
+        insert(jdbc, "insert into delivery (delivery_id, user_id, order_id, emp_id, delivery_status, version)"
+                + " values (?, ?, ?, ?, ?, 0)", ROWS, (ps, i) -> {
+                    ps.setString(1, deliveryId(i));
+                    ps.setString(2, userId(i % USERS));
+                    ps.setString(3, orderId(i));
+                    ps.setLong(4, i % RIDERS + 1);
+                    ps.setBoolean(5, i % 4 != 0);
+                });
+        insert(jdbc, "insert into bill (bill_id, order_id, amount, transaction_id, version) values (?, ?, ?, ?, 0)", ROWS,
+                (ps, i) -> {
+                    ps.setLong(1, i + 1);
+                    ps.setString(2, orderId(i));
+                    ps.setBigDecimal(3, BigDecimal.valueOf(10_000 + i % 90_000, 2));
+                    ps.setString(4, "SEED-" + i);
+                });
+        // The pooled optimizer hands out the block below the value it reads, so start one block past the seeded ids
+        int block = PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE;
+        jdbc.execute("alter sequence bill_seq restart with " + (ROWS + block));
+        jdbc.execute("alter sequence delivery_boy_seq restart with " + (RIDERS + block));
+    }
+
+    private static void insert(JdbcTemplate jdbc, String sql, int count, Row row) {
+        for (int from = 0; from < count; from += SEED_BATCH) {
+            int first = from;
+            int size = Math.min(SEED_BATCH, count - from);
+            jdbc.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    row.set(ps, first + i);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            });
+        }
+    }
+
+    private static String userId(int i) {
+        return "U" + i;
+    }
+
+    private static String orderId(int i) {
+        return "O" + i;
+    }
+
+    private static String deliveryId(int i) {
+        return "D" + i;
+    }
+
+    @FunctionalInterface
+    private interface Row {
+        void set(PreparedStatement ps, int i) throws SQLException;
+    }
+
+    // Latencies in nanoseconds from the scheduled start and from the send; failed calls are counted, not timed
+    private static class Stats {
+        private final Histogram latency = new ConcurrentHistogram(3);
+        private final Histogram service = new ConcurrentHistogram(3);
+        private final LongAdder errors = new LongAdder();
+
+        void record(long scheduled, long sent, long done, boolean ok) {
+            if (!ok) {
+                errors.increment();
+                return;
+            }
+            latency.recordValue(done - scheduled);
+            service.recordValue(done - sent);
+        }
+
+        void add(Stats other) {
+            latency.add(other.latency);
+            service.add(other.service);
+            errors.add(other.errors.sum());
+        }
+
+        void print(String label, int seconds) {
+            System.out.printf("%-22s %,9.0f req/s  p50 %8.2f  p90 %8.2f  p99 %8.2f  p99.9 %8.2f  max %8.2f ms"
+                    + "  (service p99 %8.2f ms)  errors %,d%n",
+                    label, latency.getTotalCount() / (double) seconds, millis(latency, 50), millis(latency, 90),
+                    millis(latency, 99), millis(latency, 99.9), latency.getMaxValue() / 1e6, millis(service, 99),
+                    errors.sum());
+        }
+
+        private static double millis(Histogram histogram, double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1e6;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.deliveryboy.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.util.FileSystemUtils;
+
+import com.example.deliveryboy.response.CursorPage;
+import com.example.deliveryboy.response.OrderSearchHit;
+import com.example.deliveryboy.service.OrderSearchIndex;
+
+/**
+ * Query latency of the order search index on disk. Indexes {@code benchmark.orders}
+ * synthetic orders (default 1M; dishes and Bengaluru addresses drawn from small
+ * vocabularies, so common words match a large share of the index, as in production),
+ * then times exact, prefix, fuzzy and two-word searches for the first page and a deep
+ * page, with and without the user filter.
+ *
+ * Opt-in: {@code mvn test -Dbenchmark=true -Dtest=OrderSearchBenchmark -Dbenchmark.orders=10000000}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OrderSearchBenchmark {
+    private static final int ORDERS = Integer.getInteger("benchmark.orders", 1_000_000);
+    private static final int USERS = 100_000;
+    private static final int QUERIES = 500;
+    private static final int PAGE = CursorPage.DEFAULT_SIZE;
+    private static final String[] DISHES = { "masala dosa", "idli vada", "paneer butter masala", "veg biryani",
+            "chicken biryani", "filter coffee", "gobi manchurian", "bisi bele bath", "rava kesari", "mysore pak",
+            "butter naan", "dal makhani", "hakka noodles", "ghee roast", "mango lassi", "akki roti" };
+    private static final String[] AREAS = { "Indiranagar", "Koramangala", "Jayanagar", "Whitefield", "Malleshwaram",
+            "Basavanagudi", "HSR Layout", "Electronic City", "Hebbal", "Banashankari", "Yelahanka", "Marathahalli" };
+    private static final String[] STREETS = { "Cross", "Main", "Road", "Block", "Stage", "Sector" };
+    private static final String[][] QUERY_MIX = {
+            { "exact", "biryani" }, { "exact", "koramangala" }, { "prefix", "manch" }, { "prefix", "white" },
+            { "fuzzy", "biriyani" }, { "fuzzy", "jayanagr" }, { "two words", "dosa indiranagar" },
+            { "two words", "ghee hebbal" } };
+
+    @Test
+    void queryLatency() throws IOException {
+        Path dir = Path.of("target", "search-benchmark-index");
+        FileSystemUtils.deleteRecursively(dir);
+        Files.createDirectories(dir);
+        OrderSearchIndex index = new OrderSearchIndex(dir.toString());
+        SplittableRandom random = new SplittableRandom(42);
+        long start = System.nanoTime();
+        for (int i = 0; i < ORDERS; i++) {
+            String details = random.nextInt(1, 4) + "x " + DISHES[random.nextInt(DISHES.length)] + ", "
+                    + DISHES[random.nextInt(DISHES.length)];
+            String address = random.nextInt(1, 400) + ", " + random.nextInt(1, 30) + " "
+                    + STREETS[random.nextInt(STREETS.length)] + ", " + AREAS[random.nextInt(AREAS.length)]
+                    + ", Bengaluru 5600" + random.nextInt(10, 99);
+            index.index(String.format("ORD%09d", i), "U" + random.nextInt(USERS), details, address);
+        }
+        index.commit();
+        index.refresh();
+        System.out.printf("Indexed %,d orders in %,d ms%n", index.size(), (System.nanoTime() - start) / 1_000_000);
+
+        for (String[] query : QUERY_MIX) {
+            run(index, query[0], query[1], null, false);
+            run(index, query[0], query[1], null, true);
+            run(index, query[0], query[1], "U" + random.nextInt(USERS), false);
+        }
+    }
+
+    private static void run(OrderSearchIndex index, String kind, String text, String userId, boolean deep) {
+        String cursor = null;
+        if (deep) {  // Tenth page: the cursor makes it a searchAfter, not an offset
+            for (int i = 0; i < 9; i++) {
+                cursor = index.search(text, userId, cursor, PAGE).getNextCursor();
+            }
+        }
+        long[] nanos = new long[QUERIES];
+        int hits = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            long start = System.nanoTime();
+            CursorPage<OrderSearchHit> page = index.search(text, userId, cursor, PAGE);
+            nanos[i] = System.nanoTime() - start;
+            hits = page.getSize();
+        }
+        Arrays.sort(nanos);
+        if (userId == null) {
+            assertFalse(hits == 0, "no hits for " + text);
+        }
+        System.out.printf("%-9s %-18s %-10s %-6s p50 %6.2f ms  p99 %6.2f ms  (%d hits)%n", kind, "\"" + text + "\"",
+                userId == null ? "" : "user", deep ? "page10" : "page1", nanos[QUERIES / 2] / 1e6,
+                nanos[QUERIES * 99 / 100] / 1e6, hits);
+    }
+}
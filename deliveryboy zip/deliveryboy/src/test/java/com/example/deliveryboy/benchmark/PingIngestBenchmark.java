@@ -0,0 +1,78 @@
+package com.example.deliveryboy.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.example.deliveryboy.service.PositionBuffer;
+
+/**
+ * Sustained ping rate of the in-memory side of the ingest pipeline: {@code benchmark.threads}
+ * writers record pings for 100k riders into a {@link PositionBuffer} while a drainer
+ * empties it once a second, as the scheduled flush does. Reports pings per second, how
+ * many coalesced before a drain, the largest drain, and heap in use, which should level
+ * off at the rider count rather than grow with the number of pings.
+ *
+ * Opt-in: {@code mvn test -Dbenchmark=true -Dtest=PingIngestBenchmark}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PingIngestBenchmark {
+    private static final int RIDERS = 100_000;
+    private static final int THREADS = Integer.getInteger("benchmark.threads",
+            Math.max(2, Runtime.getRuntime().availableProcessors()));
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 10);
+
+    @Test
+    void sustainedPingRate() throws Exception {
+        PositionBuffer buffer = new PositionBuffer(RIDERS);
+        for (long empId = 0; empId < RIDERS; empId++) {
+            buffer.register(empId);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS + 1);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int seed = t;
+            writers.add(pool.submit(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                while (System.nanoTime() < deadline) {
+                    long now = System.currentTimeMillis();
+                    for (int i = 0; i < 1_000; i++) {
+                        buffer.record(random.nextInt(RIDERS), 12.9 + random.nextDouble() * 0.2,
+                                77.5 + random.nextDouble() * 0.2, now, now);
+                    }
+                }
+            }));
+        }
+        Future<long[]> drainer = pool.submit(() -> {
+            long maxDrain = 0;
+            long drained = 0;
+            while (System.nanoTime() < deadline) {
+                Thread.sleep(1_000);
+                int size = buffer.drain().size();
+                maxDrain = Math.max(maxDrain, size);
+                drained += size;
+            }
+            return new long[] { maxDrain, drained };
+        });
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        long[] drains = drainer.get();
+        pool.shutdown();
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        System.out.printf("%d writer threads: %,.0f pings/s  stale %,d  coalesced %,d  drained %,d (max %,d per drain)"
+                + "  pending %,d  heap used %,d MB%n",
+                THREADS, buffer.receivedCount() / (double) SECONDS, buffer.staleCount(), buffer.coalescedCount(),
+                drains[1], drains[0], buffer.pendingCount(), (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.deliveryboy.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.deliveryboy.DeliveryboyApplication;
+
+/**
+ * Throughput and latency percentiles for {@code GET /orders/{id}} and {@code POST /orders}
+ * with Tomcat on its platform thread pool versus the {@code virtual} profile. Each mode
+ * boots its own application on a random port and database, seeds orders through
+ * {@code /orders/batch}, then drives a closed loop of {@code benchmark.clients}
+ * concurrent callers for {@code benchmark.seconds}.
+ *
+ * Opt-in: {@code mvn test -Dbenchmark=true -Dtest=ThreadModeBenchmark}. Runs against
+ * in-memory H2 unless {@code benchmark.jdbc.url} (plus {@code .user} / {@code .password})
+ * points at a PostgreSQL instance; only with real network round trips to the database
+ * do request threads spend most of their time blocked, which is the case being measured.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ThreadModeBenchmark {
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 1_000);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 20);
+    private static final int SEED_ORDERS = 10_000;
+    private static final int SEED_BATCH = 1_000;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        run("platform", false);
+        run("virtual", true);
+    }
+
+    private void run(String mode, boolean virtual) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(DeliveryboyApplication.class)
+                .properties("server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "spring.datasource.url=" + System.getProperty("benchmark.jdbc.url",
+                                "jdbc:h2:mem:threadbench_" + mode + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE"),
+                        "spring.datasource.username=" + System.getProperty("benchmark.jdbc.user", "sa"),
+                        "spring.datasource.password=" + System.getProperty("benchmark.jdbc.password", ""));
+        if (virtual) {
+            builder.profiles("virtual");
+        }
+        try (ConfigurableApplicationContext context = builder.run()) {
+            String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            String prefix = virtual ? "v" : "p";
+            seed(base, prefix);
+
+            // Warm up both endpoints before measuring
+            measure(base, prefix + "w", Math.max(1, SECONDS / 4));
+            Result[] results = measure(base, prefix + "m", SECONDS);
+            results[0].print(mode, "GET /orders/{id}");
+            results[1].print(mode, "POST /orders");
+        }
+    }
+
+    private void seed(String base, String prefix) throws Exception {
+        for (int from = 0; from < SEED_ORDERS; from += SEED_BATCH) {
+            StringBuilder body = new StringBuilder();
+            for (int i = from; i < from + SEED_BATCH; i++) {
+                body.append("{\"orderId\":\"").append(prefix).append('s').append(i)
+                        .append("\",\"orderDetails\":\"seed\",\"deliveryAddress\":\"addr\"}\n");
+            }
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(base + "/orders/batch"))
+                    .header("Content-Type", "application/x-ndjson")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed with HTTP " + response.statusCode());
+            }
+        }
+    }
+
+    // Every client alternates reads and writes; returns {reads, writes}
+    private Result[] measure(String base, String runId, int seconds) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong sequence = new AtomicLong();
+        List<Future<long[][]>> futures = new ArrayList<>(CLIENTS);
+        long start = System.nanoTime();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                int clientId = c;
+                futures.add(callers.submit(() -> {
+                    LatencyLog reads = new LatencyLog();
+                    LatencyLog writes = new LatencyLog();
+                    int n = clientId;
+                    while (System.nanoTime() < deadline) {
+                        String orderId = runId.charAt(0) + "s" + (n++ % SEED_ORDERS);
+                        reads.time(() -> call(HttpRequest.newBuilder(URI.create(base + "/orders/" + orderId)).GET()));
+                        String body = "{\"orderId\":\"" + runId + sequence.incrementAndGet()
+                                + "\",\"orderDetails\":\"bench\",\"deliveryAddress\":\"addr\"}";
+                        writes.time(() -> call(HttpRequest.newBuilder(URI.create(base + "/orders"))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(body))));
+                    }
+                    return new long[][] { reads.toArray(), writes.toArray() };
+                }));
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        Result reads = new Result(elapsedSeconds);
+        Result writes = new Result(elapsedSeconds);
+        for (Future<long[][]> future : futures) {
+            long[][] latencies = future.get();
+            reads.add(latencies[0]);
+            writes.add(latencies[1]);
+        }
+        return new Result[] { reads, writes };
+    }
+
+    private boolean call(HttpRequest.Builder request) throws Exception {
+        return client.send(request.timeout(Duration.ofSeconds(30)).build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        boolean run() throws Exception;
+    }
+
+    // Per-client latency samples in nanoseconds; failed calls are counted, not timed
+    private static class LatencyLog {
+        private long[] samples = new long[1024];
+        private int count;
+        private int errors;
+
+        void time(Call call) {
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                ok = call.run();
+            } catch (Exception ex) {
+                ok = false;
+            }
+            if (!ok) {
+                errors++;
+                return;
+            }
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = System.nanoTime() - start;
+        }
+
+        long[] toArray() {
+            long[] result = Arrays.copyOf(samples, count + 1);
+            result[count] = -errors;  // Errors ride along as a trailing negative entry
+            return result;
+        }
+    }
+
+    private static class Result {
+        private final double elapsedSeconds;
+        private final List<long[]> parts = new ArrayList<>();
+        private long errors;
+
+        Result(double elapsedSeconds) {
+            this.elapsedSeconds = elapsedSeconds;
+        }
+
+        void add(long[] latencies) {
+            errors -= latencies[latencies.length - 1];
+            parts.add(Arrays.copyOf(latencies, latencies.length - 1));
+        }
+
+        void print(String mode, String endpoint) {
+            long[] all = parts.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            System.out.printf("%-8s %-18s %,10.0f req/s  p50 %7.2f ms  p99 %8.2f ms  errors %,d%n",
+                    mode, endpoint, all.length / elapsedSeconds,
+                    percentile(all, 0.50) / 1e6, percentile(all, 0.99) / 1e6, errors);
+        }
+
+        private static long percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.deliveryboy.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.example.deliveryboy.entity.OrderRow;
+import com.example.deliveryboy.repository.KeysetFlux;
+import com.example.deliveryboy.response.CursorPage;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ReactiveOrderControllerTests {
+    private static final int ORDERS = 2 * KeysetFlux.PAGE_SIZE + 100;  // Two full pages and a partial one
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final List<String> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("insert into users (user_id, name, email, phone_num, version) values"
+                + " ('rk-a', 'A', 'a@example.com', '9000000001', 0), ('rk-b', 'B', 'b@example.com', '9000000002', 0)");
+        IntStream.range(0, ORDERS).forEach(i -> orderIds.add(String.format("rk-%04d", i)));
+        jdbc.batchUpdate("insert into orders (order_id, order_details, delivery_address, user_id, version)"
+                + " values (?, 'details', 'address', ?, 0)",
+                IntStream.range(0, ORDERS).mapToObj(i -> new Object[] { orderIds.get(i), i % 2 == 0 ? "rk-a" : "rk-b" })
+                        .toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.update("delete from orders where order_id like 'rk-%'");
+        jdbc.update("delete from users where user_id like 'rk-%'");
+    }
+
+    @Test
+    void streamWalksEveryPageInKeyOrder() {
+        assertThat(stream("/reactive/orders")).extracting(OrderRow::orderId).containsExactlyElementsOf(orderIds);
+    }
+
+    @Test
+    void cursorContinuesAfterTheLastSeenOrder() {
+        // Exactly one full page remains, so the stream ends on an empty page query
+        String cursor = CursorPage.encode(orderIds.get(ORDERS - KeysetFlux.PAGE_SIZE - 1));
+
+        assertThat(stream("/reactive/orders?cursor=" + cursor)).extracting(OrderRow::orderId)
+                .containsExactlyElementsOf(orderIds.subList(ORDERS - KeysetFlux.PAGE_SIZE, ORDERS));
+    }
+
+    @Test
+    void userFilterPagesOnTheUsersOwnKeys() {
+        List<OrderRow> rows = stream("/reactive/orders?userId=rk-b");
+
+        assertThat(rows).hasSize(ORDERS / 2).allSatisfy(row -> assertThat(row.userId()).isEqualTo("rk-b"));
+        assertThat(rows).extracting(OrderRow::orderId).isSorted();
+    }
+
+    private List<OrderRow> stream(String uri) {
+        return client.get().uri(uri).accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(OrderRow.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.deliveryboy.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class TimeOrderedIdGeneratorTests {
+    private static final long START = TimeOrderedIdGenerator.EPOCH.toEpochMilli() + 86_400_000L * 1_000;
+
+    private final AtomicLong clock = new AtomicLong(START);
+
+    @Test
+    void encodeAndDecodeRoundTrip() {
+        Random random = new Random(3);
+        for (int i = 0; i < 100_000; i++) {
+            long id = random.nextLong();
+            String encoded = TimeOrderedIdGenerator.encode(id);
+
+            assertThat(encoded).hasSize(TimeOrderedIdGenerator.LENGTH);
+            assertThat(TimeOrderedIdGenerator.decode(encoded)).isEqualTo(id);
+            assertThat(TimeOrderedIdGenerator.decode(encoded.toLowerCase())).isEqualTo(id);
+        }
+        assertThat(TimeOrderedIdGenerator.decode(TimeOrderedIdGenerator.encode(0))).isZero();
+        assertThat(TimeOrderedIdGenerator.decode(TimeOrderedIdGenerator.encode(Long.MAX_VALUE))).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void decodeRejectsMalformedIds() {
+        assertThatThrownBy(() -> TimeOrderedIdGenerator.decode(null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TimeOrderedIdGenerator.decode("0123")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TimeOrderedIdGenerator.decode("0000000000000U")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TimeOrderedIdGenerator.decode("000000000000U")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void lexicalOrderMatchesNumericOrder() {
+        Random random = new Random(5);
+        for (int i = 0; i < 100_000; i++) {
+            long a = random.nextLong() >>> (1 + random.nextInt(63));  // Generated ids never set the sign bit
+            long b = random.nextLong() >>> (1 + random.nextInt(63));
+            int lexical = TimeOrderedIdGenerator.encode(a).compareTo(TimeOrderedIdGenerator.encode(b));
+
+            assertThat(Integer.signum(lexical)).as("%d vs %d", a, b).isEqualTo(Long.signum(Long.compare(a, b)));
+        }
+    }
+
+    @Test
+    void idsRiseStrictlyWithinOneMillisecond() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(9, clock::get);
+
+        long previous = generator.nextLong();
+        for (int i = 1; i < 10_000; i++) {
+            long id = generator.nextLong();
+            assertThat(id).isGreaterThan(previous);
+            assertThat(TimeOrderedIdGenerator.nodeOf(id)).isEqualTo(9);
+            previous = id;
+        }
+        // 4096 per millisecond, so the last of 10,000 has borrowed two milliseconds ahead
+        assertThat(TimeOrderedIdGenerator.timestampOf(previous).toEpochMilli()).isEqualTo(START + 2);
+    }
+
+    @Test
+    void idsRiseStrictlyAcrossAClockStepBack() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(9, clock::get);
+
+        String before = generator.next();
+        clock.addAndGet(-60_000);
+        String after = generator.next();
+        clock.addAndGet(120_000);
+        String later = generator.next();
+
+        assertThat(after).isGreaterThan(before);
+        assertThat(later).isGreaterThan(after);
+        assertThat(TimeOrderedIdGenerator.timestampOf(TimeOrderedIdGenerator.decode(after)).toEpochMilli()).isEqualTo(START);
+        assertThat(TimeOrderedIdGenerator.timestampOf(TimeOrderedIdGenerator.decode(later)).toEpochMilli())
+                .isEqualTo(START + 60_000);
+    }
+
+    @Test
+    void nodeAndTimestampAreRecoveredFromTheId() {
+        clock.set(TimeOrderedIdGenerator.EPOCH.toEpochMilli() + 12_345);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(TimeOrderedIdGenerator.MAX_NODE, clock::get);
+
+        long id = TimeOrderedIdGenerator.decode(generator.next());
+
+        assertThat(TimeOrderedIdGenerator.nodeOf(id)).isEqualTo(TimeOrderedIdGenerator.MAX_NODE);
+        assertThat(TimeOrderedIdGenerator.timestampOf(id)).isEqualTo(TimeOrderedIdGenerator.EPOCH.plusMillis(12_345));
+        assertThat(TimeOrderedIdGenerator.nodeOf(new TimeOrderedIdGenerator(0, clock::get).nextLong())).isZero();
+    }
+
+    @Test
+    void nodeIdOutOfRangeIsRejected() {
+        assertThatThrownBy(() -> new TimeOrderedIdGenerator(TimeOrderedIdGenerator.MAX_NODE + 1, clock::get))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
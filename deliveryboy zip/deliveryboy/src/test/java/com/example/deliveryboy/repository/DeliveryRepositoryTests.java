@@ -0,0 +1,69 @@
+package com.example.deliveryboy.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import com.example.deliveryboy.entity.Delivery;
+import com.example.deliveryboy.entity.DeliveryBoy;
+import com.example.deliveryboy.entity.Order;
+import com.example.deliveryboy.entity.User;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class DeliveryRepositoryTests {
+    private static final int ROWS = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ROWS; i++) {
+            User user = entityManager.persist(new User("u" + i, "User " + i, "user" + i + "@example.com", "900000000" + i));
+            Order order = entityManager.persist(new Order("o" + i, "details " + i, "address " + i, user));
+            DeliveryBoy deliveryBoy = new DeliveryBoy();
+            deliveryBoy.setEname("Rider " + i);
+            deliveryBoy.setEmail("rider" + i + "@example.com");
+            deliveryBoy.setVehicle("bike");
+            deliveryBoy.setPhoneNumber("800000000" + i);
+            entityManager.persist(deliveryBoy);
+            entityManager.persist(new Delivery("d" + i, user, order, deliveryBoy, false));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listingLoadsWholeGraphInOneStatement() {
+        List<Delivery> page = deliveryRepository.findPageAfter("", null, null, null, Limit.of(ROWS));
+
+        assertThat(page).hasSize(ROWS);
+        assertThat(page).allSatisfy(d -> {
+            assertThat(Hibernate.isInitialized(d.getUser())).isTrue();
+            assertThat(Hibernate.isInitialized(d.getOrder().getUser())).isTrue();
+            assertThat(Hibernate.isInitialized(d.getDeliveryBoy())).isTrue();
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.deliveryboy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.deliveryboy.response.RiderCandidate;
+
+class AuctionSolverTests {
+
+    @Test
+    void solveIsWithinEpsilonOfTheOptimum() {
+        Random random = new Random(11);
+        for (int run = 0; run < 2_000; run++) {
+            int orders = 1 + random.nextInt(6);
+            int riders = 1 + random.nextInt(6);
+            List<List<RiderCandidate>> candidates = new ArrayList<>(orders);
+            for (int i = 0; i < orders; i++) {
+                List<RiderCandidate> list = new ArrayList<>();
+                for (long empId = 0; empId < riders; empId++) {
+                    if (random.nextInt(3) > 0) {
+                        list.add(candidate(empId, random.nextDouble() * DispatchIndex.MAX_RADIUS_METERS));
+                    }
+                }
+                candidates.add(list);
+            }
+
+            RiderCandidate[] won = AuctionSolver.solve(candidates);
+
+            assertThat(won).hasSize(orders);
+            Set<Long> taken = new HashSet<>();
+            for (int i = 0; i < orders; i++) {
+                if (won[i] != null) {
+                    assertThat(candidates.get(i)).contains(won[i]);
+                    assertThat(taken.add(won[i].getEmpId())).as("rider %d assigned twice", won[i].getEmpId()).isTrue();
+                }
+            }
+            assertThat(cost(won)).isLessThanOrEqualTo(optimum(candidates, 0, new HashSet<>()) + orders * AuctionSolver.EPSILON_METERS);
+        }
+    }
+
+    @Test
+    void singleCandidateGoesToTheCloserOrder() {
+        RiderCandidate far = candidate(1, 900);
+        RiderCandidate near = candidate(1, 300);
+
+        RiderCandidate[] won = AuctionSolver.solve(List.of(List.of(far), List.of(near)));
+
+        assertThat(won).containsExactly(null, near);
+    }
+
+    @Test
+    void singleOrderTakesItsOnlyCandidate() {
+        RiderCandidate only = candidate(4, 24_000);
+
+        assertThat(AuctionSolver.solve(List.of(List.of(only)))).containsExactly(only);
+    }
+
+    @Test
+    void orderWithoutCandidatesStaysUnassigned() {
+        RiderCandidate rider = candidate(2, 100);
+
+        assertThat(AuctionSolver.solve(List.of(List.of(), List.of(rider)))).containsExactly(null, rider);
+        assertThat(AuctionSolver.solve(List.of())).isEmpty();
+    }
+
+    // Total pickup distance, with every unassigned order at the solver's unassigned cost
+    private static double cost(RiderCandidate[] won) {
+        double total = 0;
+        for (RiderCandidate rider : won) {
+            total += rider == null ? AuctionSolver.UNASSIGNED_COST : rider.getDistanceMeters();
+        }
+        return total;
+    }
+
+    // Every assignment of the remaining orders, each to a free candidate or to nobody
+    private static double optimum(List<List<RiderCandidate>> candidates, int order, Set<Long> taken) {
+        if (order == candidates.size()) {
+            return 0;
+        }
+        double best = AuctionSolver.UNASSIGNED_COST + optimum(candidates, order + 1, taken);
+        for (RiderCandidate rider : candidates.get(order)) {
+            if (taken.add(rider.getEmpId())) {
+                best = Math.min(best, rider.getDistanceMeters() + optimum(candidates, order + 1, taken));
+                taken.remove(rider.getEmpId());
+            }
+        }
+        return best;
+    }
+
+    private static RiderCandidate candidate(long empId, double distanceMeters) {
+        return new RiderCandidate(empId, "bike", 0, 0, distanceMeters);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.deliveryboy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.deliveryboy.entity.Bill;
+import com.example.deliveryboy.entity.Order;
+import com.example.deliveryboy.repository.BillRepository;
+import com.example.deliveryboy.repository.OrderRepository;
+import com.example.deliveryboy.response.BillSummary;
+import com.example.deliveryboy.service.BillIdempotencyService.Outcome;
+import com.example.deliveryboy.service.BillIdempotencyService.Result;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BillIdempotencyServiceTests {
+    private final BillRepository billRepository = mock(BillRepository.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final AtomicLong ids = new AtomicLong(100);
+    private BillIdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BillIdempotencyService(mock(PlatformTransactionManager.class), new SimpleMeterRegistry(),
+                1_000, 0.01, 100, Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(service, "billRepository", billRepository);
+        ReflectionTestUtils.setField(service, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(service, "rollupService", mock(RevenueRollupService.class));
+
+        when(orderRepository.getReferenceById(anyString()))
+                .thenAnswer(invocation -> new Order(invocation.getArgument(0), "details", "address", null));
+        when(billRepository.save(any(Bill.class))).thenAnswer(invocation -> {
+            Bill bill = invocation.getArgument(0);
+            bill.setBillId(ids.incrementAndGet());
+            return bill;
+        });
+        when(billRepository.findSummaryByTransactionId(anyString())).thenReturn(Optional.empty());
+        when(billRepository.streamAllTransactionIds()).thenReturn(Stream.of("t-old"));
+        service.load();
+    }
+
+    @Test
+    void retryIsReplayedAndReusedIdConflicts() {
+        Result created = service.create(bill("o1", "10.00", "t1"));
+
+        assertThat(created.outcome()).isEqualTo(Outcome.CREATED);
+        assertThat(service.create(bill("o1", "10.0", "t1"))).isEqualTo(new Result(Outcome.REPLAYED, created.billId()));
+        assertThat(service.create(bill("o1", "12.00", "t1"))).isEqualTo(new Result(Outcome.CONFLICT, created.billId()));
+        assertThat(service.create(bill("o2", "10.00", "t1"))).isEqualTo(new Result(Outcome.CONFLICT, created.billId()));
+        assertThat(service.getStats().getRecentHits()).isEqualTo(3);
+        verify(billRepository, never()).findSummaryByTransactionId("t1");  // Filter said absent, then the recent cache
+    }
+
+    @Test
+    void invalidatedIdIsLookedUpAgain() {
+        Result created = service.create(bill("o1", "10.00", "t6"));
+        service.invalidate("t6");  // Bill deleted
+        service.invalidate(null);
+
+        Result recreated = service.create(bill("o1", "10.00", "t6"));
+
+        assertThat(recreated.outcome()).isEqualTo(Outcome.CREATED);
+        assertThat(recreated.billId()).isNotEqualTo(created.billId());
+        assertThat(service.getStats().getRecentHits()).isZero();
+        assertThat(service.getStats().getFalsePositives()).isEqualTo(1);  // The filter still says maybe
+    }
+
+    @Test
+    void idBilledBeforeStartupIsLookedUp() {
+        when(billRepository.findSummaryByTransactionId("t-old"))
+                .thenReturn(Optional.of(summary(7L, "o1", "10.00", "t-old")));
+
+        assertThat(service.create(bill("o1", "10.00", "t-old"))).isEqualTo(new Result(Outcome.REPLAYED, 7L));
+        assertThat(service.create(bill("o9", "10.00", "t-old"))).isEqualTo(new Result(Outcome.CONFLICT, 7L));
+        assertThat(service.getStats().getLookupHits()).isEqualTo(1);
+    }
+
+    @Test
+    void lostInsertRaceIsAnsweredFromTheWinner() {
+        when(billRepository.save(any(Bill.class))).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        // The filter says absent, so the first lookup is the one after the failed insert
+        when(billRepository.findSummaryByTransactionId("t2")).thenReturn(Optional.of(summary(8L, "o1", "10.00", "t2")));
+
+        assertThat(service.create(bill("o1", "10.00", "t2"))).isEqualTo(new Result(Outcome.REPLAYED, 8L));
+        assertThat(service.getStats().getFailedInserts()).isEqualTo(1);
+    }
+
+    @Test
+    void lostInsertRaceWithDifferentBillConflicts() {
+        when(billRepository.save(any(Bill.class))).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(billRepository.findSummaryByTransactionId("t3")).thenReturn(Optional.of(summary(9L, "o1", "10.00", "t3")));
+
+        assertThat(service.create(bill("o1", "11.00", "t3"))).isEqualTo(new Result(Outcome.CONFLICT, 9L));
+    }
+
+    @Test
+    void otherConstraintViolationsAreRethrown() {
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("amount must not be null");
+        when(billRepository.save(any(Bill.class))).thenThrow(violation);
+        when(orderRepository.existsById("o1")).thenReturn(true);
+
+        assertThatThrownBy(() -> service.create(bill("o1", "10.00", "t4"))).isSameAs(violation);
+    }
+
+    @Test
+    void unknownOrderIsReported() {
+        when(billRepository.save(any(Bill.class))).thenThrow(new DataIntegrityViolationException("foreign key"));
+        when(orderRepository.existsById("missing")).thenReturn(false);
+
+        assertThatThrownBy(() -> service.create(bill("missing", "10.00", "t5")))
+                .isInstanceOf(BillIdempotencyService.UnknownOrderException.class)
+                .hasMessageContaining("missing");
+    }
+
+    private static Bill bill(String orderId, String amount, String transactionId) {
+        return new Bill(new Order(orderId, null, null, null), new BigDecimal(amount), transactionId);
+    }
+
+    private static BillSummary summary(Long billId, String orderId, String amount, String transactionId) {
+        return new BillSummary(billId, orderId, "U1", new BigDecimal(amount), transactionId, 0L);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.deliveryboy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTests {
+    private static final double RATE = 0.01;
+
+    @Test
+    void addedKeysAreFoundAcrossLayers() {
+        BloomFilter filter = new BloomFilter(1_000, RATE);
+        for (int i = 0; i < 50_000; i++) {
+            filter.add("txn-" + i);
+        }
+
+        assertThat(filter.layerCount()).isGreaterThanOrEqualTo(5);  // 1k, 2k, 4k, 8k, 16k, ...
+        assertThat(filter.keyCount()).isEqualTo(50_000);
+        for (int i = 0; i < 50_000; i++) {
+            assertThat(filter.mightContain("txn-" + i)).as("txn-%d", i).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysUnderTwiceTheTarget() {
+        BloomFilter filter = new BloomFilter(1_000, RATE);
+        for (int i = 0; i < 60_000; i++) {
+            filter.add("txn-" + i);
+        }
+
+        int probes = 500_000;
+        int positives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("other-" + i)) {
+                positives++;
+            }
+        }
+        double measured = (double) positives / probes;
+
+        assertThat(filter.layerCount()).isGreaterThanOrEqualTo(5);
+        assertThat(measured).isLessThan(2 * RATE);
+        assertThat(filter.estimatedFalsePositiveRate()).isLessThan(2 * RATE);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(10, RATE);
+
+        assertThat(filter.mightContain("txn-1")).isFalse();
+        assertThat(filter.layerCount()).isEqualTo(1);
+    }
+}
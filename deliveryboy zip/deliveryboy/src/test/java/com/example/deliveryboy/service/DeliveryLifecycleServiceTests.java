@@ -0,0 +1,203 @@
+package com.example.deliveryboy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.deliveryboy.entity.Delivery;
+import com.example.deliveryboy.entity.DeliveryBoy;
+import com.example.deliveryboy.entity.DeliveryState;
+import com.example.deliveryboy.entity.DeliveryStatusEvent;
+import com.example.deliveryboy.entity.Order;
+import com.example.deliveryboy.entity.User;
+import com.example.deliveryboy.repository.DeliveryBoyRepository;
+import com.example.deliveryboy.repository.DeliveryCurrentStateRepository;
+import com.example.deliveryboy.repository.DeliveryRepository;
+import com.example.deliveryboy.repository.DeliveryStatusEventRepository;
+import com.example.deliveryboy.repository.OrderRepository;
+import com.example.deliveryboy.repository.UserRepository;
+import com.example.deliveryboy.service.DeliveryLifecycleService.InvalidTransitionException;
+import com.example.deliveryboy.service.DeliveryLifecycleService.InvalidUpdateException;
+
+// Committed writes, so a failed transition is seen to roll back its event
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ DeliveryLifecycleService.class, RiderStatsService.class, RevenueRollupService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DeliveryLifecycleServiceTests {
+
+    @Autowired
+    private DeliveryLifecycleService lifecycleService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private DeliveryBoyRepository deliveryBoyRepository;
+
+    @Autowired
+    private DeliveryCurrentStateRepository currentStateRepository;
+
+    @Autowired
+    private DeliveryStatusEventRepository statusEventRepository;
+
+    private Long rider;
+    private Long otherRider;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(new User("lc-u", "U", "u@example.com", "9000000001"));
+        for (int i = 0; i < 3; i++) {
+            orderRepository.save(new Order("lc-o" + i, "details", "address", userRepository.getReferenceById("lc-u")));
+        }
+        rider = deliveryBoy("8000000001");
+        otherRider = deliveryBoy("8000000002");
+    }
+
+    @AfterEach
+    void tearDown() {
+        statusEventRepository.deleteAllInBatch();
+        currentStateRepository.deleteAllInBatch();
+        deliveryRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        deliveryBoyRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void lifecycleAllowsOnlyForwardMoves() {
+        assertThat(DeliveryState.ASSIGNED.canMoveTo(DeliveryState.PICKED_UP)).isTrue();
+        assertThat(DeliveryState.ASSIGNED.canMoveTo(DeliveryState.FAILED)).isTrue();
+        assertThat(DeliveryState.ASSIGNED.canMoveTo(DeliveryState.DELIVERED)).isFalse();  // Never picked up
+        assertThat(DeliveryState.PICKED_UP.canMoveTo(DeliveryState.DELIVERED)).isTrue();
+        assertThat(DeliveryState.IN_TRANSIT.canMoveTo(DeliveryState.PICKED_UP)).isFalse();
+        assertThat(DeliveryState.DELIVERED.canMoveTo(DeliveryState.PICKED_UP)).isFalse();
+        assertThat(DeliveryState.PICKED_UP.canMoveTo(null)).isFalse();
+        for (DeliveryState next : DeliveryState.values()) {
+            assertThat(DeliveryState.DELIVERED.canMoveTo(next)).as("DELIVERED to %s", next).isFalse();
+            assertThat(DeliveryState.FAILED.canMoveTo(next)).as("FAILED to %s", next).isFalse();
+        }
+
+        lifecycleService.create(delivery("lc-d1", "lc-o0", rider, false));
+        lifecycleService.transition("lc-d1", DeliveryState.PICKED_UP, null);
+        lifecycleService.transition("lc-d1", DeliveryState.DELIVERED, null);
+
+        assertThatThrownBy(() -> lifecycleService.transition("lc-d1", DeliveryState.PICKED_UP, null))
+                .isInstanceOf(InvalidTransitionException.class)
+                .hasMessageContaining("DELIVERED to PICKED_UP");
+        assertThat(lifecycleService.currentState("lc-d1").getState()).isEqualTo(DeliveryState.DELIVERED);
+        assertThat(deliveryRepository.findSummaryById("lc-d1").orElseThrow().deliveryStatus()).isTrue();
+    }
+
+    @Test
+    void transitionThatLosesTheRaceRollsBack() {
+        lifecycleService.create(delivery("lc-d1", "lc-o0", rider, false));
+        // Another transition commits between the read of the projection and the compare-and-set
+        DeliveryCurrentStateRepository racing = mock(DeliveryCurrentStateRepository.class,
+                AdditionalAnswers.delegatesTo(currentStateRepository));
+        doReturn(0).when(racing).advance(eq("lc-d1"), any(), any(), any(), any());
+        ReflectionTestUtils.setField(lifecycleService, "currentStateRepository", racing);
+        try {
+            assertThatThrownBy(() -> lifecycleService.transition("lc-d1", DeliveryState.PICKED_UP, "at the shop"))
+                    .isInstanceOf(InvalidTransitionException.class)
+                    .hasMessageContaining("concurrently");
+        } finally {
+            ReflectionTestUtils.setField(lifecycleService, "currentStateRepository", currentStateRepository);
+        }
+
+        assertThat(lifecycleService.currentState("lc-d1").getState()).isEqualTo(DeliveryState.ASSIGNED);
+        assertThat(lifecycleService.timeline("lc-d1")).extracting(DeliveryStatusEvent::getState)
+                .containsExactly(DeliveryState.ASSIGNED);  // The loser's event went with its transaction
+    }
+
+    @Test
+    void deliveryFromBeforeTheEventLogIsSeededOnFirstTransition() {
+        deliveryRepository.save(delivery("lc-old", "lc-o0", rider, false));
+        deliveryRepository.save(delivery("lc-done", "lc-o1", rider, true));
+        assertThat(lifecycleService.currentState("lc-old")).isNull();
+
+        lifecycleService.transition("lc-old", DeliveryState.PICKED_UP, null);
+
+        assertThat(lifecycleService.currentState("lc-old").getState()).isEqualTo(DeliveryState.PICKED_UP);
+        assertThat(lifecycleService.currentState("lc-old").getEmpId()).isEqualTo(rider);
+        assertThat(lifecycleService.timeline("lc-old")).extracting(DeliveryStatusEvent::getState)
+                .containsExactly(DeliveryState.ASSIGNED, DeliveryState.PICKED_UP);
+
+        // Already delivered before the log existed: seeded as DELIVERED, so nothing follows
+        assertThatThrownBy(() -> lifecycleService.transition("lc-done", DeliveryState.PICKED_UP, null))
+                .isInstanceOf(InvalidTransitionException.class);
+        assertThatThrownBy(() -> lifecycleService.transition("lc-missing", DeliveryState.PICKED_UP, null))
+                .isInstanceOf(DeliveryLifecycleService.UnknownDeliveryException.class);
+    }
+
+    @Test
+    void updateCannotReopenOrReassign() {
+        lifecycleService.create(delivery("lc-d1", "lc-o0", rider, false));
+
+        assertThatThrownBy(() -> lifecycleService.update("lc-d1", "lc-u", "lc-o0", otherRider, false, null))
+                .isInstanceOf(InvalidUpdateException.class)
+                .hasMessageContaining("delivery boy");
+
+        lifecycleService.transition("lc-d1", DeliveryState.PICKED_UP, null);
+        // Delivered through an update: recorded like any other transition
+        assertThat(lifecycleService.update("lc-d1", "lc-u", "lc-o1", rider, true, null).orderId()).isEqualTo("lc-o1");
+        assertThat(lifecycleService.currentState("lc-d1").getState()).isEqualTo(DeliveryState.DELIVERED);
+
+        assertThatThrownBy(() -> lifecycleService.update("lc-d1", "lc-u", "lc-o1", null, false, null))
+                .isInstanceOf(InvalidUpdateException.class)
+                .hasMessageContaining("reopened");
+        assertThat(deliveryRepository.findSummaryById("lc-d1").orElseThrow().deliveryStatus()).isTrue();
+        assertThat(lifecycleService.update("lc-missing", "lc-u", "lc-o1", null, false, null)).isNull();
+    }
+
+    @Test
+    void timelineListsOneDeliveryOldestFirst() {
+        lifecycleService.create(delivery("lc-d1", "lc-o0", rider, false));
+        lifecycleService.create(delivery("lc-d2", "lc-o1", otherRider, false));
+        lifecycleService.transition("lc-d1", DeliveryState.PICKED_UP, null);
+        lifecycleService.transition("lc-d2", DeliveryState.FAILED, "shop closed");
+        lifecycleService.transition("lc-d1", DeliveryState.IN_TRANSIT, null);
+        lifecycleService.transition("lc-d1", DeliveryState.DELIVERED, null);
+
+        assertThat(lifecycleService.timeline("lc-d1")).extracting(DeliveryStatusEvent::getState).containsExactly(
+                DeliveryState.ASSIGNED, DeliveryState.PICKED_UP, DeliveryState.IN_TRANSIT, DeliveryState.DELIVERED);
+        assertThat(lifecycleService.timeline("lc-d1")).extracting(DeliveryStatusEvent::getEventId).isSorted();
+        assertThat(lifecycleService.timeline("lc-d2")).extracting(DeliveryStatusEvent::getNote)
+                .containsExactly(null, "shop closed");
+    }
+
+    private Delivery delivery(String deliveryId, String orderId, Long empId, boolean delivered) {
+        return new Delivery(deliveryId, userRepository.getReferenceById("lc-u"), orderRepository.getReferenceById(orderId),
+                deliveryBoyRepository.getReferenceById(empId), delivered);
+    }
+
+    private Long deliveryBoy(String phoneNumber) {
+        DeliveryBoy deliveryBoy = new DeliveryBoy();
+        deliveryBoy.setEname("Rider " + phoneNumber);
+        deliveryBoy.setEmail(phoneNumber + "@example.com");
+        deliveryBoy.setVehicle("bike");
+        deliveryBoy.setPhoneNumber(phoneNumber);
+        return deliveryBoyRepository.save(deliveryBoy).getEmpId();
+    }
+}
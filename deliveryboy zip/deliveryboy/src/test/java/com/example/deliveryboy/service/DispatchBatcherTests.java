@@ -0,0 +1,193 @@
+package com.example.deliveryboy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.deliveryboy.entity.Delivery;
+import com.example.deliveryboy.entity.Order;
+import com.example.deliveryboy.id.TimeOrderedIdGenerator;
+import com.example.deliveryboy.repository.DeliveryRepository;
+import com.example.deliveryboy.repository.OrderRepository;
+import com.example.deliveryboy.response.DeliveryEvent;
+import com.example.deliveryboy.response.DispatchBatchResult;
+import com.example.deliveryboy.response.RiderCandidate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+
+class DispatchBatcherTests {
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final DeliveryRepository deliveryRepository = mock(DeliveryRepository.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final DeliveryEventHub eventHub = mock(DeliveryEventHub.class);
+    private final DispatchIndex dispatchIndex = new DispatchIndex();
+    private DispatchBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        batcher = new DispatchBatcher(transactionManager);
+        ReflectionTestUtils.setField(batcher, "entityManager", entityManager);
+        ReflectionTestUtils.setField(batcher, "dispatchIndex", dispatchIndex);
+        ReflectionTestUtils.setField(batcher, "deliveryRepository", deliveryRepository);
+        ReflectionTestUtils.setField(batcher, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(batcher, "eventHub", eventHub);
+        ReflectionTestUtils.setField(batcher, "lifecycleService", mock(DeliveryLifecycleService.class));
+        RevenueRollupService rollupService = mock(RevenueRollupService.class);
+        when(rollupService.reattribute(anyCollection(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        ReflectionTestUtils.setField(batcher, "rollupService", rollupService);
+        ReflectionTestUtils.setField(batcher, "idGenerator", new TimeOrderedIdGenerator(1));
+        when(deliveryRepository.findAssignedOrderIds(anyCollection())).thenReturn(List.of());
+        when(entityManager.getReference(eq(Order.class), any()))
+                .thenAnswer(invocation -> new Order(invocation.getArgument(1), null, null, null));
+        when(orderRepository.findExistingIds(anyCollection()))
+                .thenAnswer(invocation -> new ArrayList<>(invocation.<Collection<String>>getArgument(0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.shutdown();
+    }
+
+    @Test
+    void riderWonInTwoAreasIsClaimedOnce() {
+        // Either side of an area border, with the only rider on it
+        batcher.submit(order("o1", 0.001, 0.0499));
+        batcher.submit(order("o2", 0.001, 0.0501));
+        dispatchIndex.update(7, "bike", 0.001, 0.05, true);
+
+        batcher.dispatchPending();
+
+        DispatchBatchResult result = batcher.getLastBatch();
+        assertThat(result.getPartitions()).isEqualTo(2);
+        assertThat(result.getAssigned()).isEqualTo(1);
+        assertThat(result.getDeferred()).isEqualTo(1);
+        assertThat(batcher.pendingCount()).isEqualTo(1);
+        assertThat(dispatchIndex.nearest(0.001, 0.05, null, 5)).isEmpty();
+        verify(entityManager, times(1)).persist(any(Delivery.class));
+        verify(eventHub, times(1)).publish(any(DeliveryEvent.class));
+
+        // The loser is still queued and takes the next rider that comes free
+        dispatchIndex.update(8, "bike", 0.001, 0.0502, true);
+        batcher.dispatchPending();
+
+        assertThat(batcher.getLastBatch().getAssigned()).isEqualTo(1);
+        assertThat(batcher.pendingCount()).isZero();
+    }
+
+    @Test
+    void failedBatchPutsRidersBackOnOffer() {
+        batcher.submit(order("o1", 0.011, 0.011));
+        batcher.submit(order("o2", 0.012, 0.012));
+        dispatchIndex.update(7, "bike", 0.011, 0.0111, true);
+        dispatchIndex.update(8, "car", 0.012, 0.0121, true);
+        doThrow(new PersistenceException("connection reset")).when(entityManager).flush();
+
+        batcher.dispatchPending();
+
+        DispatchBatchResult result = batcher.getLastBatch();
+        assertThat(result.getAssigned()).isZero();
+        assertThat(result.getDeferred()).isEqualTo(2);
+        assertThat(batcher.pendingCount()).isEqualTo(2);
+        assertThat(dispatchIndex.nearest(0.0115, 0.0115, null, 5))
+                .extracting(RiderCandidate::getEmpId)
+                .containsExactlyInAnyOrder(7L, 8L);
+        verify(transactionManager, atLeastOnce()).rollback(any());
+        verify(eventHub, never()).publish(any(DeliveryEvent.class));
+    }
+
+    @Test
+    void orderSubmittedTwiceGetsOneDelivery() {
+        Order order = order("o1", 0.021, 0.021);
+        batcher.submit(order);
+        batcher.submit(order);
+        dispatchIndex.update(7, "bike", 0.021, 0.0211, true);
+        dispatchIndex.update(8, "bike", 0.021, 0.0212, true);
+
+        assertThat(batcher.pendingCount()).isEqualTo(1);
+        batcher.dispatchPending();
+
+        assertThat(batcher.getLastBatch().getOrders()).isEqualTo(1);
+        assertThat(batcher.getLastBatch().getAssigned()).isEqualTo(1);
+        verify(entityManager, times(1)).persist(any(Delivery.class));
+
+        // Once assigned it may be queued again, e.g. after the delivery failed
+        assertThat(batcher.submit(order)).isTrue();
+        assertThat(batcher.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void deletedOrderLeavesTheQueue() {
+        batcher.submit(order("gone", 0.031, 0.031));
+        batcher.submit(order("cancelled", 0.032, 0.032));
+        batcher.submit(order("o1", 0.033, 0.033));
+        batcher.cancel("cancelled");
+        when(orderRepository.findExistingIds(anyCollection())).thenReturn(List.of("cancelled", "o1"));
+        dispatchIndex.update(7, "bike", 0.033, 0.0331, true);
+
+        batcher.dispatchPending();
+
+        assertThat(batcher.getLastBatch().getOrders()).isEqualTo(2);
+        assertThat(batcher.getLastBatch().getAssigned()).isEqualTo(1);
+        assertThat(batcher.pendingCount()).isZero();
+        verify(entityManager, times(1)).persist(argThat((Delivery d) -> d.getOrder().getOrderId().equals("o1")));
+    }
+
+    @Test
+    void failedBatchIsRetriedRowByRow() {
+        batcher.submit(order("bad", 0.041, 0.041));
+        batcher.submit(order("o2", 0.042, 0.042));
+        dispatchIndex.update(7, "bike", 0.041, 0.0411, true);
+        dispatchIndex.update(8, "bike", 0.042, 0.0421, true);
+        List<String> pending = new ArrayList<>();
+        doAnswer(invocation -> pending.add(invocation.<Delivery>getArgument(0).getOrder().getOrderId()))
+                .when(entityManager).persist(any(Delivery.class));
+        doAnswer(invocation -> {
+            boolean bad = pending.contains("bad");
+            pending.clear();
+            if (bad) {
+                throw new PersistenceException("foreign key violation");
+            }
+            return null;
+        }).when(entityManager).flush();
+
+        batcher.dispatchPending();
+
+        DispatchBatchResult result = batcher.getLastBatch();
+        assertThat(result.getAssigned()).isEqualTo(1);
+        assertThat(result.getDeferred()).isEqualTo(1);
+        assertThat(batcher.pendingCount()).isEqualTo(1);
+        assertThat(dispatchIndex.nearest(0.041, 0.041, null, 5)).extracting(RiderCandidate::getEmpId).containsExactly(7L);
+        verify(eventHub, times(1)).publish(any(DeliveryEvent.class));
+    }
+
+    private static Order order(String orderId, double latitude, double longitude) {
+        Order order = new Order(orderId, "details", "address", null);
+        order.setLatitude(latitude);
+        order.setLongitude(longitude);
+        return order;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.deliveryboy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.deliveryboy.response.RiderCandidate;
+
+class DispatchIndexTests {
+    private static final String[] VEHICLES = { "bike", "car", "scooter" };
+    private static final double METERS_PER_DEGREE = 6_371_000 * Math.PI / 180;
+
+    private final DispatchIndex index = new DispatchIndex();
+    private final Map<Long, Rider> riders = new HashMap<>();
+
+    @Test
+    void nearestMatchesBruteForceScan() {
+        Random random = new Random(42);
+        scatter(random, 2_000, 12.97, 77.59, 0.4);  // Spread past the 25 km radius
+        assertQueriesMatch(random, 12.97, 77.59, 0.3);
+
+        // Moves, availability changes and removals must leave no stale grid entries behind
+        for (long empId = 0; empId < 2_000; empId += 3) {
+            switch ((int) (empId % 4)) {
+                case 0 -> put(random, empId, 12.97, 77.59, 0.4);
+                case 1 -> setAvailable(empId, !riders.get(empId).available());
+                case 2 -> remove(empId);
+                default -> updateVehicle(empId, VEHICLES[random.nextInt(VEHICLES.length)]);
+            }
+        }
+        assertQueriesMatch(random, 12.97, 77.59, 0.3);
+    }
+
+    @Test
+    void nearestSeesAcrossTheAntimeridian() {
+        Random random = new Random(7);
+        scatter(random, 500, -16.5, 180, 0.2);  // Fiji, half the riders at negative longitudes
+        assertQueriesMatch(random, -16.5, 180, 0.05);
+
+        index.update(9_001, "bike", 0, 179.999, true);
+        index.update(9_002, "bike", 0, -179.999, true);
+        assertThat(index.nearest(0, 179.9995, "bike", 2))
+                .extracting(RiderCandidate::getEmpId)
+                .containsExactly(9_001L, 9_002L);
+    }
+
+    @Test
+    void nearestStopsAtTheRadius() {
+        double inside = 24_900 / METERS_PER_DEGREE;
+        double outside = 25_100 / METERS_PER_DEGREE;
+        index.update(1, "car", inside, 0, true);
+        index.update(2, "car", -outside, 0, true);
+        index.update(3, "car", 0, outside, true);
+
+        assertThat(index.nearest(0, 0, null, DispatchIndex.MAX_K))
+                .extracting(RiderCandidate::getEmpId)
+                .containsExactly(1L);
+    }
+
+    @Test
+    void nearestFiltersByVehicle() {
+        index.update(1, "Bike ", 0, 0.001, true);
+        index.update(2, "car", 0, 0.0005, true);
+        index.update(3, "bike", 0, 0.002, false);
+
+        assertThat(index.nearest(0, 0, "BIKE", 5)).extracting(RiderCandidate::getEmpId).containsExactly(1L);
+        assertThat(index.nearest(0, 0, null, 5)).extracting(RiderCandidate::getEmpId).containsExactly(2L, 1L);
+        assertThat(index.nearest(0, 0, "truck", 5)).isEmpty();
+    }
+
+    private void assertQueriesMatch(Random random, double latitude, double longitude, double spread) {
+        for (int i = 0; i < 300; i++) {
+            double lat = latitude + (random.nextDouble() * 2 - 1) * spread;
+            double lon = wrap(longitude + (random.nextDouble() * 2 - 1) * spread);
+            String vehicle = random.nextInt(3) == 0 ? null : VEHICLES[random.nextInt(VEHICLES.length)];
+            int k = 1 + random.nextInt(12);
+
+            List<RiderCandidate> actual = index.nearest(lat, lon, vehicle, k);
+            List<Match> expected = bruteForce(lat, lon, vehicle, k);
+
+            assertThat(actual).extracting(RiderCandidate::getEmpId)
+                    .as("k=%d vehicle=%s at %f,%f", k, vehicle, lat, lon)
+                    .containsExactlyElementsOf(expected.stream().map(m -> m.rider().empId()).toList());
+            for (int j = 0; j < actual.size(); j++) {
+                assertThat(actual.get(j).getDistanceMeters()).isCloseTo(expected.get(j).distance(), within(0.01));
+            }
+        }
+    }
+
+    private List<Match> bruteForce(double latitude, double longitude, String vehicle, int k) {
+        List<Match> matches = new ArrayList<>();
+        for (Rider rider : riders.values()) {
+            double distance = distance(latitude, longitude, rider.latitude(), rider.longitude());
+            if (rider.available() && (vehicle == null || vehicle.equals(rider.vehicle()))
+                    && distance <= DispatchIndex.MAX_RADIUS_METERS) {
+                matches.add(new Match(rider, distance));
+            }
+        }
+        matches.sort(Comparator.comparingDouble(Match::distance));
+        return matches.subList(0, Math.min(k, matches.size()));
+    }
+
+    // Equirectangular like the index, with the longitude difference taken the short way round
+    private static double distance(double lat1, double lon1, double lat2, double lon2) {
+        double x = Math.toRadians(wrap(lon2 - lon1)) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        double y = Math.toRadians(lat2 - lat1);
+        return Math.sqrt(x * x + y * y) * 6_371_000;
+    }
+
+    private static double wrap(double longitude) {
+        return longitude - 360 * Math.floor((longitude + 180) / 360);
+    }
+
+    private void scatter(Random random, int count, double latitude, double longitude, double spread) {
+        for (long empId = 0; empId < count; empId++) {
+            put(random, empId, latitude, longitude, spread);
+        }
+    }
+
+    private void put(Random random, long empId, double latitude, double longitude, double spread) {
+        Rider rider = new Rider(empId, VEHICLES[random.nextInt(VEHICLES.length)],
+                latitude + (random.nextDouble() * 2 - 1) * spread,
+                wrap(longitude + (random.nextDouble() * 2 - 1) * spread),
+                random.nextInt(10) < 7);
+        riders.put(empId, rider);
+        index.update(empId, rider.vehicle(), rider.latitude(), rider.longitude(), rider.available());
+    }
+
+    private void setAvailable(long empId, boolean available) {
+        Rider old = riders.get(empId);
+        riders.put(empId, new Rider(empId, old.vehicle(), old.latitude(), old.longitude(), available));
+        index.setAvailable(empId, available);
+    }
+
+    private void updateVehicle(long empId, String vehicle) {
+        Rider old = riders.get(empId);
+        riders.put(empId, new Rider(empId, vehicle, old.latitude(), old.longitude(), old.available()));
+        index.updateVehicle(empId, vehicle);
+    }
+
+    private void remove(long empId) {
+        riders.remove(empId);
+        index.remove(empId);
+    }
+
+    private record Rider(long empId, String vehicle, double latitude, double longitude, boolean available) {
+    }
+
+    private record Match(Rider rider, double distance) {
+    }
+}
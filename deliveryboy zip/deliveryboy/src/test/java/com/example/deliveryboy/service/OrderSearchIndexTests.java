@@ -0,0 +1,175 @@
+package com.example.deliveryboy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.deliveryboy.repository.OrderRepository;
+import com.example.deliveryboy.response.CursorPage;
+import com.example.deliveryboy.response.OrderSearchHit;
+import com.example.deliveryboy.response.OrderSummary;
+
+class OrderSearchIndexTests {
+    private final List<OrderSearchIndex> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (OrderSearchIndex index : opened) {
+            index.close();
+        }
+    }
+
+    @Test
+    void exactOutranksPrefixOutranksFuzzy() throws IOException {
+        OrderSearchIndex index = open("", mock(OrderRepository.class));
+        index.index("o1", "u1", "Chicken biryani", "12 MG Road");
+        index.index("o2", "u1", "Biryanis family pack", "4 Church Street");
+        index.index("o3", "u1", "Biriyani special", "9 Brigade Road");
+        index.index("o4", "u1", "Margherita pizza", "1 Residency Road");
+        index.refresh();
+
+        assertThat(index.search("biryani", null, null, 10).getItems()).extracting(OrderSearchHit::orderId)
+                .containsExactly("o1", "o2", "o3");
+        assertThat(index.search("Café", null, null, 10)).isNotNull();  // Folded to "cafe"
+        assertThat(index.search("...", null, null, 10)).isNull();
+    }
+
+    @Test
+    void everyWordMustMatchInEitherField() throws IOException {
+        OrderSearchIndex index = open("", mock(OrderRepository.class));
+        index.index("o1", "u1", "Paneer tikka", "12 MG Road");
+        index.index("o2", "u2", "Paneer tikka", "4 Church Street");
+        index.index("o3", "u1", "Paneer butter masala", "12 MG Road");
+        index.refresh();
+
+        assertThat(index.search("paneer church", null, null, 10).getItems()).extracting(OrderSearchHit::orderId)
+                .containsExactly("o2");
+        assertThat(index.search("tikka", "u1", null, 10).getItems()).extracting(OrderSearchHit::orderId)
+                .containsExactly("o1");
+
+        index.index("o1", "u1", "Veg thali", "12 MG Road");
+        index.delete("o2");
+        index.refresh();
+
+        assertThat(index.search("tikka", null, null, 10).getItems()).isEmpty();
+        assertThat(index.search("thali", null, null, 10).getItems()).extracting(OrderSearchHit::orderId)
+                .containsExactly("o1");
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void cursorPagesThroughEveryHitOnce() throws IOException {
+        OrderSearchIndex index = open("", mock(OrderRepository.class));
+        for (int i = 0; i < 25; i++) {
+            index.index("o" + i, "u1", "Pasta" + " extra cheese".repeat(i % 4), "Road " + i);
+        }
+        index.refresh();
+
+        Set<String> seen = new HashSet<>();
+        List<Float> scores = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<OrderSearchHit> page = index.search("pasta", null, cursor, 10);
+            page.getItems().forEach(hit -> {
+                assertThat(seen.add(hit.orderId())).as(hit.orderId()).isTrue();
+                scores.add(hit.score());
+            });
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(25);
+        assertThat(scores).isSortedAccordingTo((a, b) -> Float.compare(b, a));
+    }
+
+    @Test
+    void writesDuringARebuildAreNeitherDuplicatedNorUndone() throws IOException {
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        OrderSearchIndex index = open("", orderRepository);
+        index.index("o2", "u1", "Dosa", "Road 2");
+        when(orderRepository.findSummaryPageAfter(anyString(), isNull(), any(Limit.class))).thenAnswer(invocation -> {
+            // Requests commit and index while the page is read; the page still has o1 as it was, and o2
+            index.index("o1", "u1", "Masala dosa", "Road 1");
+            index.delete("o2");
+            index.index("o3", "u1", "Idli", "Road 3");
+            return List.of(summary("o1", "Plain dosa"), summary("o2", "Dosa"), summary("o3", "Idli"));
+        });
+
+        assertThat(index.rebuild()).isEqualTo(3);
+        index.refresh();
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.search("dosa", null, null, 10).getItems()).extracting(OrderSearchHit::orderDetails)
+                .containsExactly("Masala dosa");
+        assertThat(index.search("idli", null, null, 10).getItems()).hasSize(1);
+    }
+
+    @Test
+    void crashIsRebuiltAndCleanShutdownIsNot(@TempDir Path dir) throws IOException {
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        when(orderRepository.count()).thenReturn(2L);
+        when(orderRepository.findSummaryPageAfter(anyString(), isNull(), any(Limit.class)))
+                .thenReturn(List.of(summary("o1", "Dosa"), summary("o2", "Idli")));
+        Path running = Files.createDirectory(dir.resolve("running"));
+        OrderSearchIndex first = open(running.toString(), orderRepository);
+        first.rebuildIfStale();  // Empty index, two orders
+        assertThat(first.size()).isEqualTo(2);
+
+        // A crash after a commit: the files as they are on disk while the index is open
+        Path crashed = Files.createDirectory(dir.resolve("crashed"));
+        first.commit();
+        try (Stream<Path> files = Files.list(running)) {
+            for (Path file : files.filter(f -> !f.endsWith("write.lock")).toList()) {
+                Files.copy(file, crashed.resolve(file.getFileName()));
+            }
+        }
+        OrderRepository afterCrash = mock(OrderRepository.class);
+        when(afterCrash.count()).thenReturn(2L);
+        when(afterCrash.findSummaryPageAfter(anyString(), isNull(), any(Limit.class)))
+                .thenReturn(List.of(summary("o1", "Dosa"), summary("o2", "Uttapam")));
+        OrderSearchIndex recovered = open(crashed.toString(), afterCrash);
+        recovered.rebuildIfStale();
+        recovered.refresh();
+        assertThat(recovered.search("uttapam", null, null, 10).getItems()).hasSize(1);  // Only in the database
+
+        opened.remove(first);
+        first.close();
+        OrderRepository afterShutdown = mock(OrderRepository.class);
+        when(afterShutdown.count()).thenReturn(2L);
+        open(running.toString(), afterShutdown).rebuildIfStale();
+        verify(afterShutdown, never()).findSummaryPageAfter(anyString(), any(), any(Limit.class));
+    }
+
+    private OrderSearchIndex open(String dir, OrderRepository orderRepository) throws IOException {
+        OrderSearchIndex index = new OrderSearchIndex(dir);
+        ReflectionTestUtils.setField(index, "orderRepository", orderRepository);
+        opened.add(index);
+        return index;
+    }
+
+    private static OrderSummary summary(String orderId, String details) {
+        return new OrderSummary(orderId, "u1", details, "Road", null, null, 0L);
+    }
+}
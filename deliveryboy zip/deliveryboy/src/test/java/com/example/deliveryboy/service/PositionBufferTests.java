@@ -0,0 +1,124 @@
+package com.example.deliveryboy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.deliveryboy.service.PositionBuffer.Drained;
+import com.example.deliveryboy.service.PositionBuffer.Fix;
+import com.example.deliveryboy.service.PositionBuffer.Outcome;
+
+class PositionBufferTests {
+
+    @Test
+    void olderFixIsRejectedAsStale() {
+        PositionBuffer buffer = new PositionBuffer(10);
+        buffer.register(1);
+
+        assertThat(buffer.record(1, 12.0, 77.0, 2_000, 5_000)).isEqualTo(Outcome.ACCEPTED);
+        assertThat(buffer.record(1, 12.1, 77.1, 1_999, 5_001)).isEqualTo(Outcome.STALE);
+        assertThat(buffer.record(1, 12.2, 77.2, 2_000, 5_002)).isEqualTo(Outcome.ACCEPTED);
+
+        assertThat(buffer.latest(1)).isEqualTo(new Fix(12.2, 77.2, 2_000, 5_002));
+        assertThat(buffer.staleCount()).isEqualTo(1);
+        assertThat(buffer.record(2, 12.0, 77.0, 3_000, 5_003)).isEqualTo(Outcome.UNKNOWN);
+    }
+
+    @Test
+    void manyPingsQueueOneEntryPerRider() {
+        PositionBuffer buffer = new PositionBuffer(10);
+        buffer.register(1);
+        buffer.register(2);
+        for (int i = 0; i < 1_000; i++) {
+            buffer.record(1, 12.0, 77.0 + i * 1e-5, i, 10_000 + i);
+            buffer.record(2, 13.0, 78.0 + i * 1e-5, i, 20_000 + i);
+        }
+
+        assertThat(buffer.pendingCount()).isEqualTo(2);
+        List<Drained> drained = buffer.drain();
+
+        assertThat(drained).containsExactlyInAnyOrder(
+                new Drained(1, new Fix(12.0, 77.0 + 999 * 1e-5, 999, 10_999), 10_000),
+                new Drained(2, new Fix(13.0, 78.0 + 999 * 1e-5, 999, 20_999), 20_000));
+        assertThat(buffer.pendingCount()).isZero();
+        assertThat(buffer.coalescedCount()).isEqualTo(1_998);
+        assertThat(buffer.drain()).isEmpty();
+    }
+
+    @Test
+    void pingsLandingDuringDrainsAreNeverLost() {
+        int riders = 64;
+        int pings = 20_000;
+        PositionBuffer buffer = new PositionBuffer(riders);
+        for (long empId = 0; empId < riders; empId++) {
+            buffer.register(empId);
+        }
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            int first = w;
+            writers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 1; i <= pings; i++) {
+                    for (long empId = first; empId < riders; empId += 4) {
+                        buffer.record(empId, 12.0, 77.0, i, i);
+                    }
+                }
+            }));
+        }
+
+        Map<Long, Long> lastDrained = new HashMap<>();
+        int maxPending = 0;
+        while (writers.stream().anyMatch(Thread::isAlive)) {
+            maxPending = Math.max(maxPending, buffer.pendingCount());
+            buffer.drain().forEach(d -> lastDrained.put(d.empId(), d.fix().recordedAt()));
+        }
+        buffer.drain().forEach(d -> lastDrained.put(d.empId(), d.fix().recordedAt()));
+
+        assertThat(maxPending).isLessThanOrEqualTo(riders);
+        assertThat(buffer.pendingCount()).isZero();
+        for (long empId = 0; empId < riders; empId++) {
+            assertThat(lastDrained.get(empId)).as("rider %d", empId).isEqualTo((long) pings);
+        }
+    }
+
+    @Test
+    void slotRemovedWhileQueuedIsSkipped() {
+        PositionBuffer buffer = new PositionBuffer(10);
+        buffer.register(1);
+        buffer.register(2);
+        buffer.record(1, 12.0, 77.0, 1, 1);
+        buffer.record(2, 13.0, 78.0, 1, 1);
+        buffer.remove(1);
+
+        assertThat(buffer.drain()).extracting(Drained::empId).containsExactly(2L);
+        assertThat(buffer.pendingCount()).isZero();
+
+        // Re-registered while the old slot is still queued: only the new slot's fix comes out
+        buffer.record(2, 13.0, 78.0, 2, 2);
+        buffer.remove(2);
+        buffer.register(2);
+        buffer.record(2, 14.0, 79.0, 3, 3);
+
+        assertThat(buffer.drain()).containsExactly(new Drained(2, new Fix(14.0, 79.0, 3, 3), 3));
+    }
+
+    @Test
+    void registerHonoursCapacity() {
+        PositionBuffer buffer = new PositionBuffer(2);
+
+        assertThat(buffer.register(1)).isTrue();
+        assertThat(buffer.register(2)).isTrue();
+        assertThat(buffer.register(3)).isFalse();
+        assertThat(buffer.register(1)).isTrue();  // Already there
+        assertThat(buffer.isRegistered(3)).isFalse();
+        assertThat(buffer.size()).isEqualTo(2);
+
+        buffer.remove(1);
+        assertThat(buffer.register(3)).isTrue();
+        assertThat(buffer.size()).isEqualTo(2);
+    }
+}
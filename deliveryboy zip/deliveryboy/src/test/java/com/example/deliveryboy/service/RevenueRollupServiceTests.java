@@ -0,0 +1,193 @@
+package com.example.deliveryboy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.deliveryboy.entity.Bill;
+import com.example.deliveryboy.entity.Delivery;
+import com.example.deliveryboy.entity.DeliveryBoy;
+import com.example.deliveryboy.entity.Order;
+import com.example.deliveryboy.entity.RevenueRollup;
+import com.example.deliveryboy.entity.User;
+import com.example.deliveryboy.repository.BillRepository;
+import com.example.deliveryboy.repository.DeliveryBoyRepository;
+import com.example.deliveryboy.repository.DeliveryRepository;
+import com.example.deliveryboy.repository.OrderRepository;
+import com.example.deliveryboy.repository.RevenueRollupRepository;
+import com.example.deliveryboy.repository.UserRepository;
+import com.example.deliveryboy.response.RevenueTotal;
+
+// Committed writes, so the rebuild's reader threads see the bills
+@DataJpaTest(properties = { "deliveryboy.revenue.rebuild-threads=3", "deliveryboy.revenue.rebuild-chunk=2" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RevenueRollupService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RevenueRollupServiceTests {
+
+    @Autowired
+    private RevenueRollupService rollupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private DeliveryBoyRepository deliveryBoyRepository;
+
+    @Autowired
+    private RevenueRollupRepository rollupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Long rider;
+    private String today;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        userRepository.save(new User("rv-a", "A", "a@example.com", "9000000001"));
+        userRepository.save(new User("rv-b", "B", "b@example.com", "9000000002"));
+        for (int i = 0; i < 3; i++) {
+            orderRepository.save(new Order("rv-o" + i, "details", "address", userRepository.getReferenceById("rv-a")));
+        }
+        DeliveryBoy deliveryBoy = new DeliveryBoy();
+        deliveryBoy.setEname("Rider");
+        deliveryBoy.setEmail("rider@example.com");
+        deliveryBoy.setVehicle("bike");
+        deliveryBoy.setPhoneNumber("8000000001");
+        rider = deliveryBoyRepository.save(deliveryBoy).getEmpId();
+        today = LocalDate.now(ZoneOffset.UTC).toString();
+    }
+
+    @AfterEach
+    void tearDown() {
+        deliveryRepository.deleteAllInBatch();
+        billRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        deliveryBoyRepository.deleteAllInBatch();
+        rollupRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void billWrittenBeforeDispatchCountsForTheRiderOnceDispatched() {
+        bill("rv-o0", "10.00", "rv-t1");
+        assertThat(total(RevenueRollup.RIDER, rider.toString()).billCount()).isZero();
+
+        String deliveryId = deliver("rv-d1", "rv-o0");
+        bill("rv-o0", "2.50", "rv-t2");  // Billed after dispatch: counted by afterInsert
+
+        assertThat(amount(RevenueRollup.RIDER, rider.toString())).isEqualByComparingTo("12.50");
+        assertThat(total(RevenueRollup.RIDER, rider.toString()).billCount()).isEqualTo(2);
+        assertThat(amount(RevenueRollup.USER, "rv-a")).isEqualByComparingTo("12.50");  // Not moved by the delivery
+
+        // Moved to another order, then deleted: the rider's revenue follows
+        rollupService.reattribute(List.of("rv-o0", "rv-o1"),
+                () -> deliveryRepository.updateIfVersion(deliveryId, "rv-a", "rv-o1", null));
+        assertThat(total(RevenueRollup.RIDER, rider.toString()).billCount()).isZero();
+        rollupService.reattribute(List.of("rv-o0"), () -> deliveryRepository.updateIfVersion(deliveryId, "rv-a", "rv-o0", null));
+        rollupService.reattribute(List.of("rv-o0"), () -> deliveryRepository.deleteIfVersion(deliveryId, null));
+
+        assertThat(amount(RevenueRollup.RIDER, rider.toString())).isZero();
+        assertThat(amount(RevenueRollup.DAY, today)).isEqualByComparingTo("12.50");
+    }
+
+    @Test
+    void rewriteNetsTheOldBillAgainstTheNew() {
+        Long billId = bill("rv-o0", "10.00", "rv-t1");
+        bill("rv-o1", "4.00", "rv-t2");
+
+        rollupService.rewrite(billId, () -> billRepository.updateIfVersion(billId, "rv-o0", new BigDecimal("15.00"),
+                "rv-t1", null));
+        assertThat(amount(RevenueRollup.USER, "rv-a")).isEqualByComparingTo("19.00");
+        assertThat(total(RevenueRollup.USER, "rv-a").billCount()).isEqualTo(2);
+
+        // The order moves to another user and takes its bill along
+        rollupService.reattribute(List.of("rv-o0"), () -> orderRepository.updateIfVersion("rv-o0", "details", "address",
+                "rv-b", null, null, null));
+        assertThat(amount(RevenueRollup.USER, "rv-a")).isEqualByComparingTo("4.00");
+        assertThat(amount(RevenueRollup.USER, "rv-b")).isEqualByComparingTo("15.00");
+
+        rollupService.rewrite(billId, () -> billRepository.deleteIfVersion(billId, null));
+        assertThat(total(RevenueRollup.USER, "rv-b").billCount()).isZero();
+        assertThat(amount(RevenueRollup.USER, "rv-b")).isZero();
+        assertThat(amount(RevenueRollup.DAY, today)).isEqualByComparingTo("4.00");
+        assertThat(total(RevenueRollup.DAY, today).billCount()).isEqualTo(1);
+    }
+
+    @Test
+    void rebuildRecomputesWhatTheWritesMaintained() {
+        deliver("rv-d1", "rv-o1");
+        List<BigDecimal> amounts = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {  // Six chunks of two over three readers
+            amounts.add(new BigDecimal(i + ".25"));
+            bill("rv-o" + i % 3, amounts.get(i).toPlainString(), "rv-t" + i);
+        }
+        List<RevenueTotal> maintained = List.of(total(RevenueRollup.DAY, today), total(RevenueRollup.USER, "rv-a"),
+                total(RevenueRollup.RIDER, rider.toString()));
+        rollupRepository.deleteAllInBatch();  // Lost, or drifted
+        rollupRepository.save(new RevenueRollup(RevenueRollup.userKey("rv-b"), BigDecimal.TEN, 1));
+
+        assertThat(rollupService.rebuild()).isEqualTo(11);
+
+        assertThat(List.of(total(RevenueRollup.DAY, today), total(RevenueRollup.USER, "rv-a"),
+                total(RevenueRollup.RIDER, rider.toString())))
+                .usingRecursiveComparison().withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .isEqualTo(maintained);
+        assertThat(amount(RevenueRollup.USER, "rv-a"))
+                .isEqualByComparingTo(amounts.stream().reduce(BigDecimal.ZERO, BigDecimal::add));
+        assertThat(total(RevenueRollup.RIDER, rider.toString()).billCount()).isEqualTo(4);  // Bills 1, 4, 7 and 10
+        assertThat(total(RevenueRollup.USER, "rv-b").billCount()).isZero();
+    }
+
+    private Long bill(String orderId, String amount, String transactionId) {
+        return transactionTemplate.execute(status -> {
+            Bill bill = billRepository.save(new Bill(orderRepository.getReferenceById(orderId), new BigDecimal(amount),
+                    transactionId));
+            rollupService.afterInsert(List.of(bill.getBillId()));
+            return bill.getBillId();
+        });
+    }
+
+    private String deliver(String deliveryId, String orderId) {
+        rollupService.reattribute(List.of(orderId), () -> deliveryRepository.save(new Delivery(deliveryId,
+                userRepository.getReferenceById("rv-a"), orderRepository.getReferenceById(orderId),
+                deliveryBoyRepository.getReferenceById(rider), false)));
+        return deliveryId;
+    }
+
+    private RevenueTotal total(String scope, String key) {
+        return rollupService.get(scope, key);
+    }
+
+    private BigDecimal amount(String scope, String key) {
+        return total(scope, key).amount();
+    }
+}